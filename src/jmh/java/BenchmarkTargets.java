@@ -0,0 +1,144 @@
+import benchmarks.Targets;
+
+import java.util.function.IntSupplier;
+import java.util.function.IntUnaryOperator;
+import java.util.function.ToIntFunction;
+
+/**
+ * Implementierung von benchmarks.Targets im Standardpaket, damit die Benchmarks die Klassen des Spiels aufrufen koennen
+ */
+public class BenchmarkTargets implements Targets {
+
+    @Override
+    public IntUnaryOperator doMove(double strength, int[] board) {
+        AI ai = new AI(strength);
+        return player -> ai.doMove(board, player);
+    }
+
+    @Override
+    public Search search(int[] board, int moveOrdering) {
+        AI ai = new AI(1, null);
+        ai.setMoveOrdering(moveOrdering);
+        return new Search() {
+            @Override
+            public int search(int player) {
+                return ai.search(board, player);
+            }
+
+            @Override
+            public long takeNodeCount() {
+                long nodes = ai.getNodeCount();
+                ai.resetNodeCount();
+                return nodes;
+            }
+        };
+    }
+
+    @Override
+    public ToIntFunction<int[]> checkForWinner() {
+        return AI::checkForWinner;
+    }
+
+    @Override
+    public IntSupplier playGame(double strengthX, double strengthO) {
+        AI aiX = new AI(strengthX);
+        AI aiO = new AI(strengthO);
+        int[] board = new int[9];
+        return () -> {
+            for(int i = 0; i < board.length; i++) {
+                board[i] = 0;
+            }
+            return PuzzleGenerator.playMoves(board, true, 9, aiX, aiO);
+        };
+    }
+
+    @Override
+    public IntSupplier generatePuzzle(double strengthX, double strengthO) {
+        PuzzleGenerator generator = new PuzzleGenerator(strengthX, strengthO);
+        int[] positions = new int[1];
+        byte[] winners = new byte[1];
+        return () -> {
+            generator.generate(positions, winners, 0, 1);
+            return winners[0];
+        };
+    }
+
+    @Override
+    public AnswerTree answerTree(String implementation) {
+        switch(implementation) {
+            case "bst":
+                return answerTree(new BinarySearchTree<>());
+            case "avl":
+                return answerTree(new AVLTree<>());
+            case "store":
+                AnswerStore store = new AnswerStore();
+                return new AnswerTree() {
+                    @Override
+                    public void insert(int answer, int answerCount) {
+                        store.insert(answer, answerCount);
+                    }
+
+                    @Override
+                    public boolean contains(int answer, int answerCount) {
+                        return store.contains(answer, answerCount);
+                    }
+
+                    @Override
+                    public void remove(int answer, int answerCount) {
+                        store.remove(answer, answerCount);
+                    }
+                };
+            default:
+                throw new IllegalArgumentException("Unknown answer tree: " + implementation);
+        }
+    }
+
+    @Override
+    public IntSupplier batch(String evaluation, int[][] boards) {
+        int[] packed = new int[boards.length];
+        for(int i = 0; i < boards.length; i++) {
+            packed[i] = BatchEvaluator.pack(boards[i]);
+        }
+        int[] indices = new int[boards.length];
+        BatchEvaluator.indices(packed, indices, 0, boards.length);
+        byte[] results = new byte[boards.length];
+        switch(evaluation) {
+            case "winners":
+                return () -> {
+                    BatchEvaluator.winners(packed, results, 0, packed.length);
+                    return results[0];
+                };
+            case "indexWinners":
+                return () -> {
+                    BatchEvaluator.winnersOfIndices(indices, results, 0, indices.length);
+                    return results[0];
+                };
+            case "perfectPlayValues":
+                return () -> {
+                    BatchEvaluator.perfectPlayValues(indices, results, 0, indices.length);
+                    return results[0];
+                };
+            default:
+                throw new IllegalArgumentException("Unknown evaluation: " + evaluation);
+        }
+    }
+
+    private static AnswerTree answerTree(BinarySearchTree<PlayerAnswer> tree) {
+        return new AnswerTree() {
+            @Override
+            public void insert(int answer, int answerCount) {
+                tree.insert(new PlayerAnswer(answer, answerCount));
+            }
+
+            @Override
+            public boolean contains(int answer, int answerCount) {
+                return tree.search(new PlayerAnswer(answer, answerCount)) != null;
+            }
+
+            @Override
+            public void remove(int answer, int answerCount) {
+                tree.remove(new PlayerAnswer(answer, answerCount));
+            }
+        };
+    }
+}
@@ -0,0 +1,69 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Benchmarks fuer AI.doMove bei verschiedenen Staerken und Fuellstaenden des Spielbretts
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AIBenchmark {
+
+    @Param({"0.0", "0.5", "1.0"})
+    public double strength;
+
+    @Param({"0", "2", "4", "6"})
+    public int filled;
+
+    private IntUnaryOperator doMove;
+    private int player;
+
+    @Setup
+    public void setup() {
+        Targets targets = Targets.get();
+        int[] board = createBoard(new Random(42), filled);
+        player = filled % 2 + 1;
+        doMove = targets.doMove(strength, board);
+    }
+
+    @Benchmark
+    public int doMove() {
+        return doMove.applyAsInt(player);
+    }
+
+    /**
+     * Erzeugt ein Spielbrett, auf dem abwechselnd (X beginnt) die uebergebene Anzahl an Steinen zufaellig gesetzt wurde
+     * @param random Die Zufallsquelle
+     * @param pieces Die Anzahl der Steine
+     * @return Das Spielbrett (0: frei; 1: X; 2: O)
+     */
+    static int[] createBoard(Random random, int pieces) {
+        int[] board = new int[9];
+        for(int i = 0; i < pieces; i++) {
+            int cell;
+            do {
+                cell = random.nextInt(9);
+            } while(board[cell] != 0);
+            board[cell] = i % 2 + 1;
+        }
+        return board;
+    }
+}
@@ -0,0 +1,77 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks fuer den Antwortspeicher (BinarySearchTree bzw. AVLTree mit PlayerAnswer und AnswerStore) mit 10^3 bis 10^7 Antworten.
+ * Die Antworten werden in zufaelliger Reihenfolge eingefuegt, da ein unbalancierter Baum bei der im Spiel auftretenden
+ * aufsteigenden Reihenfolge zu einer Liste entartet und der Aufbau bei grossen Groessen quadratische Zeit braucht.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class AnswerTreeBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    public int size;
+
+    @Param({"bst", "avl", "store"})
+    public String implementation;
+
+    private Targets.AnswerTree tree;
+    private int[] answers;
+    private Random random;
+
+    @Setup
+    public void setup() {
+        tree = Targets.get().answerTree(implementation);
+        random = new Random(42);
+        answers = new int[size];
+        int[] order = new int[size];
+        for(int i = 0; i < size; i++) {
+            answers[i] = random.nextInt(2);
+            order[i] = i;
+        }
+        for(int i = size - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = order[i];
+            order[i] = order[j];
+            order[j] = swap;
+        }
+        for(int count : order) {
+            tree.insert(answers[count], count);
+        }
+    }
+
+    @Benchmark
+    public boolean search() {
+        int count = random.nextInt(size);
+        return tree.contains(answers[count], count);
+    }
+
+    /**
+     * Fuegt die naechste Antwort ein und entfernt sie wieder, damit die Groesse des Baums waehrend der Messung gleich bleibt
+     */
+    @Benchmark
+    public void insertAndRemove() {
+        int answer = random.nextInt(2);
+        tree.insert(answer, size);
+        tree.remove(answer, size);
+    }
+}
@@ -0,0 +1,54 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+/**
+ * Benchmarks fuer den BatchEvaluator, angegeben in bewerteten Spielbrettern pro Mikrosekunde.
+ * Die Vector API wird nur benutzt, wenn mit den Profilen benchmarks und vector gebaut und mit
+ * -jvmArgsAppend "--add-modules jdk.incubator.vector" gestartet wurde.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BatchBenchmark {
+    private static final int BOARDS = 1 << 16;
+
+    @Param({"winners", "indexWinners", "perfectPlayValues"})
+    public String evaluation;
+
+    private IntSupplier batch;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(7);
+        int[][] boards = new int[BOARDS][];
+        for(int i = 0; i < boards.length; i++) {
+            boards[i] = AIBenchmark.createBoard(random, random.nextInt(10));
+        }
+        batch = Targets.get().batch(evaluation, boards);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BOARDS)
+    public int evaluate() {
+        return batch.getAsInt();
+    }
+}
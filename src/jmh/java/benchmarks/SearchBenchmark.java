@@ -0,0 +1,83 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToIntFunction;
+
+/**
+ * Benchmarks fuer die MinMax Suche ohne Loesungs- und Transpositionstabelle und fuer AI.checkForWinner.
+ * Fuer die Suche wird zusaetzlich die Anzahl der besuchten Knoten ausgegeben, um die Zugsortierungen zu vergleichen.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SearchBenchmark {
+
+    @Param({"0", "2", "4", "6"})
+    public int filled;
+
+    /**
+     * Die Zugsortierung: 0 = AI.ORDER_NONE, 7 = AI.DEFAULT_ORDERING, 15 = AI.ORDER_ALL
+     */
+    @Param({"0", "7", "15"})
+    public int moveOrdering;
+
+    private Targets.Search search;
+    private ToIntFunction<int[]> checkForWinner;
+    private int player;
+    private int[][] boards;
+    private int next;
+
+    @Setup
+    public void setup() {
+        Targets targets = Targets.get();
+        int[] board = AIBenchmark.createBoard(new Random(42), filled);
+        player = filled % 2 + 1;
+        search = targets.search(board, moveOrdering);
+        checkForWinner = targets.checkForWinner();
+
+        Random random = new Random(7);
+        boards = new int[1024][];
+        for(int i = 0; i < boards.length; i++) {
+            boards[i] = AIBenchmark.createBoard(random, random.nextInt(10));
+        }
+    }
+
+    @Benchmark
+    public int searchWithoutTables(Nodes nodes) {
+        int result = search.search(player);
+        nodes.nodes += search.takeNodeCount();
+        return result;
+    }
+
+    @Benchmark
+    public int checkForWinner() {
+        int[] board = boards[next++ & 1023];
+        return checkForWinner.applyAsInt(board);
+    }
+
+    /**
+     * Zaehlt die von der Suche besuchten Knoten; JMH gibt die Summe je Messung als zusaetzliches Ergebnis aus
+     */
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Nodes {
+        public long nodes;
+    }
+}
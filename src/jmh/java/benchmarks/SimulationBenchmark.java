@@ -0,0 +1,55 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+/**
+ * Benchmarks fuer die Spielsimulation mit PuzzleGenerator.playMoves (ein komplettes Spiel)
+ * und fuer das Erzeugen eines Raetsels mit dem PuzzleGenerator
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SimulationBenchmark {
+
+    /**
+     * Die Faehigkeitsstufe beider K.I.s; 0.2 ist die Voreinstellung der Slider
+     */
+    @Param({"0.2", "1.0"})
+    public double strength;
+
+    private IntSupplier playGame;
+    private IntSupplier generatePuzzle;
+
+    @Setup
+    public void setup() {
+        Targets targets = Targets.get();
+        playGame = targets.playGame(strength, strength);
+        generatePuzzle = targets.generatePuzzle(strength, strength);
+    }
+
+    @Benchmark
+    public int playGame() {
+        return playGame.getAsInt();
+    }
+
+    @Benchmark
+    public int generatePuzzle() {
+        return generatePuzzle.getAsInt();
+    }
+}
@@ -0,0 +1,128 @@
+package benchmarks;
+
+import java.util.function.IntSupplier;
+import java.util.function.IntUnaryOperator;
+import java.util.function.ToIntFunction;
+
+/**
+ * Zugang der Benchmarks zu den Klassen des Spiels.
+ * JMH verlangt, dass Benchmark Klassen in einem benannten Paket liegen, waehrend die Klassen des Spiels im Standardpaket liegen
+ * und von dort aus nicht importiert werden koennen. Die Klasse BenchmarkTargets im Standardpaket implementiert daher dieses
+ * Interface und wird einmalig per Reflection geladen; die eigentlichen Aufrufe laufen danach ohne Reflection ueber die
+ * funktionalen Interfaces des JDK.
+ */
+public interface Targets {
+
+    /**
+     * Liefert die Implementierung aus dem Standardpaket
+     * @return Die Implementierung von Targets
+     */
+    static Targets get() {
+        try {
+            return (Targets) Class.forName("BenchmarkTargets").getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("BenchmarkTargets not found", e);
+        }
+    }
+
+    /**
+     * AI.doMove auf einem festen Spielbrett
+     * @param strength Die Faehigkeitsstufe der K.I.
+     * @param board Das Spielbrett (0: frei; 1: X; 2: O)
+     * @return Funktion, die fuer den uebergebenen Spieler den Zug der K.I. liefert
+     */
+    IntUnaryOperator doMove(double strength, int[] board);
+
+    /**
+     * Die MinMax Suche der K.I. ohne Loesungstabelle und ohne Transpositionstabelle
+     * @param board Das Spielbrett (0: frei; 1: X; 2: O)
+     * @param moveOrdering Die Zugsortierung (Kombination der AI.ORDER_ Konstanten)
+     * @return Die Suche
+     */
+    Search search(int[] board, int moveOrdering);
+
+    /**
+     * AI.checkForWinner
+     * @return Funktion, die fuer ein Spielbrett den Gewinner liefert
+     */
+    ToIntFunction<int[]> checkForWinner();
+
+    /**
+     * Spielt ein komplettes Spiel mit PuzzleGenerator.playMoves, wie beim Erzeugen eines Raetsels
+     * @param strengthX Die Faehigkeitsstufe der K.I. fuer X
+     * @param strengthO Die Faehigkeitsstufe der K.I. fuer O
+     * @return Funktion, die ein Spiel auf einem leeren Spielbrett spielt und den Gewinner liefert
+     */
+    IntSupplier playGame(double strengthX, double strengthO);
+
+    /**
+     * Erzeugt Raetsel mit dem PuzzleGenerator
+     * @param strengthX Die Faehigkeitsstufe der K.I. fuer X
+     * @param strengthO Die Faehigkeitsstufe der K.I. fuer O
+     * @return Funktion, die ein Raetsel erzeugt und dessen Gewinner liefert
+     */
+    IntSupplier generatePuzzle(double strengthX, double strengthO);
+
+    /**
+     * Erzeugt einen leeren Antwortspeicher
+     * @param implementation "bst" fuer einen unbalancierten BinarySearchTree, "avl" fuer einen AVLTree (jeweils mit
+     *                       PlayerAnswer Objekten), "store" fuer den AnswerStore, wie ihn TicTacToeDecider benutzt
+     * @return Der Antwortspeicher
+     */
+    AnswerTree answerTree(String implementation);
+
+    /**
+     * Bewertet alle uebergebenen Spielbretter mit dem BatchEvaluator
+     * @param evaluation "winners" fuer BatchEvaluator.winners mit gepackten Bitboards, "indexWinners" fuer
+     *                   BatchEvaluator.winnersOfIndices und "perfectPlayValues" fuer BatchEvaluator.perfectPlayValues
+     *                   mit Base-3 Indizes
+     * @param boards Die Spielbretter (0: frei; 1: X; 2: O), sie werden einmalig umgewandelt
+     * @return Funktion, die alle Spielbretter in einem Aufruf bewertet und das Ergebnis des ersten liefert
+     */
+    IntSupplier batch(String evaluation, int[][] boards);
+
+    /**
+     * Die MinMax Suche einer K.I. zusammen mit ihrem Knotenzaehler
+     */
+    interface Search {
+        /**
+         * Sucht den besten Zug
+         * @param player Der Spieler der am Zug ist
+         * @return Das Ergebnis der Suche (Zug und Evaluierungswert)
+         */
+        int search(int player);
+
+        /**
+         * Liefert die Anzahl der seit dem letzten Aufruf besuchten Knoten und setzt den Zaehler zurueck
+         * @return Die Anzahl der besuchten Knoten
+         */
+        long takeNodeCount();
+    }
+
+    /**
+     * Die Operationen des Antwortspeichers
+     */
+    interface AnswerTree {
+        /**
+         * Fuegt eine Antwort ein
+         * @param answer Die Antwort
+         * @param answerCount Die wievielte Antwort es ist
+         */
+        void insert(int answer, int answerCount);
+
+        /**
+         * Sucht eine Antwort
+         * @param answer Die Antwort
+         * @param answerCount Die wievielte Antwort es ist
+         * @return true, wenn die Antwort gefunden wurde
+         */
+        boolean contains(int answer, int answerCount);
+
+        /**
+         * Entfernt eine Antwort
+         * @param answer Die Antwort
+         * @param answerCount Die wievielte Antwort es ist
+         */
+        void remove(int answer, int answerCount);
+    }
+}
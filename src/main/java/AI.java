@@ -1,8 +1,86 @@
-import java.util.Random;
+import java.util.Arrays;
+import java.util.SplittableRandom;
 
 public class AI {
 
-    private static final Random RANDOM = new Random();
+    /**
+     * Bitmaske eines vollstaendig belegten Spielbretts (Bit i entspricht dem Feld i des flachen Arrays)
+     */
+    static final int FULL_BOARD = 0b111_111_111;
+
+    /**
+     * Die vorberechneten Gewinnreihen als Bitmasken: 3 Zeilen, 3 Spalten und die beiden Diagonalen
+     */
+    static final int[] WIN_LINES = {
+            0b000_000_111, 0b000_111_000, 0b111_000_000,
+            0b001_001_001, 0b010_010_010, 0b100_100_100,
+            0b100_010_001, 0b001_010_100
+    };
+
+    /**
+     * Gibt fuer jede Bitmaske der von einem Spieler belegten Felder an, ob sie eine Gewinnreihe enthaelt.
+     * Nach einem Zug muss damit nur noch die Bitmaske des ziehenden Spielers nachgeschlagen werden.
+     */
+    private static final boolean[] CONTAINS_LINE = createContainsLine();
+
+    /**
+     * Zugsortierung: alle Felder in aufsteigender Reihenfolge untersuchen
+     */
+    public static final int ORDER_NONE = 0;
+    /**
+     * Zugsortierung: zuerst das mittlere Feld, dann die Ecken, dann die Kanten
+     */
+    public static final int ORDER_CENTER_CORNERS = 1;
+    /**
+     * Zugsortierung: zuerst den in der Transpositionstabelle gespeicherten besten Zug
+     */
+    public static final int ORDER_TABLE_MOVE = 2;
+    /**
+     * Zugsortierung: danach die beiden Killerzuege der Tiefe, also Zuege, die zuletzt in derselben Tiefe abgeschnitten haben
+     */
+    public static final int ORDER_KILLERS = 4;
+    /**
+     * Zugsortierung: die uebrigen Zuege danach, wie oft sie bisher fuer den Spieler abgeschnitten haben (History Heuristik)
+     */
+    public static final int ORDER_HISTORY = 8;
+    /**
+     * Zugsortierung: alle Verfahren zusammen
+     */
+    public static final int ORDER_ALL = ORDER_CENTER_CORNERS | ORDER_TABLE_MOVE | ORDER_KILLERS | ORDER_HISTORY;
+
+    /**
+     * Die voreingestellte Zugsortierung. Die History Heuristik ist nicht enthalten: auf dem 3x3 Spielbrett besucht die Suche
+     * mit ihr bei wiederholten Suchen mehr Knoten als mit den Killerzuegen allein und das Sortieren kostet zusaetzlich Zeit.
+     */
+    public static final int DEFAULT_ORDERING = ORDER_CENTER_CORNERS | ORDER_TABLE_MOVE | ORDER_KILLERS;
+
+    /**
+     * Bitmaske des mittleren Feldes
+     */
+    private static final int CENTER = 0b000_010_000;
+    /**
+     * Bitmaske der vier Ecken
+     */
+    private static final int CORNERS = 0b101_000_101;
+    /**
+     * Der feste Vorrang der Felder fuer ORDER_CENTER_CORNERS (2: Mitte; 1: Ecke; 0: Kante)
+     */
+    private static final int[] CELL_PRIORITY = {1, 0, 1, 0, 2, 0, 1, 0, 1};
+
+    /**
+     * Ab diesem Wert werden alle Eintraege der History Tabelle eines Spielers halbiert, damit aeltere Suchen weniger zaehlen
+     */
+    private static final int HISTORY_LIMIT = 1 << 20;
+
+    /**
+     * Ein Wert, der groesser als jeder Evaluierungswert ist
+     */
+    private static final int INFINITY = 1000;
+
+    /**
+     * Die Transpositionstabelle, die sich alle ohne eigene Tabelle erstellten K.I. Objekte teilen
+     */
+    private static final TranspositionTable SHARED_TABLE = new TranspositionTable();
 
     /**
      * Die Staerke der K.I.
@@ -10,11 +88,144 @@ public class AI {
     private final double strength;
 
     /**
-     * Konstruktormethode zum Erstellen einer K.I. mit der uebergebenen Faehigkeitsstufe
+     * Die Transpositionstabelle der Suche (null: keine Tabelle)
+     */
+    private final TranspositionTable table;
+
+    /**
+     * Die Zufallsquelle fuer die zufaelligen Zuege. Jedes K.I. Objekt hat eine eigene Quelle, daher darf ein Objekt,
+     * das zufaellige Zuege macht, nur von einem Thread gleichzeitig benutzt werden.
+     */
+    private final SplittableRandom random;
+
+    /**
+     * Die eingestellte Zugsortierung (Kombination der ORDER_ Konstanten)
+     */
+    private int moveOrdering = DEFAULT_ORDERING;
+
+    /**
+     * Die Killerzuege je Tiefe (Feld + 1, 0: keiner), der zuletzt abschneidende Zug steht vorne
+     */
+    private final int[][] killers = new int[10][2];
+
+    /**
+     * Die History Tabelle je Spieler und Feld: Summe der Gewichte aller Abschnitte durch den Zug
+     */
+    private final int[][] history = new int[2][9];
+
+    /**
+     * Die Anzahl der seit dem letzten resetNodeCount besuchten Knoten
+     */
+    private long nodeCount;
+
+    /**
+     * Die Anzahl der Alpha-Beta Abschnitte, fuer Metrics
+     */
+    private long cutoffCount;
+
+    /**
+     * Die Anzahl der Abfragen der Transpositionstabelle und die Anzahl der gefundenen Eintraege, fuer Metrics
+     */
+    private long tableProbeCount;
+    private long tableHitCount;
+
+    /**
+     * Die groesste Tiefe seit Beginn der aktuellen Messung, fuer Metrics
+     */
+    private int maxDepth;
+
+    /**
+     * Konstruktormethode zum Erstellen einer K.I. mit der uebergebenen Faehigkeitsstufe.
+     * Die K.I. benutzt die gemeinsame Transpositionstabelle aller K.I. Objekte.
      * @param strength Die Faehigkeitsstufe der K.I. (0: random; 1: perfekt)
      */
     public AI(double strength) {
+        this(strength, SHARED_TABLE);
+    }
+
+    /**
+     * Konstruktormethode zum Erstellen einer K.I. mit der uebergebenen Faehigkeitsstufe und Transpositionstabelle.
+     * Mehrere K.I. Objekte koennen sich dieselbe Tabelle teilen, auch ueber Threads hinweg.
+     * @param strength Die Faehigkeitsstufe der K.I. (0: random; 1: perfekt)
+     * @param table Die zu benutzende Transpositionstabelle (null: ohne Tabelle suchen)
+     */
+    public AI(double strength, TranspositionTable table) {
+        this(strength, table, new SplittableRandom());
+    }
+
+    /**
+     * Konstruktormethode zum Erstellen einer K.I., deren zufaellige Zuege sich mit demselben Startwert wiederholen lassen.
+     * Die K.I. benutzt die gemeinsame Transpositionstabelle aller K.I. Objekte.
+     * @param strength Die Faehigkeitsstufe der K.I. (0: random; 1: perfekt)
+     * @param seed Der Startwert der Zufallsquelle
+     */
+    public AI(double strength, long seed) {
+        this(strength, SHARED_TABLE, new SplittableRandom(seed));
+    }
+
+    /**
+     * Konstruktormethode zum Erstellen einer K.I. mit der uebergebenen Faehigkeitsstufe, Transpositionstabelle und Zufallsquelle.
+     * Die Zufallsquelle wird von der K.I. weiterbenutzt und darf daher nicht mit anderen Objekten geteilt werden
+     * (stattdessen SplittableRandom.split benutzen).
+     * @param strength Die Faehigkeitsstufe der K.I. (0: random; 1: perfekt)
+     * @param table Die zu benutzende Transpositionstabelle (null: ohne Tabelle suchen)
+     * @param random Die Zufallsquelle fuer die zufaelligen Zuege
+     */
+    public AI(double strength, TranspositionTable table, SplittableRandom random) {
         this.strength = strength;
+        this.table = table;
+        this.random = random;
+    }
+
+    /**
+     * Liefert die Transpositionstabelle, die sich alle ohne eigene Tabelle erstellten K.I. Objekte teilen
+     * @return Die gemeinsame Transpositionstabelle
+     */
+    static TranspositionTable sharedTable() {
+        return SHARED_TABLE;
+    }
+
+    /**
+     * Stellt die Zugsortierung der Suche ein. Die Sortierung aendert nur, wie viele Knoten besucht werden, nicht das
+     * Ergebnis: bei gleich guten Zuegen wird weiterhin der Zug mit dem kleinsten Index gewaehlt.
+     * Killerzuege und History Tabelle gehoeren zum K.I. Objekt; wird es von mehreren Threads gleichzeitig benutzt, kann die
+     * Sortierung dadurch schlechter, das Ergebnis aber nicht falsch werden.
+     * @param moveOrdering Kombination der ORDER_ Konstanten, z.B. DEFAULT_ORDERING, ORDER_ALL oder ORDER_NONE
+     */
+    public void setMoveOrdering(int moveOrdering) {
+        this.moveOrdering = moveOrdering;
+    }
+
+    /**
+     * Liefert die eingestellte Zugsortierung
+     * @return Kombination der ORDER_ Konstanten
+     */
+    public int getMoveOrdering() {
+        return moveOrdering;
+    }
+
+    /**
+     * Liefert die Anzahl der Knoten, die die Suche seit dem letzten resetNodeCount besucht hat. Damit laesst sich die
+     * Wirkung der Zugsortierung messen. Der Zaehler ist nicht synchronisiert.
+     * @return Die Anzahl der besuchten Knoten
+     */
+    public long getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * Setzt den Knotenzaehler auf 0
+     */
+    public void resetNodeCount() {
+        nodeCount = 0;
+    }
+
+    /**
+     * Vergisst die Killerzuege und die History Tabelle
+     */
+    public void clearMoveOrdering() {
+        for(int[] depthKillers : killers) Arrays.fill(depthKillers, 0);
+        for(int[] playerHistory : history) Arrays.fill(playerHistory, 0);
     }
 
     /**
@@ -24,12 +235,12 @@ public class AI {
      * @return int gibt den Index des besten Zuges im Array zurueck
      */
     public int doMove(int[] board, int player) {
-        if(strength != 1 && RANDOM.nextDouble() >= strength) {
+        if(strength != 1 && random.nextDouble() >= strength) {
             int emptyCells = 0;
             for (int k : board) {
                 if (k == 0) emptyCells++;
             }
-            int j = RANDOM.nextInt(emptyCells);
+            int j = random.nextInt(emptyCells);
             for(int i = 0; i < board.length; i++) {
                 if(board[i] == 0) {
                     if(j == 0) return i;
@@ -38,186 +249,443 @@ public class AI {
             }
         }
 
-        int bestMove = 0;
-        int bestMoveScore = Integer.MIN_VALUE;
-        for(int i = 0; i < board.length; i++) {
-            if(board[i] == 0) {
-                board[i] = player;
+        byte[] solutions = SolutionTable.get();
+        if(solutions == null || board.length != 9) return moveOf(search(board, player));
 
-                int score = min(board, player % 2 + 1, 1, bestMoveScore);
-                if(score > bestMoveScore) {
-                    bestMoveScore = score;
-                    bestMove = i;
-                }
-
-                board[i] = 0;
-            }
+        int move = SolutionTable.bestMove(solutions, board, player);
+        if(Metrics.isEnabled()) Metrics.recordSolutionTableHit();
+        SearchEvent event = new SearchEvent();
+        if(event.shouldCommit()) {
+            event.player = player;
+            event.move = move;
+            event.solutionTable = true;
+            event.commit();
         }
-        return bestMove;
+        return move;
     }
 
     /**
-     * Ermittlung des niedrigst moeglichem Evaluierungswert des Spielverlaufes fuer den Gegner.
-     * Dafuer wird fuer jedes Feld den folgenden Spielbaum und dessen Evaulierungswert generiert.
-     * Dies geschieht durch das rekursive Durchlaufen des Spielbaums wobei nicht maximierende Spielpfade fuer den Spieler nicht weiter verfolgt werden.
-     * @param board Das Spielbrett
-     * @param player Der Spieler der am Zug ist
-     * @param depth Die Tiefe des Spielbaums bzw. der Rekursionsstufe
-     * @param currentMaxScore Der aktuelle maximale Evaluierungswert fuer den zu Spielenden
-     * @return den besten Evaluierungswert
+     * Durchsucht den Spielbaum ab dem uebergebenen Spielbrett ohne die vorberechnete Loesungstabelle zu benutzen.
+     * Bei gleich guten Zuegen wird der Zug mit dem kleinsten Index gewaehlt.
+     * @param board Das aktuelle Spielbrett (0: frei; 1: X; 2: O)
+     * @param player Der Spieler der aktuell am Zug ist (1: X; 2: O)
+     * @return Der beste Zug und dessen Evaluierungswert, auszulesen mit moveOf und scoreOf
      */
-    private int min(int[] board, int player, int depth, int currentMaxScore) {
-        int winner = checkForWinner(board);
-        if(winner != 0) {
-            int score = 100 - depth;
-            return winner == player ? -score : score;
+    int search(int[] board, int player) {
+        return measuredSearch(board, player, null, null);
+    }
+
+    /**
+     * Durchsucht den Spielbaum wie search und liefert zusaetzlich die Hauptvariante.
+     * Der erste Zug der Hauptvariante ist immer der Zug, den doMove mit Faehigkeitsstufe 1 waehlt; gibt es weiter hinten
+     * mehrere gleich gute Zuege, enthaelt die Hauptvariante einen davon.
+     * @param board Das aktuelle Spielbrett (0: frei; 1: X; 2: O)
+     * @param player Der Spieler der aktuell am Zug ist (1: X; 2: O)
+     * @return Der beste Zug, dessen Evaluierungswert und die Hauptvariante
+     */
+    public SearchResult analyze(int[] board, int player) {
+        if(toBitboard(board, 0) == 0) return new SearchResult(-1, 0, new int[0]);
+        int[][] pv = new int[10][10];
+        int[] pvLength = new int[10];
+        int result = measuredSearch(board, player, pv, pvLength);
+        return new SearchResult(moveOf(result), scoreOf(result), Arrays.copyOf(pv[0], pvLength[0]));
+    }
+
+    /**
+     * Fuehrt searchRoot aus und zeichnet die Suche in Metrics bzw. als SearchEvent auf, wenn die Instrumentierung eingeschaltet
+     * ist bzw. eine JFR Aufzeichnung laeuft
+     * @param board Das aktuelle Spielbrett
+     * @param player Der Spieler der aktuell am Zug ist
+     * @param pv Die Hauptvarianten je Tiefe wie bei searchRoot
+     * @param pvLength Die Laengen der Hauptvarianten je Tiefe wie bei searchRoot
+     * @return Das Ergebnis von searchRoot
+     */
+    private int measuredSearch(int[] board, int player, int[][] pv, int[] pvLength) {
+        SearchEvent event = new SearchEvent();
+        if(!Metrics.isEnabled() && !event.isEnabled()) return searchRoot(board, player, pv, pvLength);
+
+        event.begin();
+        long start = System.nanoTime();
+        long nodes = nodeCount;
+        long cutoffs = cutoffCount;
+        long probes = tableProbeCount;
+        long hits = tableHitCount;
+        maxDepth = 0;
+        int result = searchRoot(board, player, pv, pvLength);
+        nodes = nodeCount - nodes;
+        cutoffs = cutoffCount - cutoffs;
+        probes = tableProbeCount - probes;
+        hits = tableHitCount - hits;
+        if(Metrics.isEnabled()) Metrics.recordSearch(System.nanoTime() - start, nodes, cutoffs, maxDepth, probes, hits);
+        if(event.shouldCommit()) {
+            event.player = player;
+            event.move = moveOf(result);
+            event.nodes = nodes;
+            event.cutoffs = cutoffs;
+            event.maxDepth = maxDepth;
+            event.tableProbes = probes;
+            event.tableHits = hits;
+            event.commit();
         }
+        return result;
+    }
 
-        if(isFull(board)) return 0;
+    /**
+     * Die Suche an der Wurzel. Der erste Zug wird mit vollem Fenster durchsucht, alle weiteren zuerst mit einem Nullfenster,
+     * das nur klaert, ob sie besser (bzw. bei kleinerem Index mindestens gleich gut) sind; nur dann wird exakt nachgesucht.
+     * @param board Das aktuelle Spielbrett
+     * @param player Der Spieler der aktuell am Zug ist
+     * @param pv Die Hauptvarianten je Tiefe, null wenn die Hauptvariante nicht gebraucht wird
+     * @param pvLength Die Laengen der Hauptvarianten je Tiefe, null wenn die Hauptvariante nicht gebraucht wird
+     * @return Der beste Zug und dessen Evaluierungswert, auszulesen mit moveOf und scoreOf
+     */
+    private int searchRoot(int[] board, int player, int[][] pv, int[] pvLength) {
+        int xBits = toBitboard(board, 1);
+        int oBits = toBitboard(board, 2);
 
-        int bestMoveScore = Integer.MAX_VALUE;
-        for(int i = 0; i < board.length; i++) {
-            if(board[i] == 0) {
-                board[i] = player;
+        int bestMove = 0;
+        int bestMoveScore = -INFINITY;
+        int free = ~(xBits | oBits) & FULL_BOARD;
+        if(free == 0) return 0;
 
-                int score = max(board, player % 2 + 1, depth + 1, bestMoveScore);
-                if(score < bestMoveScore) {
+        // Die Suche prueft nur die Felder des zuletzt ziehenden Spielers. Hat schon das uebergebene Spielbrett einen Gewinner,
+        // endet das Spiel nach jedem Zug in Tiefe 1; der Gewinner wird dann wie bisher mit allen Reihen bestimmt.
+        if(checkForWinner(xBits, oBits) != 0) {
+            while(free != 0) {
+                int move = free & -free;
+                free ^= move;
+                int winner = player == 1 ? checkForWinner(xBits | move, oBits) : checkForWinner(xBits, oBits | move);
+                int score = winner == player ? 99 : -99;
+                if(score > bestMoveScore) {
                     bestMoveScore = score;
+                    bestMove = Integer.numberOfTrailingZeros(move);
                 }
+            }
+            if(pv != null) {
+                pv[0][0] = bestMove;
+                pvLength[0] = 1;
+            }
+            return bestMoveScore << 4 | bestMove;
+        }
 
-                board[i] = 0;
-                if(bestMoveScore <= currentMaxScore) return bestMoveScore;
+        int ordering = moveOrdering;
+        int tableMove = ordering == ORDER_NONE ? -1 : tableMove(xBits, oBits, player);
+        boolean first = true;
+        while(free != 0) {
+            int move = nextMove(free, player, 0, tableMove, ordering);
+            free ^= move;
+            int cell = Integer.numberOfTrailingZeros(move);
+            int own = player == 1 ? xBits | move : oBits | move;
+            int other = player == 1 ? oBits : xBits;
+
+            int score;
+            if(first) {
+                score = -negamax(other, own, player % 2 + 1, 1, -INFINITY, INFINITY, pv, pvLength);
+                first = false;
+            } else {
+                // Ein Zug mit kleinerem Index gewinnt schon bei gleichem Wert, daher wird fuer ihn die Schranke um 1 verringert
+                int alpha = cell < bestMove ? bestMoveScore - 1 : bestMoveScore;
+                score = -negamax(other, own, player % 2 + 1, 1, -alpha - 1, -alpha, null, null);
+                if(score > alpha) {
+                    score = -negamax(other, own, player % 2 + 1, 1, -INFINITY, -alpha, pv, pvLength);
+                }
+            }
+            if(score > bestMoveScore || score == bestMoveScore && cell < bestMove) {
+                bestMoveScore = score;
+                bestMove = cell;
+                if(pv != null) updatePrincipalVariation(pv, pvLength, 0, cell);
             }
         }
-        return bestMoveScore;
+        return bestMoveScore << 4 | bestMove;
     }
 
     /**
-     * Ermittlung des niedrigst moeglichem Evaluierungswert des Spielverlaufes fuer den Gegner.
-     * Dafuer wird fuer jedes Feld den folgenden Spielbaum und dessen Evaulierungswert generiert.
-     * Dies geschieht durch das rekursive Durchlaufen des Spielbaums wobei nicht minimierende Spielpfade fuer den Gegner nicht weiter verfolgt werden.
-     * @param board Das Spielbrett
-     * @param player Der Spieler der am Zug ist
+     * Liefert den Zug aus dem Ergebnis der Methode search
+     * @param result Das Ergebnis der Methode search
+     * @return Der Index des besten Zuges
+     */
+    static int moveOf(int result) {
+        return result & 0xF;
+    }
+
+    /**
+     * Liefert den Evaluierungswert aus dem Ergebnis der Methode search
+     * @param result Das Ergebnis der Methode search
+     * @return Der Evaluierungswert des besten Zuges aus Sicht des Spielers am Zug (0 wenn kein Zug moeglich ist)
+     */
+    static int scoreOf(int result) {
+        return result >> 4;
+    }
+
+    /**
+     * Alpha-Beta Suche in Negamax Form mit Principal Variation Search: der Evaluierungswert ist immer aus Sicht des Spielers
+     * am Zug. Der erste Zug wird mit dem vollen Fenster durchsucht, die weiteren nur mit einem Nullfenster um alpha; liegt
+     * ihr Wert doch ueber alpha, wird mit dem vollen Fenster nachgesucht. Die Werte ausserhalb des Fensters sind Schranken
+     * (fail-soft) und werden als solche in der Transpositionstabelle gespeichert.
+     * @param own Die vom Spieler am Zug belegten Felder als Bitmaske
+     * @param other Die vom Gegner belegten Felder als Bitmaske
+     * @param player Der Spieler der am Zug ist (1: X; 2: O)
      * @param depth Die Tiefe des Spielbaums bzw. der Rekursionsstufe
-     * @param currentMinScore Der aktuelle minimale Evaluierungswert fuer den Gegner
-     * @return den besten Evaluierungswert
+     * @param alpha Der Wert, den der Spieler am Zug bereits sicher erreichen kann
+     * @param beta Der Wert, den der Gegner bereits sicher erreichen kann
+     * @param pv Die Hauptvarianten je Tiefe, null in Knoten mit Nullfenster
+     * @param pvLength Die Laengen der Hauptvarianten je Tiefe, null in Knoten mit Nullfenster
+     * @return Der Evaluierungswert der Stellung aus Sicht des Spielers am Zug
      */
-    private int max(int[] board, int player, int depth, int currentMinScore) {
-        int winner = checkForWinner(board);
-        if(winner != 0) {
-            int score = 100 - depth;
-            return winner == player ? score : -score;
+    private int negamax(int own, int other, int player, int depth, int alpha, int beta, int[][] pv, int[] pvLength) {
+        nodeCount++;
+        if(depth > maxDepth) maxDepth = depth;
+        if(pv != null) pvLength[depth] = 0;
+        // Gewonnen haben kann nur der Gegner des Spielers am Zug, der den letzten Zug gemacht hat
+        if(containsLine(other)) {
+            return -(100 - depth);
         }
 
-        if(isFull(board)) return 0;
+        int free = ~(own | other) & FULL_BOARD;
+        if(free == 0) return 0;
 
-        int bestMoveScore = Integer.MIN_VALUE;
-        for(int i = 0; i < board.length; i++) {
-            if(board[i] == 0) {
-                board[i] = player;
+        int xBits = player == 1 ? own : other;
+        int oBits = player == 1 ? other : own;
+        int key = 0;
+        int symmetry = 0;
+        int tableMove = -1;
+        if(table != null) {
+            int canonical = TranspositionTable.canonical(xBits, oBits);
+            key = canonical >>> 3;
+            symmetry = canonical & 7;
+            int entry = table.probe(key, player);
+            int bound = TranspositionTable.bound(entry);
+            tableProbeCount++;
+            if(bound != 0) tableHitCount++;
+            // In Knoten der Hauptvariante wird nicht abgeschnitten, damit die Hauptvariante vollstaendig bleibt
+            if(bound != 0 && pv == null) {
+                int score = fromTable(TranspositionTable.value(entry), depth);
+                if(bound == TranspositionTable.EXACT) return score;
+                if(bound == TranspositionTable.LOWER_BOUND && score >= beta) return score;
+                if(bound == TranspositionTable.UPPER_BOUND && score <= alpha) return score;
+            }
+            int move = TranspositionTable.move(entry);
+            if(move >= 0) tableMove = TranspositionTable.fromCanonical(symmetry, move);
+        }
 
-                int score = min(board, player % 2 + 1, depth + 1, bestMoveScore);
-                if(score > bestMoveScore) {
-                    bestMoveScore = score;
+        int ordering = moveOrdering;
+        int bestMoveScore = -INFINITY;
+        int bestMove = -1;
+        int windowAlpha = alpha;
+        boolean first = true;
+        while(free != 0) {
+            int move = nextMove(free, player, depth, tableMove, ordering);
+            free ^= move;
+
+            int score;
+            if(first) {
+                score = -negamax(other, own | move, player % 2 + 1, depth + 1, -beta, -windowAlpha, pv, pvLength);
+                first = false;
+            } else {
+                score = -negamax(other, own | move, player % 2 + 1, depth + 1, -windowAlpha - 1, -windowAlpha, null, null);
+                if(score > windowAlpha && score < beta) {
+                    score = -negamax(other, own | move, player % 2 + 1, depth + 1, -beta, -windowAlpha, pv, pvLength);
+                }
+            }
+            if(score > bestMoveScore) {
+                bestMoveScore = score;
+                bestMove = Integer.numberOfTrailingZeros(move);
+                if(score > windowAlpha) {
+                    windowAlpha = score;
+                    if(pv != null) updatePrincipalVariation(pv, pvLength, depth, bestMove);
                 }
+            }
 
-                board[i] = 0;
-                if(bestMoveScore >= currentMinScore) return bestMoveScore;
+            if(bestMoveScore >= beta) {
+                cutoffCount++;
+                recordCutoff(player, depth, bestMove);
+                if(table != null) table.store(key, player, TranspositionTable.LOWER_BOUND, toTable(bestMoveScore, depth),
+                        TranspositionTable.toCanonical(symmetry, bestMove));
+                return bestMoveScore;
             }
         }
+        if(table != null) {
+            int bound = bestMoveScore > alpha ? TranspositionTable.EXACT : TranspositionTable.UPPER_BOUND;
+            table.store(key, player, bound, toTable(bestMoveScore, depth), TranspositionTable.toCanonical(symmetry, bestMove));
+        }
         return bestMoveScore;
     }
 
     /**
-     * Die Methode ueberprueft, ob ein Spieler auf dem uebergebenden Spielbrett bereits gewonnen hat.
-     * Dies wird durch das Aufrufen der Methoden checkHorizontally, checkVertically und checkDiagonally bewerkstelligt
-     * @param board Das aktuelle Spielbrett
-     * @return Den Gewinner auf dem aktuellen Spielbrett (0: Kein Gewinner; 1: X, 2: O)
+     * Setzt die Hauptvariante der Tiefe aus dem neuen besten Zug und der Hauptvariante der naechsten Tiefe zusammen
+     * @param pv Die Hauptvarianten je Tiefe
+     * @param pvLength Die Laengen der Hauptvarianten je Tiefe
+     * @param depth Die Tiefe des Knotens
+     * @param cell Der neue beste Zug
      */
-    public static int checkForWinner(int[] board) {
-        int winner=checkHorizontally(board);
-        if(winner!=0) return winner;
-        winner=checkVertically(board);
-        if(winner!=0) return winner;
-        winner=checkDiagonally(board,1);
-        if(winner!=0) return winner;
-        winner=checkDiagonally(board,2);
-        return winner;
+    private static void updatePrincipalVariation(int[][] pv, int[] pvLength, int depth, int cell) {
+        pv[depth][0] = cell;
+        System.arraycopy(pv[depth + 1], 0, pv[depth], 1, pvLength[depth + 1]);
+        pvLength[depth] = pvLength[depth + 1] + 1;
     }
+
     /**
-     * Ueberprueft das Spielbrett horizontal auf einen Gewinner
-     * @param board Das aktuelle Spielbrett
-     * @return Den Gewinner auf dem aktuellen Spielbrett (0: Kein Gewinner; 1: X, 2: O)
+     * Liefert den naechsten zu untersuchenden Zug gemaess der Zugsortierung. Ohne Sortierung ist das das Feld mit dem
+     * kleinsten Index, sonst das Feld mit dem hoechsten Vorrang: der Zug aus der Transpositionstabelle, dann die Killerzuege,
+     * dann nach History Tabelle und festem Vorrang der Felder. Bei gleichem Vorrang gewinnt der kleinere Index.
+     * @param free Die noch nicht untersuchten freien Felder als Bitmaske (nicht 0)
+     * @param player Der Spieler der am Zug ist
+     * @param depth Die Tiefe der Stellung im Spielbaum
+     * @param tableMove Der Zug aus der Transpositionstabelle, -1 wenn keiner bekannt ist
+     * @param ordering Die Zugsortierung
+     * @return Der Zug als Bitmaske mit genau einem gesetzten Bit
      */
-    private static int checkHorizontally(int[] board) {
-        for(int y=0; y<3; y++) {
-            boolean winnerIsX=true;
-            boolean winnerIsO=true;
-            for(int x=0; x<3; x++) {
-                if(board[y*3+x]!=1) {
-                    winnerIsX=false;
-                }
-                if(board[y*3+x]!=2) {
-                    winnerIsO=false;
-                }
+    private int nextMove(int free, int player, int depth, int tableMove, int ordering) {
+        if(ordering == ORDER_NONE) return free & -free;
+        if((ordering & ORDER_TABLE_MOVE) != 0 && tableMove >= 0 && (free & 1 << tableMove) != 0) return 1 << tableMove;
+        if((ordering & ORDER_KILLERS) != 0) {
+            for(int killer : killers[depth]) {
+                if(killer != 0 && (free & 1 << killer - 1) != 0) return 1 << killer - 1;
             }
-            if(winnerIsX) return 1;
-            if(winnerIsO) return 2;
         }
-        return 0;
+        if((ordering & ORDER_HISTORY) == 0) {
+            if((ordering & ORDER_CENTER_CORNERS) != 0) {
+                if((free & CENTER) != 0) return CENTER;
+                int corners = free & CORNERS;
+                if(corners != 0) return corners & -corners;
+            }
+            return free & -free;
+        }
+
+        int bestMove = 0;
+        int bestPriority = -1;
+        int[] playerHistory = history[player - 1];
+        for(int remaining = free; remaining != 0; remaining &= remaining - 1) {
+            int cell = Integer.numberOfTrailingZeros(remaining);
+            int priority = playerHistory[cell] << 2;
+            if((ordering & ORDER_CENTER_CORNERS) != 0) priority += CELL_PRIORITY[cell];
+            if(priority > bestPriority) {
+                bestPriority = priority;
+                bestMove = 1 << cell;
+            }
+        }
+        return bestMove;
     }
 
     /**
-     * Ueberprueft das Spielbrett vertikal auf einen Gewinner
-     * @param board Das aktuelle Spielbrett
-     * @return Den Gewinner auf dem aktuellen Spielbrett (0: Kein Gewinner; 1: X, 2: O)
+     * Merkt sich einen Zug, der abgeschnitten hat, als Killerzug der Tiefe und in der History Tabelle des Spielers.
+     * Abschnitte nahe der Wurzel sparen mehr Knoten und zaehlen daher mehr.
+     * @param player Der Spieler der gezogen hat
+     * @param depth Die Tiefe der Stellung im Spielbaum
+     * @param cell Das Feld des Zuges
      */
-    private static int checkVertically(int[] board) {
-        for(int x=0; x<3; x++) {
-            boolean winnerIsX=true;
-            boolean winnerIsO=true;
-            for(int y=0; y<3; y++) {
-                if(board[y*3+x]!=1) {
-                    winnerIsX=false;
-                }
-                if(board[y*3+x]!=2) {
-                    winnerIsO=false;
-                }
-            }
-            if(winnerIsX) return 1;
-            if(winnerIsO) return 2;
+    private void recordCutoff(int player, int depth, int cell) {
+        int[] depthKillers = killers[depth];
+        if(depthKillers[0] != cell + 1) {
+            depthKillers[1] = depthKillers[0];
+            depthKillers[0] = cell + 1;
+        }
+        int[] playerHistory = history[player - 1];
+        int remaining = 10 - depth;
+        playerHistory[cell] += remaining * remaining;
+        if(playerHistory[cell] > HISTORY_LIMIT) {
+            for(int i = 0; i < playerHistory.length; i++) playerHistory[i] >>= 1;
         }
+    }
+
+    /**
+     * Liefert den in der Transpositionstabelle gespeicherten besten Zug einer Stellung
+     * @param xBits Die von X belegten Felder als Bitmaske
+     * @param oBits Die von O belegten Felder als Bitmaske
+     * @param player Der Spieler der am Zug ist
+     * @return Das Feld des Zuges, -1 wenn es keine Tabelle oder keinen gespeicherten Zug gibt
+     */
+    private int tableMove(int xBits, int oBits, int player) {
+        if(table == null) return -1;
+        int canonical = TranspositionTable.canonical(xBits, oBits);
+        int move = TranspositionTable.move(table.probe(canonical >>> 3, player));
+        return move < 0 ? -1 : TranspositionTable.fromCanonical(canonical & 7, move);
+    }
+
+    /**
+     * Rechnet einen Evaluierungswert in einen von der Suchtiefe unabhaengigen Wert fuer die Transpositionstabelle um.
+     * Gewinn- und Verlustwerte haengen von der Tiefe ab, in der das Spiel endet (100 - depth), daher wird die Tiefe der Stellung herausgerechnet.
+     * @param score Der Evaluierungswert
+     * @param depth Die Tiefe der Stellung im Spielbaum
+     * @return Der Wert wie er in der Tabelle gespeichert wird
+     */
+    private static int toTable(int score, int depth) {
+        if(score > 0) return score + depth;
+        if(score < 0) return score - depth;
+        return 0;
+    }
+
+    /**
+     * Rechnet einen Wert aus der Transpositionstabelle in einen Evaluierungswert fuer die uebergebene Tiefe um
+     * @param value Der Wert aus der Tabelle
+     * @param depth Die Tiefe der Stellung im Spielbaum
+     * @return Der Evaluierungswert
+     */
+    private static int fromTable(int value, int depth) {
+        if(value > 0) return value - depth;
+        if(value < 0) return value + depth;
         return 0;
     }
 
     /**
-     * Ueberprueft das Spielbrett diagonal ob der Gewinner dem uebergebenen Spieler entspricht
+     * Wandelt das flache Spielbrett in eine Bitmaske fuer den uebergebenen Spieler um.
+     * Das Bit i ist gesetzt, wenn das Feld i von dem Spieler belegt ist.
      * @param board Das aktuelle Spielbrett
-     * @param player Der zu ueberpruefende Spieler
-     * @return Den Gewinner auf dem aktuellen Spielbrett (0: Kein Gewinner; 1: X, 2: O)
+     * @param player Der Spieler dessen Felder in die Bitmaske uebernommen werden (1: X; 2: O)
+     * @return Die Bitmaske der von dem Spieler belegten Felder
+     */
+    static int toBitboard(int[] board, int player) {
+        int bits = 0;
+        for(int i = 0; i < board.length; i++) {
+            if(board[i] == player) bits |= 1 << i;
+        }
+        return bits;
+    }
+
+    /**
+     * Ueberprueft anhand der vorberechneten Gewinnreihen, ob ein Spieler auf dem als Bitmasken uebergebenen Spielbrett gewonnen hat.
+     * @param xBits Die von X belegten Felder als Bitmaske
+     * @param oBits Die von O belegten Felder als Bitmaske
+     * @return Den Gewinner auf dem Spielbrett (0: Kein Gewinner; 1: X, 2: O)
      */
-    private static int checkDiagonally(int[] board, int player) {
-        boolean b1=true;
-        boolean b2=true;
-        for(int x=0; x<3; x++) {
-            if(board[x*3+x]!=player) b1=false;
-            if(board[(2-x)*3+x]!=player) b2=false;
+    static int checkForWinner(int xBits, int oBits) {
+        for(int line : WIN_LINES) {
+            if((xBits & line) == line) return 1;
+            if((oBits & line) == line) return 2;
         }
-        if(b1||b2) return player;
         return 0;
     }
 
     /**
-     * Ueberprueft, ob das Spielbrett voll ist und keine Zuege mehr getaetigt werden koennen
-     * @param board Das aktuelle Spielbrett
-     * @return true, wenn das Spielbrett voll ist. Wenn es freie Positionen gibt false
+     * Ueberprueft, ob die uebergebenen Felder eine Gewinnreihe enthalten
+     * @param bits Die von einem Spieler belegten Felder als Bitmaske
+     * @return true, wenn der Spieler eine Reihe vollstaendig belegt hat
      */
-    private static boolean isFull(int[] board) {
-        for (int j : board) {
-            if (j == 0) {
-                return false;
+    static boolean containsLine(int bits) {
+        return CONTAINS_LINE[bits];
+    }
+
+    /**
+     * Berechnet fuer alle 512 Bitmasken, ob sie eine der Gewinnreihen aus WIN_LINES enthalten
+     * @return Die Tabelle, indiziert mit der Bitmaske
+     */
+    private static boolean[] createContainsLine() {
+        boolean[] containsLine = new boolean[FULL_BOARD + 1];
+        for(int bits = 0; bits <= FULL_BOARD; bits++) {
+            for(int line : WIN_LINES) {
+                if((bits & line) == line) containsLine[bits] = true;
             }
         }
-        return true;
+        return containsLine;
+    }
+
+    /**
+     * Die Methode ueberprueft, ob ein Spieler auf dem uebergebenden Spielbrett bereits gewonnen hat.
+     * Dazu wird das Spielbrett mit toBitboard in je eine Bitmaske pro Spieler umgewandelt und gegen die Gewinnreihen geprueft.
+     * @param board Das aktuelle Spielbrett
+     * @return Den Gewinner auf dem aktuellen Spielbrett (0: Kein Gewinner; 1: X, 2: O)
+     */
+    public static int checkForWinner(int[] board) {
+        return checkForWinner(toBitboard(board, 1), toBitboard(board, 2));
     }
-}
\ No newline at end of file
+}
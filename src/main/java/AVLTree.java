@@ -0,0 +1,196 @@
+import java.util.ArrayList;
+
+/**
+ * <p>
+ * Generische Klasse AVLTree<ContentType>
+ * </p>
+ * <p>
+ * Ein AVLTree ist ein binaerer Suchbaum mit derselben Schnittstelle wie
+ * BinarySearchTree, der sich beim Einfuegen und Entfernen selbst balanciert.
+ * Fuer jeden Knoten unterscheiden sich die Hoehen des linken und des rechten
+ * Teilbaums hoechstens um 1, daher hat der Baum bei n Objekten immer eine
+ * Hoehe von O(log n). Auch wenn die Objekte in aufsteigender Reihenfolge
+ * eingefuegt werden (wie die Spielerantworten, deren answerCount immer weiter
+ * waechst), entartet der Baum nicht zu einer Liste und insert, remove und
+ * search benoetigen O(log n) Schritte und arbeiten wie in BinarySearchTree
+ * ohne Rekursion. <br />
+ * Alle Teilbaeume eines AVLTree sind ebenfalls AVLTree Objekte.
+ * </p>
+ */
+public class AVLTree<ContentType extends ComparableContent<ContentType>> extends BinarySearchTree<ContentType> {
+
+	/**
+	 * Der Konstruktor erzeugt einen leeren balancierten Suchbaum.
+	 */
+	public AVLTree() {
+		super();
+	}
+
+	/**
+	 * Falls der Parameter null ist oder ein bezueglich isEqual
+	 * uebereinstimmendes Objekt bereits enthalten ist, geschieht nichts. <br />
+	 * Andernfalls wird das Objekt pContent entsprechend der vorgegebenen
+	 * Ordnungsrelation eingefuegt und der Baum danach auf dem Weg zur Wurzel
+	 * wieder ausbalanciert. Der Weg wird dabei in einer Liste gespeichert,
+	 * sodass keine Rekursion noetig ist.
+	 *
+	 * @param pContent
+	 *            einzufuegendes Objekt vom Typ ContentType
+	 */
+	@Override
+	public void insert(ContentType pContent) {
+		if (pContent == null) {
+			return;
+		}
+		ArrayList<AVLTree<ContentType>> path = new ArrayList<AVLTree<ContentType>>();
+		AVLTree<ContentType> tree = this;
+		while (!tree.isEmpty()) {
+			path.add(tree);
+			if (pContent.isLess(tree.node.content)) {
+				tree = (AVLTree<ContentType>) tree.node.left;
+			} else if (pContent.isGreater(tree.node.content)) {
+				tree = (AVLTree<ContentType>) tree.node.right;
+			} else {
+				// Das Objekt ist bereits enthalten.
+				return;
+			}
+		}
+		tree.node = createNode(pContent);
+		rebalancePath(path);
+	}
+
+	/**
+	 * Falls ein bezueglich der verwendeten Vergleichsmethode mit pContent
+	 * uebereinstimmendes Objekt im Baum enthalten ist, wird dieses entfernt
+	 * und der Baum danach auf dem Weg zur Wurzel wieder ausbalanciert. Falls
+	 * der Parameter null ist, aendert sich nichts.
+	 *
+	 * @param pContent
+	 *            zu entfernendes Objekt vom Typ ContentType
+	 */
+	@Override
+	public void remove(ContentType pContent) {
+		if (pContent == null) {
+			return;
+		}
+		ArrayList<AVLTree<ContentType>> path = new ArrayList<AVLTree<ContentType>>();
+		AVLTree<ContentType> tree = this;
+		while (!tree.isEmpty()) {
+			if (pContent.isLess(tree.node.content)) {
+				path.add(tree);
+				tree = (AVLTree<ContentType>) tree.node.left;
+			} else if (pContent.isGreater(tree.node.content)) {
+				path.add(tree);
+				tree = (AVLTree<ContentType>) tree.node.right;
+			} else {
+				break;
+			}
+		}
+		if (tree.isEmpty()) {
+			return;
+		}
+
+		if (tree.node.left.isEmpty()) {
+			tree.node = tree.node.right.node;
+		} else if (tree.node.right.isEmpty()) {
+			tree.node = tree.node.left.node;
+		} else {
+			// Es gibt links und rechts einen Nachfolger: der Inhalt wird durch
+			// den kleinsten Inhalt des rechten Teilbaums ersetzt, dessen Knoten
+			// dann ausgehaengt wird.
+			path.add(tree);
+			AVLTree<ContentType> smallest = (AVLTree<ContentType>) tree.node.right;
+			while (!smallest.node.left.isEmpty()) {
+				path.add(smallest);
+				smallest = (AVLTree<ContentType>) smallest.node.left;
+			}
+			tree.node.content = smallest.node.content;
+			smallest.node = smallest.node.right.node;
+		}
+		rebalancePath(path);
+	}
+
+	@Override
+	BinarySearchTree<ContentType> createEmptyTree() {
+		return new AVLTree<ContentType>();
+	}
+
+	/* ----------- Private Methoden zum Balancieren -------------- */
+
+	/**
+	 * Balanciert die Baeume auf dem uebergebenen Weg von unten nach oben aus.
+	 *
+	 * @param pPath
+	 *            der Weg von der Wurzel bis zur Stelle der Aenderung
+	 */
+	private static <CT extends ComparableContent<CT>> void rebalancePath(ArrayList<AVLTree<CT>> pPath) {
+		for (int i = pPath.size() - 1; i >= 0; i--) {
+			pPath.get(i).rebalance();
+		}
+	}
+
+	/**
+	 * Aktualisiert Hoehe und Anzahl der Wurzel und stellt durch einfache oder doppelte
+	 * Rotation sicher, dass sich die Hoehen der Teilbaeume hoechstens um 1
+	 * unterscheiden. Dabei wird vorausgesetzt, dass beide Teilbaeume bereits
+	 * balanciert sind.
+	 */
+	private void rebalance() {
+		int balance = height(node.left) - height(node.right);
+		if (balance > 1) {
+			if (height(node.left.node.left) < height(node.left.node.right)) {
+				((AVLTree<ContentType>) node.left).rotateLeft();
+			}
+			rotateRight();
+		} else if (balance < -1) {
+			if (height(node.right.node.right) < height(node.right.node.left)) {
+				((AVLTree<ContentType>) node.right).rotateRight();
+			}
+			rotateLeft();
+		} else {
+			update(node);
+		}
+	}
+
+	/**
+	 * Rechtsrotation: der linke Nachfolger wird zur neuen Wurzel, die alte
+	 * Wurzel wird sein rechter Nachfolger. Die Baum-Objekte bleiben erhalten,
+	 * nur die Knoten werden zwischen ihnen umgehaengt.
+	 */
+	private void rotateRight() {
+		BSTNode<ContentType> oldRoot = node;
+		BinarySearchTree<ContentType> leftTree = oldRoot.left;
+		BSTNode<ContentType> newRoot = leftTree.node;
+
+		oldRoot.left = newRoot.right;
+		leftTree.node = oldRoot;
+		newRoot.right = leftTree;
+		node = newRoot;
+
+		update(oldRoot);
+		update(newRoot);
+	}
+
+	/**
+	 * Linksrotation: der rechte Nachfolger wird zur neuen Wurzel, die alte
+	 * Wurzel wird sein linker Nachfolger.
+	 */
+	private void rotateLeft() {
+		BSTNode<ContentType> oldRoot = node;
+		BinarySearchTree<ContentType> rightTree = oldRoot.right;
+		BSTNode<ContentType> newRoot = rightTree.node;
+
+		oldRoot.right = newRoot.left;
+		rightTree.node = oldRoot;
+		newRoot.left = rightTree;
+		node = newRoot;
+
+		update(oldRoot);
+		update(newRoot);
+	}
+
+	private void update(BSTNode<ContentType> pNode) {
+		pNode.height = Math.max(height(pNode.left), height(pNode.right)) + 1;
+		updateAggregates(pNode);
+	}
+}
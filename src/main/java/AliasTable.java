@@ -0,0 +1,66 @@
+import java.util.SplittableRandom;
+
+/**
+ * Alias Tabelle nach Vose zum Ziehen eines Index mit vorgegebenen Wahrscheinlichkeiten in konstanter Zeit.
+ * Jeder Index i hat eine Spalte mit der Wahrscheinlichkeit probability[i] fuer sich selbst und dem Rest fuer alias[i].
+ * Eine Ziehung waehlt gleichverteilt eine Spalte und danach mit einer Zufallszahl zwischen Spalte und Alias.
+ */
+class AliasTable {
+    /**
+     * Wahrscheinlichkeit, dass eine Ziehung in Spalte i den Index i selbst liefert
+     */
+    private final double[] probability;
+    /**
+     * Der Index, den eine Ziehung in Spalte i sonst liefert
+     */
+    private final int[] alias;
+
+    /**
+     * Erstellt die Tabelle in O(n)
+     * @param weights Die nicht negativen Gewichte der Indizes, mindestens eines muss positiv sein
+     */
+    AliasTable(double[] weights) {
+        int n = weights.length;
+        double total = 0;
+        for(double weight : weights) {
+            if(weight < 0) throw new IllegalArgumentException("negative weight");
+            total += weight;
+        }
+        if(!(total > 0)) throw new IllegalArgumentException("no positive weight");
+
+        probability = new double[n];
+        alias = new int[n];
+        double[] scaled = new double[n];
+        int[] small = new int[n];
+        int[] large = new int[n];
+        int smallCount = 0;
+        int largeCount = 0;
+        for(int i = 0; i < n; i++) {
+            scaled[i] = weights[i] * n / total;
+            if(scaled[i] < 1) small[smallCount++] = i;
+            else large[largeCount++] = i;
+        }
+        while(smallCount > 0 && largeCount > 0) {
+            int less = small[--smallCount];
+            int more = large[--largeCount];
+            probability[less] = scaled[less];
+            alias[less] = more;
+            scaled[more] = scaled[more] + scaled[less] - 1;
+            if(scaled[more] < 1) small[smallCount++] = more;
+            else large[largeCount++] = more;
+        }
+        // Uebrig gebliebene Spalten sind (bis auf Rundungsfehler) voll
+        while(largeCount > 0) probability[large[--largeCount]] = 1;
+        while(smallCount > 0) probability[small[--smallCount]] = 1;
+    }
+
+    /**
+     * Zieht einen Index
+     * @param random Die Zufallsquelle
+     * @return Der gezogene Index
+     */
+    int sample(SplittableRandom random) {
+        int column = random.nextInt(probability.length);
+        return random.nextDouble() < probability[column] ? column : alias[column];
+    }
+}
@@ -0,0 +1,357 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dauerhaftes Protokoll der Spielerantworten in einer Datei, damit die Antworten einen Neustart ueberstehen.
+ * Die Datei beginnt mit einem Kopf (Kennung, Version, Anzahl der Antworten), danach folgen die Antworten als Datensaetze
+ * fester Laenge von 8 Bytes: answerCount (int), answer (short) und Flags (short, Bit 0: richtig).
+ * Die Datei wird per MappedByteBuffer beschrieben. Antworten werden von einem eigenen Daemon Thread angehaengt, append
+ * blockiert daher nie den Aufrufer. Auf die Platte geschrieben (force) wird gesammelt nach FORCE_BATCH Antworten,
+ * spaetestens aber FORCE_DELAY_MS Millisekunden nach der ersten noch nicht geschriebenen Antwort.
+ * Die Anzahl im Kopf wird erst erhoeht, nachdem die neuen Datensaetze mit force auf die Platte geschrieben wurden. Da das
+ * Betriebssystem die Seiten einer abgebildeten Datei in beliebiger Reihenfolge zurueckschreiben darf, zaehlt der Kopf so nie
+ * Datensaetze mit, die noch nicht auf der Platte sind; unvollstaendig geschriebene Datensaetze am Ende werden beim Oeffnen
+ * ignoriert.
+ */
+public class AnswerLog implements Closeable {
+    /**
+     * Kennung am Anfang der Datei ("TTTA")
+     */
+    private static final int MAGIC = 0x54545441;
+    /**
+     * Version des Dateiformats
+     */
+    private static final int VERSION = 1;
+    /**
+     * Groesse des Kopfs in Bytes: Kennung (int), Version (int), Anzahl der Antworten (long)
+     */
+    private static final int HEADER_SIZE = 16;
+    /**
+     * Position der Anzahl der Antworten im Kopf
+     */
+    private static final int COUNT_OFFSET = 8;
+    /**
+     * Groesse eines Datensatzes in Bytes
+     */
+    static final int RECORD_SIZE = 8;
+    /**
+     * Anzahl der Datensaetze, fuer die beim Anlegen Platz reserviert wird
+     */
+    private static final int INITIAL_CAPACITY = 1 << 16;
+    /**
+     * Maximale Anzahl an Datensaetzen, die in einen MappedByteBuffer passen
+     */
+    private static final int MAX_CAPACITY = (Integer.MAX_VALUE - HEADER_SIZE) / RECORD_SIZE;
+    /**
+     * Anzahl an Antworten, nach der spaetestens auf die Platte geschrieben wird
+     */
+    private static final int FORCE_BATCH = 256;
+    /**
+     * Zeit in Millisekunden, nach der noch nicht geschriebene Antworten spaetestens auf die Platte geschrieben werden
+     */
+    private static final long FORCE_DELAY_MS = 1000;
+
+    /**
+     * Der Kanal der Datei
+     */
+    private final FileChannel channel;
+    /**
+     * Der Thread, der die Antworten anhaengt und auf die Platte schreibt. Nur er benutzt buffer und count nach dem Oeffnen.
+     */
+    private final ScheduledExecutorService executor;
+    /**
+     * Der in den Speicher abgebildete Teil der Datei
+     */
+    private MappedByteBuffer buffer;
+    /**
+     * Anzahl der Datensaetze, fuer die buffer Platz hat
+     */
+    private int capacity;
+    /**
+     * Anzahl der gespeicherten Antworten
+     */
+    private int count;
+    /**
+     * Anzahl der Antworten, die bereits auf die Platte geschrieben wurden
+     */
+    private int forced;
+    /**
+     * Der naechste answerCount nach der letzten gespeicherten Antwort
+     */
+    private final int nextAnswerCount;
+    /**
+     * Angehaengte Datensaetze, die der Thread des Protokolls noch nicht geschrieben hat. Geschuetzt durch pendingLock.
+     */
+    private long[] pending = new long[64];
+    /**
+     * Anzahl der Datensaetze in pending
+     */
+    private int pendingCount;
+    /**
+     * Sperre fuer pending und pendingCount
+     */
+    private final Object pendingLock = new Object();
+
+    /**
+     * Oeffnet das Protokoll bzw. legt es an, falls die Datei noch nicht existiert
+     * @param file Die Datei des Protokolls
+     * @throws IOException wenn die Datei nicht geoeffnet werden kann oder kein Antwortprotokoll ist
+     */
+    public AnswerLog(Path file) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            boolean created = channel.size() == 0;
+            long records = Math.max(0, (channel.size() - HEADER_SIZE) / RECORD_SIZE);
+            map((int) Math.min(MAX_CAPACITY, Math.max(INITIAL_CAPACITY, records)));
+            if(created) {
+                buffer.putInt(0, MAGIC);
+                buffer.putInt(4, VERSION);
+                buffer.force();
+            } else if(buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                throw new IOException(file + " is not an answer log");
+            }
+            long stored = buffer.getLong(COUNT_OFFSET);
+            if(stored < 0 || stored > records) throw new IOException(file + " is corrupt");
+            count = (int) stored;
+            forced = count;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        nextAnswerCount = count == 0 ? 0 : answerCountOf(buffer.getLong(HEADER_SIZE + (count - 1) * RECORD_SIZE)) + 1;
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "answer-log");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Haengt eine Antwort im Hintergrund an das Protokoll an. Die Methode blockiert nicht. Werden mehrere Antworten
+     * angehaengt, bevor der Thread des Protokolls sie schreibt, schreibt er sie gesammelt.
+     * @param answer Die gegebene Antwort (0: X gewinnt; 1: O gewinnt), muss in einen short passen
+     * @param answerCount Die wievielte Antwort es ist
+     * @param correct Ob die Antwort richtig war
+     * @throws IllegalArgumentException wenn die Antwort nicht in einen Datensatz passt
+     */
+    public void append(int answer, int answerCount, boolean correct) {
+        if(answer < Short.MIN_VALUE || answer > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Answer " + answer + " does not fit into a log record");
+        }
+        long record = record(answer, answerCount, correct);
+        synchronized (pendingLock) {
+            if(pendingCount == pending.length) pending = Arrays.copyOf(pending, 2 * pendingCount);
+            pending[pendingCount++] = record;
+            if(pendingCount > 1) return;
+        }
+        executor.execute(this::writePending);
+    }
+
+    /**
+     * Liefert den answerCount, mit dem nach einem Neustart weitergezaehlt wird. Die Antworten werden in aufsteigender
+     * Reihenfolge der answerCounts angehaengt, es ist also der answerCount der letzten Antwort beim Oeffnen plus 1.
+     * @return Der naechste answerCount
+     */
+    public int nextAnswerCount() {
+        return nextAnswerCount;
+    }
+
+    /**
+     * Liefert die Anzahl der gespeicherten Antworten, einschliesslich aller vorher angehaengten Antworten
+     * @return Die Anzahl der Antworten
+     */
+    public int size() {
+        return CompletableFuture.supplyAsync(() -> count, executor).join();
+    }
+
+    /**
+     * Ersetzt den Inhalt des Antwortspeichers durch alle gespeicherten Antworten, einschliesslich aller vorher angehaengten.
+     * Die Datensaetze werden am Stueck gelesen, in Schluessel des Speichers umgewandelt und mit loadSorted seitenweise
+     * uebernommen; es entstehen keine Objekte pro Antwort. Die Methode wartet auf den Thread des Protokolls und sollte daher
+     * nicht im Event Dispatch Thread aufgerufen werden.
+     * @param store Der Antwortspeicher
+     */
+    public void rebuild(AnswerStore store) {
+        long[] records = CompletableFuture.supplyAsync(this::readAll, executor).join();
+        int size = sortedKeys(records);
+        store.loadSorted(records, size);
+    }
+
+    /**
+     * Schreibt alle angehaengten Antworten auf die Platte und wartet darauf
+     */
+    public void force() {
+        CompletableFuture.runAsync(this::forceNow, executor).join();
+    }
+
+    /**
+     * Schreibt alle angehaengten Antworten auf die Platte und schliesst die Datei
+     * @throws IOException wenn die Datei nicht geschlossen werden kann
+     */
+    @Override
+    public void close() throws IOException {
+        if(executor.isShutdown()) return;
+        force();
+        executor.shutdownNow();
+        channel.close();
+    }
+
+    /**
+     * Schreibt alle noch nicht geschriebenen Datensaetze in die abgebildete Datei. Die Anzahl im Kopf erhoeht erst forceNow.
+     */
+    private void writePending() {
+        long[] records;
+        int size;
+        synchronized (pendingLock) {
+            records = pending;
+            size = pendingCount;
+            pending = new long[Math.max(64, size)];
+            pendingCount = 0;
+        }
+        for(int i = 0; i < size; i++) {
+            if(count == capacity) grow();
+            buffer.putLong(HEADER_SIZE + count * RECORD_SIZE, records[i]);
+            count++;
+        }
+        if(count - forced >= FORCE_BATCH) {
+            forceNow();
+        } else if(count - forced == 1) {
+            executor.schedule(this::forceNow, FORCE_DELAY_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Schreibt nur die neuen Datensaetze auf die Platte, erhoeht danach die Anzahl im Kopf und schreibt den Kopf
+     */
+    private void forceNow() {
+        if(count == forced) return;
+        buffer.force(HEADER_SIZE + forced * RECORD_SIZE, (count - forced) * RECORD_SIZE);
+        buffer.putLong(COUNT_OFFSET, count);
+        buffer.force(0, HEADER_SIZE);
+        forced = count;
+    }
+
+    /**
+     * Verdoppelt den abgebildeten Bereich der Datei
+     */
+    private void grow() {
+        if(capacity == MAX_CAPACITY) throw new IllegalStateException("Answer log is full");
+        try {
+            forceNow();
+            map((int) Math.min(MAX_CAPACITY, 2L * capacity));
+        } catch (IOException e) {
+            throw new IllegalStateException("Answer log cannot grow", e);
+        }
+    }
+
+    /**
+     * Bildet den Kopf und capacity Datensaetze in den Speicher ab, die Datei wird dabei bei Bedarf verlaengert
+     * @param capacity Die Anzahl der Datensaetze
+     * @throws IOException wenn die Datei nicht abgebildet werden kann
+     */
+    private void map(int capacity) throws IOException {
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) capacity * RECORD_SIZE);
+        this.capacity = capacity;
+    }
+
+    /**
+     * Liest alle Datensaetze am Stueck
+     * @return Die Datensaetze in der Reihenfolge, in der sie angehaengt wurden
+     */
+    private long[] readAll() {
+        long[] records = new long[count];
+        LongBuffer view = buffer.slice(HEADER_SIZE, count * RECORD_SIZE).asLongBuffer();
+        view.get(records);
+        return records;
+    }
+
+    /**
+     * Wandelt die Datensaetze in den Schluessel von AnswerStore um und sortiert sie nach answer, dann answerCount.
+     * Im Normalfall sind die answerCounts aufsteigend und die Antworten 0 oder 1; dann genuegt es, die Datensaetze stabil
+     * nach der Antwort aufzuteilen. Sonst werden sie primitiv sortiert. Das Ergebnis steht am Anfang von records, doppelte
+     * Antworten werden nur einmal uebernommen.
+     * @param records Die Datensaetze, werden mit den Schluesseln ueberschrieben
+     * @return Die Anzahl der Schluessel
+     */
+    private static int sortedKeys(long[] records) {
+        boolean simple = true;
+        int zeros = 0;
+        for(int i = 0; i < records.length && simple; i++) {
+            int answer = answerOf(records[i]);
+            if(answer == 0) zeros++;
+            simple = (answer == 0 || answer == 1)
+                    && (i == 0 || answerCountOf(records[i - 1]) < answerCountOf(records[i]));
+        }
+
+        if(simple) {
+            // Die Antworten 1 werden zwischengespeichert, die Antworten 0 rutschen in records nach vorne
+            long[] ones = new long[records.length - zeros];
+            int nextZero = 0;
+            int nextOne = 0;
+            for(long record : records) {
+                long key = key(record);
+                if(answerOf(record) == 0) {
+                    records[nextZero++] = key;
+                } else {
+                    ones[nextOne++] = key;
+                }
+            }
+            System.arraycopy(ones, 0, records, zeros, ones.length);
+            return records.length;
+        }
+
+        // Zuerst nur answer und answerCount sortieren, damit doppelte Antworten zusammenfallen
+        long[] keys = new long[records.length];
+        for(int i = 0; i < records.length; i++) {
+            keys[i] = key(records[i]) & ~1L;
+        }
+        Arrays.sort(keys);
+        int size = 0;
+        for(long key : keys) {
+            if(size == 0 || keys[size - 1] != key) keys[size++] = key;
+        }
+        // Das Bit fuer richtig wird von der zuerst angehaengten Antwort uebernommen
+        BitSet assigned = new BitSet(size);
+        BitSet correct = new BitSet(size);
+        for(long record : records) {
+            int position = Arrays.binarySearch(keys, 0, size, key(record) & ~1L);
+            if(!assigned.get(position)) {
+                assigned.set(position);
+                if((record & 1) != 0) correct.set(position);
+            }
+        }
+        for(int i = 0; i < size; i++) {
+            records[i] = correct.get(i) ? keys[i] | 1 : keys[i];
+        }
+        return size;
+    }
+
+    private static long key(long record) {
+        return AnswerStore.key(answerOf(record), answerCountOf(record), (record & 1) != 0);
+    }
+
+    private static long record(int answer, int answerCount, boolean correct) {
+        return (long) answerCount << 32
+                | (answer & 0xFFFFL) << 16
+                | (correct ? 1 : 0);
+    }
+
+    private static int answerCountOf(long record) {
+        return (int) (record >>> 32);
+    }
+
+    private static int answerOf(long record) {
+        return (short) (record >>> 16);
+    }
+}
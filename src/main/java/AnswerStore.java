@@ -0,0 +1,648 @@
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.LongConsumer;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Speicher fuer die Antworten des Spielers ohne Objekte pro Antwort. Antwort, answerCount und ob die Antwort richtig war
+ * werden zu einem long Schluessel zusammengefasst, dessen Ordnung der von PlayerAnswer entspricht (zuerst nach answer, dann
+ * nach answerCount); das Bit fuer richtig ist das unterste und geht daher nicht in die Ordnung ein.
+ * Die Schluessel liegen sortiert in Seiten fester Groesse, wie in den Blaettern eines B-Baums; zu jeder Seite wird ihr
+ * erster Schluessel gespeichert, sodass insert und contains die Seite per binaerer Suche finden.
+ * Zu jeder Seite werden ausserdem die Anzahl ihrer Antworten und ihrer richtigen Antworten gezaehlt und in einem Fenwick
+ * Baum ueber die Seiten summiert. Damit liefern rank, select und die Anzahl der richtigen Antworten vor einer Stelle ihr
+ * Ergebnis in O(log n) plus hoechstens einer Seite, sowohl in der Ordnung der Schluessel als auch nach answerCount.
+ * Eine Antwort belegt damit 8 Bytes statt eines PlayerAnswer mit zwei Integer Objekten, eines BSTNode und zweier leerer
+ * Teilbaeume. Vergleiche sind einfache long Vergleiche ohne Unboxing.
+ * Ein Objekt der Klasse ist nicht threadsicher.
+ */
+public class AnswerStore {
+    /**
+     * Anzahl der Schluessel pro Seite
+     */
+    static final int PAGE_SIZE = 512;
+    /**
+     * Die kleinste speicherbare Antwort
+     */
+    public static final int MIN_ANSWER = -(1 << 30);
+    /**
+     * Die groesste speicherbare Antwort
+     */
+    public static final int MAX_ANSWER = (1 << 30) - 1;
+
+    /**
+     * Die Seiten mit den sortierten Schluesseln
+     */
+    private long[][] pages = new long[4][];
+    /**
+     * Die Anzahl der belegten Schluessel pro Seite
+     */
+    private int[] pageSizes = new int[4];
+    /**
+     * Die Anzahl der richtigen Antworten pro Seite
+     */
+    private int[] pageWeights = new int[4];
+    /**
+     * Der kleinste Schluessel jeder Seite
+     */
+    private long[] firstKeys = new long[4];
+    /**
+     * Fenwick Baum ueber pageSizes (Index 1 bis pageCount): sizeSums[i] ist die Summe der Seiten i - (i &amp; -i) bis i - 1
+     */
+    private int[] sizeSums = new int[5];
+    /**
+     * Fenwick Baum ueber pageWeights, aufgebaut wie sizeSums
+     */
+    private int[] weightSums = new int[5];
+    /**
+     * Ob die Fenwick Baeume nach dem Einfuegen bzw. Entfernen einer Seite in der Mitte neu aufgebaut werden muessen
+     */
+    private boolean sumsDirty;
+    /**
+     * Die Anzahl der benutzten Seiten
+     */
+    private int pageCount;
+    /**
+     * Die Anzahl der gespeicherten Antworten
+     */
+    private int size;
+    /**
+     * Die Anzahl der richtigen Antworten
+     */
+    private int correctCount;
+
+    /**
+     * Bildet den Schluessel einer Antwort: answer in den oberen 31 Bits, answerCount in den 32 Bits darunter und im
+     * untersten Bit, ob die Antwort richtig war. Das Vorzeichenbit von answerCount wird umgedreht, damit der long Vergleich
+     * auch fuer negative Werte der Ordnung von PlayerAnswer entspricht.
+     * @param answer Die gegebene Antwort (0: X gewinnt; 1: O gewinnt), zwischen MIN_ANSWER und MAX_ANSWER
+     * @param answerCount Die wievielte Antwort es ist
+     * @param correct Ob die Antwort richtig war
+     * @return Der Schluessel
+     */
+    public static long key(int answer, int answerCount, boolean correct) {
+        if(answer < MIN_ANSWER || answer > MAX_ANSWER) {
+            throw new IllegalArgumentException("answer must be between " + MIN_ANSWER + " and " + MAX_ANSWER);
+        }
+        return (long) answer << 33 | ((answerCount ^ Integer.MIN_VALUE) & 0xFFFFFFFFL) << 1 | (correct ? 1 : 0);
+    }
+
+    /**
+     * Bildet den Schluessel einer Antwort, die nicht als richtig markiert ist
+     * @param answer Die gegebene Antwort (0: X gewinnt; 1: O gewinnt), zwischen MIN_ANSWER und MAX_ANSWER
+     * @param answerCount Die wievielte Antwort es ist
+     * @return Der Schluessel
+     */
+    public static long key(int answer, int answerCount) {
+        return key(answer, answerCount, false);
+    }
+
+    /**
+     * Liefert die Antwort eines Schluessels
+     * @param key Der Schluessel
+     * @return Die Antwort
+     */
+    public static int answerOf(long key) {
+        return (int) (key >> 33);
+    }
+
+    /**
+     * Liefert den answerCount eines Schluessels
+     * @param key Der Schluessel
+     * @return Die wievielte Antwort es ist
+     */
+    public static int answerCountOf(long key) {
+        return (int) (key >>> 1) ^ Integer.MIN_VALUE;
+    }
+
+    /**
+     * Liefert, ob die Antwort eines Schluessels richtig war
+     * @param key Der Schluessel
+     * @return true, wenn die Antwort richtig war
+     */
+    public static boolean isCorrect(long key) {
+        return (key & 1) != 0;
+    }
+
+    /**
+     * Fuegt eine Antwort ein, die nicht als richtig markiert ist, falls sie noch nicht enthalten ist
+     * @param answer Die gegebene Antwort (0: X gewinnt; 1: O gewinnt)
+     * @param answerCount Die wievielte Antwort es ist
+     * @return true, wenn die Antwort eingefuegt wurde, false, wenn sie schon enthalten war
+     */
+    public boolean insert(int answer, int answerCount) {
+        return insert(answer, answerCount, false);
+    }
+
+    /**
+     * Fuegt eine Antwort ein, falls noch keine Antwort mit derselben answer und demselben answerCount enthalten ist
+     * @param answer Die gegebene Antwort (0: X gewinnt; 1: O gewinnt)
+     * @param answerCount Die wievielte Antwort es ist
+     * @param correct Ob die Antwort richtig war
+     * @return true, wenn die Antwort eingefuegt wurde, false, wenn sie schon enthalten war
+     */
+    public boolean insert(int answer, int answerCount, boolean correct) {
+        long key = key(answer, answerCount, correct);
+        if(pageCount == 0) {
+            insertPage(0, new long[PAGE_SIZE]);
+        }
+        int page = pageOf(key | 1);
+        long[] keys = pages[page];
+        int position = find(keys, pageSizes[page], key & ~1L);
+        if(position >= 0) return false;
+        position = -position - 1;
+
+        if(pageSizes[page] == PAGE_SIZE) {
+            if(page == pageCount - 1 && position == PAGE_SIZE) {
+                // Aufsteigendes Einfuegen am Ende (der Normalfall im Spiel): neue Seite beginnen, die volle Seite bleibt voll
+                insertPage(pageCount, new long[PAGE_SIZE]);
+                page++;
+                position = 0;
+            } else {
+                // Seite in der Mitte teilen
+                int half = PAGE_SIZE / 2;
+                long[] upper = new long[PAGE_SIZE];
+                System.arraycopy(keys, half, upper, 0, PAGE_SIZE - half);
+                int upperWeight = countCorrect(upper, PAGE_SIZE - half);
+                pageSizes[page] = half;
+                pageWeights[page] -= upperWeight;
+                insertPage(page + 1, upper);
+                pageSizes[page + 1] = PAGE_SIZE - half;
+                pageWeights[page + 1] = upperWeight;
+                sumsDirty = true;
+                if(position > half) {
+                    page++;
+                    position -= half;
+                }
+            }
+            keys = pages[page];
+        }
+
+        System.arraycopy(keys, position, keys, position + 1, pageSizes[page] - position);
+        keys[position] = key;
+        pageSizes[page]++;
+        firstKeys[page] = keys[0];
+        size++;
+        int weight = correct ? 1 : 0;
+        pageWeights[page] += weight;
+        correctCount += weight;
+        addSums(page, 1, weight);
+        return true;
+    }
+
+    /**
+     * Ueberprueft, ob eine Antwort enthalten ist
+     * @param answer Die gegebene Antwort (0: X gewinnt; 1: O gewinnt)
+     * @param answerCount Die wievielte Antwort es ist
+     * @return true, wenn die Antwort enthalten ist, sonst false
+     */
+    public boolean contains(int answer, int answerCount) {
+        if(pageCount == 0) return false;
+        long key = key(answer, answerCount);
+        int page = pageOf(key | 1);
+        return find(pages[page], pageSizes[page], key) >= 0;
+    }
+
+    /**
+     * Entfernt eine Antwort, falls sie enthalten ist. Leere Seiten werden entfernt.
+     * @param answer Die gegebene Antwort (0: X gewinnt; 1: O gewinnt)
+     * @param answerCount Die wievielte Antwort es ist
+     * @return true, wenn die Antwort entfernt wurde, sonst false
+     */
+    public boolean remove(int answer, int answerCount) {
+        if(pageCount == 0) return false;
+        long key = key(answer, answerCount);
+        int page = pageOf(key | 1);
+        long[] keys = pages[page];
+        int position = find(keys, pageSizes[page], key);
+        if(position < 0) return false;
+
+        int weight = (int) (keys[position] & 1);
+        System.arraycopy(keys, position + 1, keys, position, pageSizes[page] - position - 1);
+        pageSizes[page]--;
+        pageWeights[page] -= weight;
+        size--;
+        correctCount -= weight;
+        addSums(page, -1, -weight);
+        if(pageSizes[page] == 0) {
+            removePage(page);
+        } else {
+            firstKeys[page] = keys[0];
+        }
+        return true;
+    }
+
+    /**
+     * Liefert die Anzahl der gespeicherten Antworten
+     * @return Die Anzahl der Antworten
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Liefert die Anzahl der richtigen Antworten
+     * @return Die Anzahl der richtigen Antworten
+     */
+    public int correctCount() {
+        return correctCount;
+    }
+
+    /**
+     * Liefert die Anzahl der Antworten, die in der Ordnung der Schluessel vor der uebergebenen Antwort liegen
+     * @param answer Die Antwort (0: X gewinnt; 1: O gewinnt)
+     * @param answerCount Der answerCount
+     * @return Die Anzahl der kleineren Antworten
+     */
+    public int rank(int answer, int answerCount) {
+        if(pageCount == 0) return 0;
+        ensureSums();
+        long key = key(answer, answerCount);
+        int page = pageOf(key | 1);
+        int position = find(pages[page], pageSizes[page], key);
+        return prefixSize(page) + (position >= 0 ? position : -position - 1);
+    }
+
+    /**
+     * Liefert die Anzahl der richtigen Antworten, die in der Ordnung der Schluessel vor der uebergebenen Antwort liegen
+     * @param answer Die Antwort (0: X gewinnt; 1: O gewinnt)
+     * @param answerCount Der answerCount
+     * @return Die Anzahl der kleineren richtigen Antworten
+     */
+    public int correctBelow(int answer, int answerCount) {
+        return correctBefore(rank(answer, answerCount));
+    }
+
+    /**
+     * Liefert den Schluessel an der uebergebenen Stelle in der Ordnung der Schluessel
+     * @param index Die Stelle (0 bis size - 1)
+     * @return Der Schluessel (siehe answerOf, answerCountOf und isCorrect)
+     */
+    public long select(int index) {
+        if(index < 0 || index >= size) throw new IndexOutOfBoundsException("Index " + index + ", size " + size);
+        ensureSums();
+        int page = pageAt(index);
+        return pages[page][index - prefixSize(page)];
+    }
+
+    /**
+     * Liefert die Anzahl der Antworten mit kleinerem answerCount, unabhaengig von der Antwort. Dafuer wird der Bereich
+     * jeder vorkommenden Antwort einzeln gezaehlt, im Spiel also zwei Bereiche.
+     * @param answerCount Der answerCount
+     * @return Die Anzahl der frueheren Antworten
+     */
+    public int rankByCount(int answerCount) {
+        return (int) belowCount(answerCount, false);
+    }
+
+    /**
+     * Liefert die Anzahl der richtigen Antworten mit kleinerem answerCount, unabhaengig von der Antwort
+     * @param answerCount Der answerCount
+     * @return Die Anzahl der frueheren richtigen Antworten
+     */
+    public int correctBelowCount(int answerCount) {
+        return (int) belowCount(answerCount, true);
+    }
+
+    /**
+     * Liefert den Schluessel an der uebergebenen Stelle in der Ordnung nach answerCount (bei gleichem answerCount nach der
+     * Antwort). Der answerCount wird per binaerer Suche ueber rankByCount bestimmt.
+     * @param index Die Stelle (0 bis size - 1)
+     * @return Der Schluessel (siehe answerOf, answerCountOf und isCorrect)
+     */
+    public long selectByCount(int index) {
+        if(index < 0 || index >= size) throw new IndexOutOfBoundsException("Index " + index + ", size " + size);
+        // Der kleinste answerCount, bis zu dem (einschliesslich) mehr als index Antworten liegen
+        long low = Integer.MIN_VALUE;
+        long high = Integer.MAX_VALUE;
+        while(low < high) {
+            long middle = (low + high) >> 1;
+            if(belowCount(middle + 1, false) > index) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        int answerCount = (int) low;
+        int skip = index - (int) belowCount(answerCount, false);
+        for(int start = 0; start < size; start = rangeEnd(start)) {
+            int answer = answerOf(select(start));
+            if(contains(answer, answerCount) && skip-- == 0) return select(rank(answer, answerCount));
+        }
+        throw new IllegalStateException("Inconsistent page counts");
+    }
+
+    /**
+     * Liefert die Anzahl der Seiten
+     * @return Die Anzahl der benutzten Seiten
+     */
+    public int pageCount() {
+        return pageCount;
+    }
+
+    /**
+     * Ueberprueft, ob keine Antworten gespeichert sind
+     * @return true, wenn der Speicher leer ist, sonst false
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Uebergibt alle Schluessel in aufsteigender Reihenfolge an die uebergebene Aktion
+     * @param action Die Aktion, die fuer jeden Schluessel aufgerufen wird (siehe answerOf und answerCountOf)
+     */
+    public void forEach(LongConsumer action) {
+        for(int page = 0; page < pageCount; page++) {
+            long[] keys = pages[page];
+            for(int i = 0, n = pageSizes[page]; i < n; i++) {
+                action.accept(keys[i]);
+            }
+        }
+    }
+
+    /**
+     * Liefert einen Iterator ueber alle Schluessel in aufsteigender Reihenfolge. Waehrend des Durchlaufs darf der
+     * Speicher nicht veraendert werden.
+     * @return Der Iterator
+     */
+    public PrimitiveIterator.OfLong iterator() {
+        return new PrimitiveIterator.OfLong() {
+            private int page;
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                while(page < pageCount && index >= pageSizes[page]) {
+                    page++;
+                    index = 0;
+                }
+                return page < pageCount;
+            }
+
+            @Override
+            public long nextLong() {
+                if(!hasNext()) throw new NoSuchElementException();
+                return pages[page][index++];
+            }
+        };
+    }
+
+    /**
+     * Liefert alle Schluessel in aufsteigender Reihenfolge als Stream
+     * @return Der Stream der Schluessel
+     */
+    public LongStream keys() {
+        return StreamSupport.longStream(Spliterators.spliterator(iterator(), size,
+                Spliterator.ORDERED | Spliterator.SORTED | Spliterator.DISTINCT | Spliterator.NONNULL), false);
+    }
+
+    /**
+     * Ersetzt den Inhalt durch die uebergebenen Schluessel ohne einzelne Einfuegeoperationen: die Seiten werden vollstaendig
+     * gefuellt und die Zaehler einmal aufgebaut.
+     * @param keys Die Schluessel (siehe key), nach answer und answerCount streng aufsteigend sortiert
+     * @param count Die Anzahl der Schluessel in keys
+     * @throws IllegalArgumentException wenn die Schluessel nicht streng aufsteigend sind
+     */
+    public void loadSorted(long[] keys, int count) {
+        for(int i = 1; i < count; i++) {
+            if((keys[i - 1] | 1) >= (keys[i] & ~1L)) throw new IllegalArgumentException("Keys not strictly ascending at " + i);
+        }
+        clear();
+        int capacity = (count + PAGE_SIZE - 1) / PAGE_SIZE;
+        if(capacity > pages.length) {
+            pages = new long[capacity][];
+            pageSizes = new int[capacity];
+            pageWeights = new int[capacity];
+            firstKeys = new long[capacity];
+            sizeSums = new int[capacity + 1];
+            weightSums = new int[capacity + 1];
+        }
+        for(int from = 0; from < count; from += PAGE_SIZE) {
+            int length = Math.min(PAGE_SIZE, count - from);
+            long[] page = new long[PAGE_SIZE];
+            System.arraycopy(keys, from, page, 0, length);
+            pages[pageCount] = page;
+            pageSizes[pageCount] = length;
+            pageWeights[pageCount] = countCorrect(page, length);
+            firstKeys[pageCount] = page[0];
+            correctCount += pageWeights[pageCount];
+            pageCount++;
+        }
+        size = count;
+        sumsDirty = true;
+    }
+
+    /**
+     * Entfernt alle Antworten
+     */
+    public void clear() {
+        Arrays.fill(pages, 0, pageCount, null);
+        pageCount = 0;
+        size = 0;
+        correctCount = 0;
+        sumsDirty = false;
+    }
+
+    /**
+     * Sucht die Seite, in die der Schluessel gehoert: die letzte Seite, deren erster Schluessel nicht groesser ist,
+     * bzw. die erste Seite. Fuer die Suche nach answer und answerCount wird der Schluessel mit gesetztem untersten Bit
+     * uebergeben, damit auch eine richtige Antwort am Anfang einer Seite gefunden wird.
+     * @param key Der Schluessel
+     * @return Der Index der Seite
+     */
+    private int pageOf(long key) {
+        int position = Arrays.binarySearch(firstKeys, 0, pageCount, key);
+        if(position >= 0) return position;
+        return Math.max(0, -position - 2);
+    }
+
+    /**
+     * Sucht eine Antwort in einer Seite unabhaengig davon, ob sie richtig war
+     * @param keys Die Schluessel der Seite
+     * @param count Die Anzahl der Schluessel
+     * @param key Der Schluessel der Antwort mit geloeschtem untersten Bit
+     * @return Die Stelle der Antwort, sonst -(Einfuegestelle) - 1 wie bei Arrays.binarySearch
+     */
+    private static int find(long[] keys, int count, long key) {
+        int position = Arrays.binarySearch(keys, 0, count, key);
+        if(position >= 0) return position;
+        int insertion = -position - 1;
+        if(insertion < count && keys[insertion] == (key | 1)) return insertion;
+        return position;
+    }
+
+    /**
+     * Zaehlt die richtigen Antworten unter den ersten count Schluesseln
+     */
+    private static int countCorrect(long[] keys, int count) {
+        int correct = 0;
+        for(int i = 0; i < count; i++) {
+            correct += (int) (keys[i] & 1);
+        }
+        return correct;
+    }
+
+    /**
+     * Liefert die Anzahl der richtigen Antworten unter den ersten index Schluesseln
+     * @param index Die Anzahl der Schluessel (0 bis size)
+     * @return Die Anzahl der richtigen Antworten
+     */
+    private int correctBefore(int index) {
+        if(index == size) return correctCount;
+        ensureSums();
+        int page = pageAt(index);
+        return prefixWeight(page) + countCorrect(pages[page], index - prefixSize(page));
+    }
+
+    /**
+     * Liefert die Stelle nach dem Bereich der Antwort, mit der der Bereich an der uebergebenen Stelle beginnt
+     * @param start Die erste Stelle eines Bereichs
+     * @return Die erste Stelle des naechsten Bereichs bzw. size
+     */
+    private int rangeEnd(int start) {
+        int answer = answerOf(select(start));
+        return answer == MAX_ANSWER ? size : rank(answer + 1, Integer.MIN_VALUE);
+    }
+
+    /**
+     * Zaehlt die Antworten bzw. richtigen Antworten mit einem answerCount kleiner als bound, getrennt fuer den Bereich
+     * jeder vorkommenden Antwort
+     * @param bound Die Grenze, zwischen Integer.MIN_VALUE und Integer.MAX_VALUE + 1
+     * @param correctOnly true, um nur die richtigen Antworten zu zaehlen
+     * @return Die Anzahl
+     */
+    private long belowCount(long bound, boolean correctOnly) {
+        long count = 0;
+        for(int start = 0; start < size; ) {
+            int answer = answerOf(select(start));
+            int end = rangeEnd(start);
+            int cut = bound > Integer.MAX_VALUE ? end : rank(answer, (int) bound);
+            count += correctOnly ? correctBefore(cut) - correctBefore(start) : cut - start;
+            start = end;
+        }
+        return count;
+    }
+
+    /**
+     * Baut die Fenwick Baeume neu auf, wenn seit dem letzten Aufbau eine Seite in der Mitte eingefuegt oder entfernt wurde
+     */
+    private void ensureSums() {
+        if(!sumsDirty) return;
+        for(int i = 1; i <= pageCount; i++) {
+            sizeSums[i] = pageSizes[i - 1];
+            weightSums[i] = pageWeights[i - 1];
+        }
+        for(int i = 1; i <= pageCount; i++) {
+            int parent = i + (i & -i);
+            if(parent <= pageCount) {
+                sizeSums[parent] += sizeSums[i];
+                weightSums[parent] += weightSums[i];
+            }
+        }
+        sumsDirty = false;
+    }
+
+    /**
+     * Aendert die Zaehler einer Seite in den Fenwick Baeumen; werden sie ohnehin neu aufgebaut, passiert nichts
+     */
+    private void addSums(int page, int size, int weight) {
+        if(sumsDirty) return;
+        for(int i = page + 1; i <= pageCount; i += i & -i) {
+            sizeSums[i] += size;
+            weightSums[i] += weight;
+        }
+    }
+
+    /**
+     * Liefert die Anzahl der Antworten in den ersten pages Seiten
+     */
+    private int prefixSize(int pages) {
+        int sum = 0;
+        for(int i = pages; i > 0; i -= i & -i) {
+            sum += sizeSums[i];
+        }
+        return sum;
+    }
+
+    /**
+     * Liefert die Anzahl der richtigen Antworten in den ersten pages Seiten
+     */
+    private int prefixWeight(int pages) {
+        int sum = 0;
+        for(int i = pages; i > 0; i -= i & -i) {
+            sum += weightSums[i];
+        }
+        return sum;
+    }
+
+    /**
+     * Sucht die Seite, die den Schluessel an der uebergebenen Stelle enthaelt, durch Abstieg im Fenwick Baum
+     * @param index Die Stelle (0 bis size - 1)
+     * @return Der Index der Seite
+     */
+    private int pageAt(int index) {
+        int page = 0;
+        for(int step = Integer.highestOneBit(pageCount); step > 0; step >>= 1) {
+            if(page + step <= pageCount && sizeSums[page + step] <= index) {
+                page += step;
+                index -= sizeSums[page];
+            }
+        }
+        return page;
+    }
+
+    /**
+     * Fuegt eine leere Seite an der uebergebenen Stelle ein und vergroessert die Arrays bei Bedarf
+     * @param index Die Stelle der neuen Seite
+     * @param keys Das Array der neuen Seite
+     */
+    private void insertPage(int index, long[] keys) {
+        if(pageCount == pages.length) {
+            int capacity = pages.length * 2;
+            pages = Arrays.copyOf(pages, capacity);
+            pageSizes = Arrays.copyOf(pageSizes, capacity);
+            pageWeights = Arrays.copyOf(pageWeights, capacity);
+            firstKeys = Arrays.copyOf(firstKeys, capacity);
+            sizeSums = Arrays.copyOf(sizeSums, capacity + 1);
+            weightSums = Arrays.copyOf(weightSums, capacity + 1);
+        }
+        System.arraycopy(pages, index, pages, index + 1, pageCount - index);
+        System.arraycopy(pageSizes, index, pageSizes, index + 1, pageCount - index);
+        System.arraycopy(pageWeights, index, pageWeights, index + 1, pageCount - index);
+        System.arraycopy(firstKeys, index, firstKeys, index + 1, pageCount - index);
+        pages[index] = keys;
+        pageSizes[index] = 0;
+        pageWeights[index] = 0;
+        firstKeys[index] = keys[0];
+        if(index < pageCount) {
+            sumsDirty = true;
+        } else if(!sumsDirty) {
+            // Eine leere Seite am Ende: ihr Eintrag im Fenwick Baum ist die Summe der Seiten, die er abdeckt
+            int i = pageCount + 1;
+            sizeSums[i] = prefixSize(i - 1) - prefixSize(i - (i & -i));
+            weightSums[i] = prefixWeight(i - 1) - prefixWeight(i - (i & -i));
+        }
+        pageCount++;
+    }
+
+    /**
+     * Entfernt die Seite an der uebergebenen Stelle
+     * @param index Die Stelle der Seite
+     */
+    private void removePage(int index) {
+        int moved = pageCount - index - 1;
+        System.arraycopy(pages, index + 1, pages, index, moved);
+        System.arraycopy(pageSizes, index + 1, pageSizes, index, moved);
+        System.arraycopy(pageWeights, index + 1, pageWeights, index, moved);
+        System.arraycopy(firstKeys, index + 1, firstKeys, index, moved);
+        // Die leere letzte Seite kommt in keiner Summe der uebrigen Seiten vor, jede andere verschiebt die Seiten
+        if(moved > 0) sumsDirty = true;
+        pageCount--;
+        pages[pageCount] = null;
+    }
+}
@@ -0,0 +1,286 @@
+import java.util.Objects;
+
+/**
+ * Bewertet viele Spielbretter in einem Durchlauf, ohne fuer jedes Spielbrett ein int[] anzulegen.
+ * Die Spielbretter werden als int in einem Array uebergeben, entweder als Base-3 Index (Feld i zaehlt board[i] * 3^i,
+ * wie in SolutionTable) oder als gepacktes Bitboard (Bit i: Feld i ist X, Bit 9 + i: Feld i ist O, siehe pack).
+ * Die Ergebnisse werden in ein byte[] an dieselbe Stelle geschrieben.
+ * <p>
+ * Fuer Base-3 Indizes werden alle Ergebnisse beim ersten Zugriff fuer alle 3^9 Spielbretter vorberechnet, danach kostet jedes
+ * Spielbrett nur noch einen Tabellenzugriff. Fuer Bitboards werden die Gewinnreihen mit der Vector API (jdk.incubator.vector)
+ * geprueft, wenn das Projekt mit dem Profil vector gebaut und mit --add-modules jdk.incubator.vector gestartet wurde,
+ * ansonsten ueber eine Tabelle mit 512 Eintraegen je Spieler.
+ */
+public final class BatchEvaluator {
+    /**
+     * Anzahl der Bits, um die die Felder von O im gepackten Bitboard verschoben sind
+     */
+    static final int O_SHIFT = 9;
+
+    /**
+     * Name der Klasse, die die Gewinnreihen mit der Vector API prueft. Sie liegt in src/vector/java und wird nur mit dem
+     * Profil vector uebersetzt.
+     */
+    private static final String VECTOR_KERNEL = "VectorWinnerKernel";
+
+    /**
+     * Gibt fuer jede Bitmaske eines Spielers den Index der ersten enthaltenen Gewinnreihe in AI.WIN_LINES an,
+     * bzw. AI.WIN_LINES.length, wenn sie keine enthaelt. Damit liefert winners bei Spielbrettern, auf denen beide Spieler
+     * eine Reihe haben, denselben Gewinner wie AI.checkForWinner.
+     */
+    private static final byte[] FIRST_LINE = createFirstLine();
+
+    /**
+     * Der Gewinner fuer jedes Paar aus erster Gewinnreihe von X und von O (Index FIRST_LINE von X * OUTCOME_STRIDE +
+     * FIRST_LINE von O). So kommt die skalare Pruefung ohne Verzweigungen aus.
+     */
+    private static final int OUTCOME_STRIDE = AI.WIN_LINES.length + 1;
+    private static final byte[] OUTCOME = createOutcome();
+
+    /**
+     * Der Base-3 Index jeder Bitmaske, wenn alle gesetzten Felder mit 1 belegt sind
+     */
+    private static final int[] BASE3 = createBase3();
+
+    /**
+     * Die Pruefung der Gewinnreihen fuer Bitboards
+     */
+    private static final WinnerKernel KERNEL = loadKernel();
+
+    private BatchEvaluator() {
+    }
+
+    /**
+     * Packt ein Spielbrett als Bitboard
+     * @param board Das Spielbrett (0: frei; 1: X; 2: O)
+     * @return Das gepackte Bitboard (Bit i: Feld i ist X, Bit 9 + i: Feld i ist O)
+     */
+    public static int pack(int[] board) {
+        int packed = 0;
+        for(int i = 0; i < board.length; i++) {
+            if(board[i] == 1) packed |= 1 << i;
+            else if(board[i] == 2) packed |= 1 << O_SHIFT + i;
+        }
+        return packed;
+    }
+
+    /**
+     * Wandelt ein gepacktes Bitboard in den Base-3 Index um
+     * @param packed Das gepackte Bitboard
+     * @return Der Base-3 Index des Spielbretts
+     */
+    public static int index(int packed) {
+        return BASE3[packed & AI.FULL_BOARD] + 2 * BASE3[packed >>> O_SHIFT & AI.FULL_BOARD];
+    }
+
+    /**
+     * Wandelt count gepackte Bitboards in Base-3 Indizes um
+     * @param packed Die gepackten Bitboards
+     * @param indices Die Base-3 Indizes
+     * @param offset Der erste umzuwandelnde Index der Arrays
+     * @param count Die Anzahl der Spielbretter
+     */
+    public static void indices(int[] packed, int[] indices, int offset, int count) {
+        Objects.checkFromIndexSize(offset, count, packed.length);
+        Objects.checkFromIndexSize(offset, count, indices.length);
+        for(int i = offset, end = offset + count; i < end; i++) {
+            indices[i] = index(packed[i]);
+        }
+    }
+
+    /**
+     * Bestimmt fuer count gepackte Bitboards den Gewinner, so wie AI.checkForWinner
+     * @param packed Die gepackten Bitboards
+     * @param winners Die Gewinner (0: Keiner; 1: X; 2: O)
+     * @param offset Der erste zu bewertende Index der Arrays
+     * @param count Die Anzahl der Spielbretter
+     */
+    public static void winners(int[] packed, byte[] winners, int offset, int count) {
+        Objects.checkFromIndexSize(offset, count, packed.length);
+        Objects.checkFromIndexSize(offset, count, winners.length);
+        KERNEL.winners(packed, winners, offset, count);
+    }
+
+    /**
+     * Bestimmt fuer count Base-3 Indizes den Gewinner, so wie AI.checkForWinner
+     * @param indices Die Spielbretter als Base-3 Index
+     * @param winners Die Gewinner (0: Keiner; 1: X; 2: O)
+     * @param offset Der erste zu bewertende Index der Arrays
+     * @param count Die Anzahl der Spielbretter
+     */
+    public static void winnersOfIndices(int[] indices, byte[] winners, int offset, int count) {
+        lookup(Tables.WINNERS, indices, winners, offset, count);
+    }
+
+    /**
+     * Bestimmt fuer count Base-3 Indizes den Gewinner bei perfektem Spiel beider Spieler, so wie
+     * PuzzleGenerator.perfectPlayWinner. Am Zug ist X, wenn beide Spieler gleich viele Felder belegt haben, sonst O.
+     * @param indices Die Spielbretter als Base-3 Index
+     * @param winners Die Gewinner bei perfektem Spiel (0: Keiner; 1: X; 2: O)
+     * @param offset Der erste zu bewertende Index der Arrays
+     * @param count Die Anzahl der Spielbretter
+     */
+    public static void perfectPlayWinners(int[] indices, byte[] winners, int offset, int count) {
+        lookup(Tables.PERFECT_PLAY_WINNERS, indices, winners, offset, count);
+    }
+
+    /**
+     * Bestimmt fuer count Base-3 Indizes den Evaluierungswert bei perfektem Spiel aus Sicht des Spielers am Zug, so wie ihn
+     * die Suche der K.I. bzw. die SolutionTable liefert. Am Zug ist X, wenn beide Spieler gleich viele Felder belegt haben,
+     * sonst O. Hat bereits ein Spieler gewonnen, ist der Wert 100 bzw. -100, bei vollem Spielbrett 0.
+     * @param indices Die Spielbretter als Base-3 Index
+     * @param values Die Evaluierungswerte (positiv: Gewinn; 0: Unentschieden; negativ: Niederlage)
+     * @param offset Der erste zu bewertende Index der Arrays
+     * @param count Die Anzahl der Spielbretter
+     */
+    public static void perfectPlayValues(int[] indices, byte[] values, int offset, int count) {
+        lookup(Tables.PERFECT_PLAY_VALUES, indices, values, offset, count);
+    }
+
+    /**
+     * Ueberprueft, ob die Gewinnreihen der Bitboards mit der Vector API geprueft werden
+     * @return true, wenn die Vector API benutzt wird; sonst nennt getScalarReason den Grund
+     */
+    public static boolean isVectorized() {
+        return !(KERNEL instanceof ScalarWinnerKernel);
+    }
+
+    /**
+     * Liefert den Grund, warum die Gewinnreihen der Bitboards ohne Vector API geprueft werden
+     * @return Der Grund, null wenn die Vector API benutzt wird
+     */
+    public static String getScalarReason() {
+        return KERNEL instanceof ScalarWinnerKernel ? ((ScalarWinnerKernel) KERNEL).reason : null;
+    }
+
+    /**
+     * Bestimmt die Gewinner der gepackten Bitboards ohne Vector API. Wird auch von VectorWinnerKernel fuer die
+     * Spielbretter am Ende benutzt, die keinen vollen Vektor mehr fuellen.
+     */
+    static void scalarWinners(int[] packed, byte[] winners, int offset, int count) {
+        for(int i = offset, end = offset + count; i < end; i++) {
+            int board = packed[i];
+            winners[i] = OUTCOME[FIRST_LINE[board & AI.FULL_BOARD] * OUTCOME_STRIDE + FIRST_LINE[board >>> O_SHIFT & AI.FULL_BOARD]];
+        }
+    }
+
+    private static void lookup(byte[] table, int[] indices, byte[] results, int offset, int count) {
+        Objects.checkFromIndexSize(offset, count, indices.length);
+        Objects.checkFromIndexSize(offset, count, results.length);
+        for(int i = offset, end = offset + count; i < end; i++) {
+            results[i] = table[indices[i]];
+        }
+    }
+
+    /**
+     * Laedt VectorWinnerKernel, wenn die Klasse vorhanden ist und die Vector API zur Verfuegung steht.
+     * Mit -DtictactoeDecider.vector=false wird immer die skalare Pruefung benutzt. Ist die Klasse vorhanden, kann aber nicht
+     * geladen werden (z.B. ohne --add-modules jdk.incubator.vector), wird der Grund einmal auf System.err ausgegeben.
+     * @return Die Pruefung der Gewinnreihen
+     */
+    private static WinnerKernel loadKernel() {
+        if(!Boolean.parseBoolean(System.getProperty("tictactoeDecider.vector", "true"))) {
+            return new ScalarWinnerKernel("disabled with -DtictactoeDecider.vector=false");
+        }
+        try {
+            return (WinnerKernel) Class.forName(VECTOR_KERNEL).getDeclaredConstructor().newInstance();
+        } catch (ClassNotFoundException e) {
+            return new ScalarWinnerKernel(VECTOR_KERNEL + " not built (profile vector)");
+        } catch (ReflectiveOperationException | LinkageError e) {
+            String reason = e.getCause() == null ? e.toString() : e + " caused by " + e.getCause();
+            System.err.println("Vector API not used: " + reason);
+            return new ScalarWinnerKernel(reason);
+        }
+    }
+
+    private static byte[] createFirstLine() {
+        byte[] firstLine = new byte[AI.FULL_BOARD + 1];
+        for(int bits = 0; bits <= AI.FULL_BOARD; bits++) {
+            int line = 0;
+            while(line < AI.WIN_LINES.length && (bits & AI.WIN_LINES[line]) != AI.WIN_LINES[line]) line++;
+            firstLine[bits] = (byte) line;
+        }
+        return firstLine;
+    }
+
+    private static byte[] createOutcome() {
+        byte[] outcome = new byte[OUTCOME_STRIDE * OUTCOME_STRIDE];
+        for(int x = 0; x < OUTCOME_STRIDE; x++) {
+            for(int o = 0; o < OUTCOME_STRIDE; o++) {
+                outcome[x * OUTCOME_STRIDE + o] = (byte) (x <= o ? (x < AI.WIN_LINES.length ? 1 : 0) : 2);
+            }
+        }
+        return outcome;
+    }
+
+    private static int[] createBase3() {
+        int[] base3 = new int[AI.FULL_BOARD + 1];
+        for(int bits = 0; bits <= AI.FULL_BOARD; bits++) {
+            int index = 0;
+            for(int i = 8; i >= 0; i--) {
+                index = index * 3 + (bits >>> i & 1);
+            }
+            base3[bits] = index;
+        }
+        return base3;
+    }
+
+    /**
+     * Die Pruefung der Gewinnreihen fuer gepackte Bitboards. Die Grenzen der Arrays sind bereits geprueft.
+     */
+    interface WinnerKernel {
+        void winners(int[] packed, byte[] winners, int offset, int count);
+    }
+
+    private static final class ScalarWinnerKernel implements WinnerKernel {
+        /**
+         * Der Grund, warum die Vector API nicht benutzt wird
+         */
+        private final String reason;
+
+        ScalarWinnerKernel(String reason) {
+            this.reason = reason;
+        }
+
+        @Override
+        public void winners(int[] packed, byte[] winners, int offset, int count) {
+            scalarWinners(packed, winners, offset, count);
+        }
+    }
+
+    /**
+     * Die vorberechneten Ergebnisse fuer alle Base-3 Indizes. Die Tabellen werden erst beim ersten Zugriff berechnet.
+     */
+    private static final class Tables {
+        static final byte[] WINNERS = new byte[TranspositionTable.POSITIONS];
+        static final byte[] PERFECT_PLAY_WINNERS = new byte[TranspositionTable.POSITIONS];
+        static final byte[] PERFECT_PLAY_VALUES = new byte[TranspositionTable.POSITIONS];
+
+        static {
+            byte[] solutions = SolutionTable.get();
+            AI ai = solutions == null ? new AI(1) : null;
+            int[] board = new int[9];
+            for(int index = 0; index < TranspositionTable.POSITIONS; index++) {
+                int xBits = 0;
+                int oBits = 0;
+                for(int i = 0, rest = index; i < board.length; i++, rest /= 3) {
+                    board[i] = rest % 3;
+                    if(board[i] == 1) xBits |= 1 << i;
+                    else if(board[i] == 2) oBits |= 1 << i;
+                }
+                int player = Integer.bitCount(xBits) == Integer.bitCount(oBits) ? 1 : 2;
+                int winner = AI.checkForWinner(xBits, oBits);
+
+                int value;
+                if(winner != 0) value = winner == player ? 100 : -100;
+                else if((xBits | oBits) == AI.FULL_BOARD) value = 0;
+                else if(solutions != null) value = SolutionTable.value(solutions, board, player);
+                else value = AI.scoreOf(ai.search(board, player));
+
+                WINNERS[index] = (byte) winner;
+                PERFECT_PLAY_VALUES[index] = (byte) value;
+                PERFECT_PLAY_WINNERS[index] = (byte) (winner != 0 ? winner : value > 0 ? player : value < 0 ? 3 - player : 0);
+            }
+        }
+    }
+}
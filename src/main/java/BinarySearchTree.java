@@ -1,3 +1,12 @@
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
 /**
  * <p>
  * Materialien zu den zentralen NRW-Abiturpruefungen im Fach Informatik ab 2018
@@ -23,38 +32,67 @@
  * beiden Teilbaeumen. <br />
  * Hinweis: In dieser Version wird die Klasse BinaryTree nicht benutzt.
  * </p>
+ * <p>
+ * Ergaenzung: insert, remove und search arbeiten iterativ, sodass auch
+ * entartete Baeume mit sehr vielen Objekten keinen Stackueberlauf ausloesen.
+ * Der Baum kann ausserdem in aufsteigender Reihenfolge (In-Order) mit einem
+ * Iterator, einem Spliterator oder als Stream durchlaufen werden, auch
+ * eingeschraenkt auf einen Bereich zwischen zwei Objekten. Die Durchlaeufe
+ * benoetigen nur einen Hilfsspeicher in der Groesse der Baumhoehe auf dem Heap
+ * und lassen sich fuer parallele Streams aufteilen. Ueber die Teilbaumgroessen
+ * kennt der Spliterator ohne Bereichsgrenzen die genaue Anzahl der Objekte
+ * und teilt in etwa gleich grosse Haelften. Waehrend eines Durchlaufs
+ * darf der Baum nicht veraendert werden.
+ * </p>
+ * <p>
+ * Jeder Knoten kennt ausserdem die Anzahl der Objekte in seinem Teilbaum.
+ * Damit liefern rank und select in O(Hoehe) Schritten die Position eines
+ * Objekts und das Objekt an einer Position, ohne den Baum zu durchlaufen.
+ * </p>
  * 
  * @author Qualitaets- und UnterstuetzungsAgentur - Landesinstitut fuer Schule
  * @version Generisch_03 2017-11-28
  */
-public class BinarySearchTree<ContentType extends ComparableContent<ContentType>> {
+public class BinarySearchTree<ContentType extends ComparableContent<ContentType>> implements Iterable<ContentType> {
 
 	/* --------- Anfang der privaten inneren Klasse -------------- */
 
 	/**
 	 * Durch diese innere Klasse kann man dafuer sorgen, dass ein leerer Baum
 	 * null ist, ein nicht-leerer Baum jedoch immer eine nicht-null-Wurzel sowie
-	 * nicht-null-Teilbaeume hat.
+	 * nicht-null-Teilbaeume hat.<br />
+	 * Die Klasse ist paketsichtbar, damit balancierte Unterklassen (AVLTree)
+	 * die Knoten umhaengen koennen.
 	 */
-	private class BSTNode<CT extends ComparableContent<CT>> {
+	static class BSTNode<CT extends ComparableContent<CT>> {
 	  
-		private CT content;
-		private BinarySearchTree<CT> left, right;
+		CT content;
+		BinarySearchTree<CT> left, right;
+		/**
+		 * Hoehe des Teilbaums mit diesem Knoten als Wurzel (ein Blatt hat die
+		 * Hoehe 1). Wird nur von balancierten Unterklassen und von
+		 * buildFromSorted gepflegt.
+		 */
+		int height = 1;
+		/**
+		 * Anzahl der Objekte im Teilbaum mit diesem Knoten als Wurzel.
+		 */
+		int size = 1;
 
-		public BSTNode(CT pContent) {
+		BSTNode(CT pContent, BinarySearchTree<CT> pLeft, BinarySearchTree<CT> pRight) {
 			// Der Knoten hat einen linken und rechten Teilbaum, die 
 			// beide von null verschieden sind. Also hat ein Blatt immer zwei 
 			// leere Teilbaeume unter sich.
 			this.content = pContent;
-			left = new BinarySearchTree<CT>();
-			right = new BinarySearchTree<CT>();
+			left = pLeft;
+			right = pRight;
 		}
 		
 	}
 
 	/* ----------- Ende der privaten inneren Klasse -------------- */
 
-	private BSTNode<ContentType> node;
+	BSTNode<ContentType> node;
 
 	/**
 	 * Der Konstruktor erzeugt einen leeren Suchbaum.
@@ -89,15 +127,20 @@ public class BinarySearchTree<ContentType extends ComparableContent<ContentType>
 	 *            
 	 */
 	public void insert(ContentType pContent) {
-		if (pContent != null) {
-			if (isEmpty()) {
-				this.node = new BSTNode<ContentType>(pContent);
-			} else if (pContent.isLess(this.node.content)) {
-				this.node.left.insert(pContent);
-			} else if(pContent.isGreater(this.node.content)) {
-				this.node.right.insert(pContent);
-			}
+		if (pContent == null) {
+			return;
+		}
+		if (search(pContent) != null) {
+			// Das Objekt ist bereits enthalten.
+			return;
 		}
+		// Auf dem Weg zur Einfuegestelle waechst jeder Teilbaum um das Objekt.
+		BinarySearchTree<ContentType> tree = this;
+		while (!tree.isEmpty()) {
+			tree.node.size++;
+			tree = pContent.isLess(tree.node.content) ? tree.node.left : tree.node.right;
+		}
+		tree.node = createNode(pContent);
 	}
 
 	/**
@@ -159,45 +202,28 @@ public class BinarySearchTree<ContentType extends ComparableContent<ContentType>
 	 *            
 	 */
 	public void remove(ContentType pContent) {
-		if (isEmpty() || pContent == null ) {
+		if (pContent == null) {
+			return;
+		}
+		if (search(pContent) == null) {
 			// Abbrechen, da kein Element zum entfernen vorhanden ist.
-		  return;
+			return;
 		}
-		
-		if (pContent.isLess(node.content)) {
-			// Element ist im linken Teilbaum zu loeschen.
-			node.left.remove(pContent);
-		} else if (pContent.isGreater(node.content)) {
-			// Element ist im rechten Teilbaum zu loeschen.
-			node.right.remove(pContent);
-		} else {
-			// Element ist gefunden.
-			if (node.left.isEmpty()) {
-				if (node.right.isEmpty()) {
-					// Es gibt keinen Nachfolger.
-					node = null;
-				} else {
-					// Es gibt nur rechts einen Nachfolger.
-					node = getNodeOfRightSuccessor();
-				}
-			} else if (node.right.isEmpty()) {
-				// Es gibt nur links einen Nachfolger.
-				node = getNodeOfLeftSuccessor();
+		BinarySearchTree<ContentType> tree = this;
+		while (true) {
+			tree.node.size--;
+			if (pContent.isLess(tree.node.content)) {
+				// Element ist im linken Teilbaum zu loeschen.
+				tree = tree.node.left;
+			} else if (pContent.isGreater(tree.node.content)) {
+				// Element ist im rechten Teilbaum zu loeschen.
+				tree = tree.node.right;
 			} else {
-				// Es gibt links und rechts einen Nachfolger.
-				if (getNodeOfRightSuccessor().left.isEmpty()) {
-					// Der rechte Nachfolger hat keinen linken Nachfolger.
-					node.content = getNodeOfRightSuccessor().content;
-					node.right = getNodeOfRightSuccessor().right;
-				} else {
-					BinarySearchTree<ContentType> previous = node.right
-							.ancestorOfSmallRight();
-					BinarySearchTree<ContentType> smallest = previous.node.left;
-					this.node.content = smallest.node.content;
-					previous.remove(smallest.node.content);
-				}
+				// Element ist gefunden.
+				tree.removeRoot();
+				return;
 			}
-		}		
+		}
 	}
 
 	/**
@@ -212,49 +238,409 @@ public class BinarySearchTree<ContentType extends ComparableContent<ContentType>
 	 * 
 	 */
 	public ContentType search(ContentType pContent) {
-		if (this.isEmpty() || pContent == null) {
+		if (pContent == null) {
 			// Abbrechen, da es kein Element zu suchen gibt.
 			return null;
-		} else {
-			ContentType content = this.getContent();
+		}
+		BinarySearchTree<ContentType> tree = this;
+		while (!tree.isEmpty()) {
+			ContentType content = tree.node.content;
 			if (pContent.isLess(content)) {
 				// Element wird im linken Teilbaum gesucht.
-				return this.getLeftTree().search(pContent);
+				tree = tree.node.left;
 			} else if (pContent.isGreater(content)) {
 				// Element wird im rechten Teilbaum gesucht.
-				return this.getRightTree().search(pContent);
+				tree = tree.node.right;
 			} else if (pContent.isEqual(content)) {
 				// Element wurde gefunden.
-			  return content;				
-			} else {	
-			  // Dieser Fall sollte nicht auftreten.
+				return content;
+			} else {
+				// Dieser Fall sollte nicht auftreten.
 				return null;
 			}
 		}
+		return null;
+	}
+
+	/**
+	 * Ersetzt den Inhalt des Suchbaums durch die Objekte aus pSorted. Die
+	 * Objekte muessen bezueglich der Ordnungsrelation streng aufsteigend
+	 * sortiert sein. Der Baum wird in O(n) Schritten ohne Vergleiche
+	 * aufgebaut und ist danach vollstaendig balanciert (also auch ein
+	 * gueltiger AVLTree).
+	 * 
+	 * @param pSorted
+	 *            streng aufsteigend sortierte Objekte vom Typ ContentType
+	 */
+	public void buildFromSorted(ContentType[] pSorted) {
+		BinarySearchTree<ContentType> built = build(pSorted, 0, pSorted.length);
+		node = built.node;
+	}
+
+	/**
+	 * Liefert die Anzahl der Objekte im Suchbaum.
+	 * 
+	 * @return die Anzahl der Objekte
+	 */
+	public int size() {
+		return size(this);
+	}
+
+	/**
+	 * Liefert die Anzahl der Objekte im Suchbaum, die kleiner als pContent
+	 * sind. pContent muss dabei nicht im Baum enthalten sein. Ist pContent
+	 * enthalten, ist das Ergebnis seine Position (beginnend bei 0) in
+	 * aufsteigender Reihenfolge.
+	 * 
+	 * @param pContent
+	 *            Vergleichsobjekt vom Typ ContentType
+	 * @return die Anzahl der kleineren Objekte, 0 falls pContent null ist
+	 */
+	public int rank(ContentType pContent) {
+		if (pContent == null) {
+			return 0;
+		}
+		int rank = 0;
+		BinarySearchTree<ContentType> tree = this;
+		while (!tree.isEmpty()) {
+			if (tree.node.content.isLess(pContent)) {
+				rank += size(tree.node.left) + 1;
+				tree = tree.node.right;
+			} else {
+				tree = tree.node.left;
+			}
+		}
+		return rank;
+	}
+
+	/**
+	 * Liefert das Objekt an der Position pIndex (beginnend bei 0) in
+	 * aufsteigender Reihenfolge.
+	 * 
+	 * @param pIndex
+	 *            die Position des Objekts
+	 * @return das Objekt an der Position oder null, falls es keine solche
+	 *         Position gibt
+	 */
+	public ContentType select(int pIndex) {
+		if (pIndex < 0 || pIndex >= size()) {
+			return null;
+		}
+		BinarySearchTree<ContentType> tree = this;
+		while (true) {
+			int leftSize = size(tree.node.left);
+			if (pIndex < leftSize) {
+				tree = tree.node.left;
+			} else if (pIndex > leftSize) {
+				pIndex -= leftSize + 1;
+				tree = tree.node.right;
+			} else {
+				return tree.node.content;
+			}
+		}
+	}
+
+	/**
+	 * Liefert einen Iterator, der alle Objekte des Suchbaums in aufsteigender
+	 * Reihenfolge liefert.
+	 * 
+	 * @return ein In-Order Iterator ueber den Suchbaum
+	 */
+	@Override
+	public Iterator<ContentType> iterator() {
+		return Spliterators.iterator(spliterator());
+	}
+
+	/**
+	 * Liefert einen Iterator, der alle Objekte zwischen pFrom und pTo
+	 * (jeweils einschliesslich) in aufsteigender Reihenfolge liefert. Ist eine
+	 * der Grenzen null, ist der Bereich auf dieser Seite nicht beschraenkt.
+	 * 
+	 * @param pFrom
+	 *            untere Grenze vom Typ ContentType oder null
+	 * @param pTo
+	 *            obere Grenze vom Typ ContentType oder null
+	 * @return ein In-Order Iterator ueber den Bereich
+	 */
+	public Iterator<ContentType> iterator(ContentType pFrom, ContentType pTo) {
+		return Spliterators.iterator(spliterator(pFrom, pTo));
+	}
+
+	/**
+	 * Liefert einen aufteilbaren Spliterator ueber alle Objekte des Suchbaums
+	 * in aufsteigender Reihenfolge.
+	 * 
+	 * @return ein In-Order Spliterator ueber den Suchbaum
+	 */
+	@Override
+	public Spliterator<ContentType> spliterator() {
+		return spliterator(null, null);
+	}
+
+	/**
+	 * Liefert einen aufteilbaren Spliterator ueber alle Objekte zwischen pFrom
+	 * und pTo (jeweils einschliesslich) in aufsteigender Reihenfolge. Ist eine
+	 * der Grenzen null, ist der Bereich auf dieser Seite nicht beschraenkt.
+	 * 
+	 * @param pFrom
+	 *            untere Grenze vom Typ ContentType oder null
+	 * @param pTo
+	 *            obere Grenze vom Typ ContentType oder null
+	 * @return ein In-Order Spliterator ueber den Bereich
+	 */
+	public Spliterator<ContentType> spliterator(ContentType pFrom, ContentType pTo) {
+		ArrayDeque<Object> pending = new ArrayDeque<Object>();
+		pending.add(this);
+		return new InOrderSpliterator<ContentType>(pending, pFrom, pTo);
+	}
+
+	/**
+	 * Liefert einen sequentiellen Stream ueber alle Objekte des Suchbaums in
+	 * aufsteigender Reihenfolge.
+	 * 
+	 * @return ein Stream ueber den Suchbaum
+	 */
+	public Stream<ContentType> stream() {
+		return StreamSupport.stream(spliterator(), false);
+	}
+
+	/**
+	 * Liefert einen sequentiellen Stream ueber alle Objekte zwischen pFrom und
+	 * pTo (jeweils einschliesslich) in aufsteigender Reihenfolge.
+	 * 
+	 * @param pFrom
+	 *            untere Grenze vom Typ ContentType oder null
+	 * @param pTo
+	 *            obere Grenze vom Typ ContentType oder null
+	 * @return ein Stream ueber den Bereich
+	 */
+	public Stream<ContentType> stream(ContentType pFrom, ContentType pTo) {
+		return StreamSupport.stream(spliterator(pFrom, pTo), false);
+	}
+
+	/**
+	 * Liefert einen parallelen Stream ueber alle Objekte des Suchbaums. Die
+	 * Teilbaeume werden dabei auf mehrere Threads aufgeteilt.
+	 * 
+	 * @return ein paralleler Stream ueber den Suchbaum
+	 */
+	public Stream<ContentType> parallelStream() {
+		return StreamSupport.stream(spliterator(), true);
 	}
 
 	/* ----------- Weitere private Methoden -------------- */
 
 	/**
-	 * Die Methode liefert denjenigen Baum, dessen linker Nachfolger keinen linken
-	 * Nachfolger mehr hat. Es ist also spaeter moeglich, in einem Baum im
-	 * rechten Nachfolger den Vorgaenger des linkesten Nachfolgers zu finden.
+	 * Erzeugt einen leeren Teilbaum fuer einen neuen Knoten. Unterklassen
+	 * ueberschreiben die Methode, damit alle Teilbaeume von ihrer Klasse sind.
 	 * 
+	 * @return ein leerer Suchbaum
 	 */
-	private BinarySearchTree<ContentType> ancestorOfSmallRight() {		
-		if (getNodeOfLeftSuccessor().left.isEmpty()) {
-			return this;
-		} else {
-			return node.left.ancestorOfSmallRight();
+	BinarySearchTree<ContentType> createEmptyTree() {
+		return new BinarySearchTree<ContentType>();
+	}
+
+	/**
+	 * Erzeugt einen Knoten mit zwei leeren Teilbaeumen fuer pContent.
+	 * 
+	 * @param pContent
+	 *            Inhaltsobjekt des Knotens
+	 * @return der neue Knoten
+	 */
+	BSTNode<ContentType> createNode(ContentType pContent) {
+		return new BSTNode<ContentType>(pContent, createEmptyTree(), createEmptyTree());
+	}
+
+	/**
+	 * Baut einen balancierten Teilbaum aus den Objekten pSorted[pFrom] bis
+	 * pSorted[pTo - 1] auf. Die Rekursionstiefe ist dabei nur log n.
+	 */
+	private BinarySearchTree<ContentType> build(ContentType[] pSorted, int pFrom, int pTo) {
+		BinarySearchTree<ContentType> tree = createEmptyTree();
+		if (pFrom < pTo) {
+			int middle = (pFrom + pTo) >>> 1;
+			BSTNode<ContentType> newNode = new BSTNode<ContentType>(pSorted[middle],
+					build(pSorted, pFrom, middle), build(pSorted, middle + 1, pTo));
+			newNode.height = Math.max(height(newNode.left), height(newNode.right)) + 1;
+			updateAggregates(newNode);
+			tree.node = newNode;
 		}
+		return tree;
 	}
 
-	private BSTNode<ContentType> getNodeOfLeftSuccessor() {
-		return node.left.node;
+	/**
+	 * Berechnet die Anzahl der Objekte eines Knotens aus seinen Teilbaeumen
+	 * neu.
+	 * 
+	 * @param pNode
+	 *            der Knoten, dessen Teilbaeume aktuell sind
+	 */
+	void updateAggregates(BSTNode<ContentType> pNode) {
+		pNode.size = size(pNode.left) + size(pNode.right) + 1;
+	}
+
+	static int height(BinarySearchTree<?> pTree) {
+		return pTree.node == null ? 0 : pTree.node.height;
+	}
+
+	static int size(BinarySearchTree<?> pTree) {
+		return pTree.node == null ? 0 : pTree.node.size;
+	}
+
+	/**
+	 * Entfernt das Inhaltsobjekt der Wurzel dieses (nicht leeren) Baums.
+	 */
+	private void removeRoot() {
+		if (node.left.isEmpty()) {
+			// Es gibt hoechstens rechts einen Nachfolger.
+			node = node.right.node;
+		} else if (node.right.isEmpty()) {
+			// Es gibt nur links einen Nachfolger.
+			node = node.left.node;
+		} else {
+			// Es gibt links und rechts einen Nachfolger: der Inhalt wird durch
+			// den kleinsten Inhalt des rechten Teilbaums ersetzt, dessen Knoten
+			// keinen linken Nachfolger hat und daher einfach ausgehaengt wird.
+			// Jeder Teilbaum auf dem Weg zum kleinsten Inhalt verliert diesen.
+			BinarySearchTree<ContentType> smallest = node.right;
+			while (!smallest.node.left.isEmpty()) {
+				smallest = smallest.node.left;
+			}
+			for (BinarySearchTree<ContentType> tree = node.right; tree != smallest; tree = tree.node.left) {
+				tree.node.size--;
+			}
+			node.content = smallest.node.content;
+			smallest.node = smallest.node.right.node;
+		}
 	}
 
-	private BSTNode<ContentType> getNodeOfRightSuccessor() {
-		return node.right.node;
+	/* ----------- Spliterator fuer die In-Order Durchlaeufe -------------- */
+
+	/**
+	 * Spliterator, der einen Suchbaum in aufsteigender Reihenfolge ohne
+	 * Rekursion durchlaeuft. Die noch ausstehenden Teile des Durchlaufs liegen
+	 * der Reihe nach in einer Deque: ein BinarySearchTree steht fuer alle
+	 * Objekte dieses Teilbaums, ein BSTNode nur fuer sein Inhaltsobjekt. Beim
+	 * Aufteilen wird anhand der Teilbaumgroessen etwa die vordere Haelfte der
+	 * Objekte abgegeben; ein Teilbaum, der nicht mehr ganz hineinpasst, wird
+	 * dazu entlang eines Weges zerlegt, so dass auch ein entarteter Baum in
+	 * gleich grosse Teile zerfaellt.
+	 */
+	private static class InOrderSpliterator<CT extends ComparableContent<CT>> implements Spliterator<CT> {
+
+		private final ArrayDeque<Object> pending;
+		private final CT from, to;
+
+		InOrderSpliterator(ArrayDeque<Object> pPending, CT pFrom, CT pTo) {
+			pending = pPending;
+			from = pFrom;
+			to = pTo;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public boolean tryAdvance(Consumer<? super CT> action) {
+			Object item;
+			while ((item = pending.pollFirst()) != null) {
+				if (item instanceof BSTNode) {
+					action.accept(((BSTNode<CT>) item).content);
+					return true;
+				}
+				// Den linken Rand des Teilbaums ablegen, so dass das kleinste
+				// Objekt im Bereich vorne in der Deque liegt.
+				BinarySearchTree<CT> tree = (BinarySearchTree<CT>) item;
+				while (!tree.isEmpty()) {
+					BSTNode<CT> current = tree.node;
+					if (from != null && current.content.isLess(from)) {
+						tree = current.right;
+					} else if (to != null && current.content.isGreater(to)) {
+						tree = current.left;
+					} else {
+						pending.addFirst(current.right);
+						pending.addFirst(current);
+						tree = current.left;
+					}
+				}
+			}
+			return false;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public Spliterator<CT> trySplit() {
+			long half = estimateSize() / 2;
+			if (half == 0) {
+				return null;
+			}
+			long prefixSize = 0;
+			ArrayDeque<Object> prefix = new ArrayDeque<Object>();
+			// Ganze Elemente abgeben, solange sie in die vordere Haelfte passen.
+			while (!pending.isEmpty() && prefixSize + sizeOf(pending.peekFirst()) <= half) {
+				Object item = pending.pollFirst();
+				prefixSize += sizeOf(item);
+				prefix.addLast(item);
+			}
+			if (prefixSize < half && pending.peekFirst() instanceof BinarySearchTree) {
+				// Den naechsten, zu grossen Teilbaum entlang eines Weges
+				// aufteilen: alles links vom Weg kommt in den vorderen, alles
+				// rechts davon in den hinteren Teil. Teilbaeume ausserhalb des
+				// Bereichs werden uebersprungen.
+				BinarySearchTree<CT> tree = (BinarySearchTree<CT>) pending.pollFirst();
+				while (!tree.isEmpty() && prefixSize < half) {
+					BSTNode<CT> current = tree.node;
+					if (from != null && current.content.isLess(from)) {
+						tree = current.right;
+					} else if (to != null && current.content.isGreater(to)) {
+						tree = current.left;
+					} else if (prefixSize + size(current.left) < half) {
+						prefix.addLast(current.left);
+						prefix.addLast(current);
+						prefixSize += size(current.left) + 1;
+						tree = current.right;
+					} else {
+						pending.addFirst(current.right);
+						pending.addFirst(current);
+						tree = current.left;
+					}
+				}
+				if (!tree.isEmpty()) {
+					pending.addFirst(tree);
+				}
+			}
+			return prefix.isEmpty() ? null : new InOrderSpliterator<CT>(prefix, from, to);
+		}
+
+		/**
+		 * Liefert die Anzahl der noch ausstehenden Objekte. Ohne Bereichsgrenzen
+		 * ist sie exakt, sonst eine obere Schranke, da Teilbaeume ausserhalb
+		 * des Bereichs erst beim Durchlauf uebersprungen werden.
+		 */
+		@Override
+		public long estimateSize() {
+			long size = 0;
+			for (Object item : pending) {
+				size += sizeOf(item);
+			}
+			return size;
+		}
+
+		@Override
+		public int characteristics() {
+			int characteristics = ORDERED | SORTED | DISTINCT | NONNULL;
+			if (from == null && to == null) {
+				characteristics |= SIZED | SUBSIZED;
+			}
+			return characteristics;
+		}
+
+		private static long sizeOf(Object pItem) {
+			return pItem instanceof BSTNode ? 1 : size((BinarySearchTree<?>) pItem);
+		}
+
+		@Override
+		public Comparator<? super CT> getComparator() {
+			return (a, b) -> a.isLess(b) ? -1 : a.isGreater(b) ? 1 : 0;
+		}
 	}
 
 }
@@ -0,0 +1,408 @@
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Kompakte binaere Kodierung von 3x3 Spielbrettern, Partien, Raetseln und Antworten, um sie in grosser Zahl zu speichern
+ * oder auszutauschen. Jede Kodierung gibt es als Zahl, zum Schreiben in einen DataOutput bzw. Lesen aus einem DataInput und
+ * zum Schreiben in einen bzw. Lesen aus einem ByteBuffer.
+ * <ul>
+ *     <li>Spielbrett: Base-3 Index (Feld i zaehlt board[i] * 3^i), wie in SolutionTable, als short (2 Bytes)</li>
+ *     <li>Partie: die Folge der belegten Felder als Rang unter allen Zugfolgen ohne doppelte Felder, 3 Bytes</li>
+ *     <li>Raetsel: Eroeffnungsstellung, Spielbrett nach perfektem Spiel und Gewinner als int (4 Bytes)</li>
+ *     <li>Ausgang: Eroeffnungsstellung und Gewinner, wie sie PuzzleGenerator.generate liefert, als char (2 Bytes)</li>
+ *     <li>Antwort: answerCount, Antwort und ob sie richtig war als int (4 Bytes)</li>
+ * </ul>
+ */
+public final class BoardCodec {
+    /**
+     * Anzahl der moeglichen Kodierungen eines Spielbretts (3^9)
+     */
+    public static final int BOARD_CODES = 19683;
+
+    /**
+     * Anzahl der Bytes einer kodierten Partie
+     */
+    public static final int MOVES_BYTES = 3;
+
+    /**
+     * Anzahl der Bits eines kodierten Spielbretts in einem Raetsel
+     */
+    private static final int BOARD_BITS = 15;
+    private static final int BOARD_MASK = (1 << BOARD_BITS) - 1;
+
+    /**
+     * Die erste Kodierung der Zugfolgen jeder Laenge, an der letzten Stelle die Anzahl aller Zugfolgen (986410)
+     */
+    private static final int[] MOVES_OFFSETS = createMovesOffsets();
+
+    private BoardCodec() {
+    }
+
+    /**
+     * Kodiert ein Spielbrett als Base-3 Index
+     * @param board Das Spielbrett (0: frei; 1: X; 2: O)
+     * @return Der Base-3 Index (0 bis BOARD_CODES - 1)
+     */
+    public static short encode(int[] board) {
+        int code = 0;
+        for(int i = board.length - 1; i >= 0; i--) {
+            code = code * 3 + board[i];
+        }
+        return (short) code;
+    }
+
+    /**
+     * Dekodiert einen Base-3 Index in das uebergebene Spielbrett
+     * @param code Der Base-3 Index
+     * @param board Das zu fuellende Spielbrett
+     * @return Das uebergebene Spielbrett
+     */
+    public static int[] decode(int code, int[] board) {
+        if(code < 0 || code >= BOARD_CODES) {
+            throw new IllegalArgumentException("Invalid board code " + code);
+        }
+        for(int i = 0; i < board.length; i++) {
+            board[i] = code % 3;
+            code /= 3;
+        }
+        return board;
+    }
+
+    /**
+     * Dekodiert einen Base-3 Index in ein neues Spielbrett
+     * @param code Der Base-3 Index
+     * @return Das Spielbrett (0: frei; 1: X; 2: O)
+     */
+    public static int[] decode(int code) {
+        return decode(code, new int[9]);
+    }
+
+    /**
+     * Kodiert eine Zugfolge. Jeder Zug waehlt eines der noch freien Felder, die Folge ist daher eine Zahl mit den Stellen
+     * 9, 8, 7, ... und die Folgen aller Laengen passen zusammen in 20 Bits.
+     * @param moves Die belegten Felder in der Reihenfolge der Zuege
+     * @param count Die Anzahl der Zuege (0 bis 9)
+     * @return Die Kodierung der Zugfolge
+     */
+    public static int encodeMoves(int[] moves, int count) {
+        if(count < 0 || count > 9) {
+            throw new IllegalArgumentException("Invalid number of moves " + count);
+        }
+        int free = AI.FULL_BOARD;
+        int rank = 0;
+        for(int i = 0; i < count; i++) {
+            int move = 1 << moves[i];
+            if(moves[i] < 0 || moves[i] > 8 || (free & move) == 0) {
+                throw new IllegalArgumentException("Invalid move " + moves[i] + " at " + i);
+            }
+            rank = rank * (9 - i) + Integer.bitCount(free & move - 1);
+            free ^= move;
+        }
+        return MOVES_OFFSETS[count] + rank;
+    }
+
+    /**
+     * Dekodiert eine Zugfolge
+     * @param code Die Kodierung aus encodeMoves
+     * @param moves Die zu fuellenden Felder, mindestens so lang wie die Zugfolge
+     * @return Die Anzahl der Zuege
+     */
+    public static int decodeMoves(int code, int[] moves) {
+        if(code < 0 || code >= MOVES_OFFSETS[10]) {
+            throw new IllegalArgumentException("Invalid moves code " + code);
+        }
+        int count = 0;
+        while(code >= MOVES_OFFSETS[count + 1]) count++;
+        int rank = code - MOVES_OFFSETS[count];
+        for(int i = count - 1; i >= 0; i--) {
+            moves[i] = rank % (9 - i);
+            rank /= 9 - i;
+        }
+        // Die Stellen sind der Rang unter den jeweils noch freien Feldern
+        int free = AI.FULL_BOARD;
+        for(int i = 0; i < count; i++) {
+            int cell = free;
+            for(int skip = moves[i]; skip > 0; skip--) {
+                cell &= cell - 1;
+            }
+            moves[i] = Integer.numberOfTrailingZeros(cell);
+            free ^= cell & -cell;
+        }
+        return count;
+    }
+
+    /**
+     * Kodiert ein Raetsel. Der Spieler am Zug wird nicht gespeichert, sondern aus der Anzahl der Steine bestimmt
+     * (gleich viele: X, sonst O), so wie ihn PuzzleGenerator setzt.
+     * @param puzzle Das Raetsel
+     * @return Die Kodierung (Eroeffnungsstellung in Bit 0-14, Spielbrett nach perfektem Spiel in Bit 15-29, Gewinner in Bit 30-31)
+     */
+    public static int encodePuzzle(Puzzle puzzle) {
+        int[] board = puzzle.getBoard();
+        if(puzzle.getPlayerToMove() != playerToMove(board)) {
+            throw new IllegalArgumentException("Player to move does not match the board");
+        }
+        return encode(board) | encode(puzzle.getFinalBoard()) << BOARD_BITS | puzzle.getWinner() << 2 * BOARD_BITS;
+    }
+
+    /**
+     * Dekodiert ein Raetsel
+     * @param code Die Kodierung aus encodePuzzle
+     * @return Das Raetsel
+     */
+    public static Puzzle decodePuzzle(int code) {
+        int[] board = decode(code & BOARD_MASK);
+        return new Puzzle(board, playerToMove(board), code >>> 2 * BOARD_BITS, decode(code >>> BOARD_BITS & BOARD_MASK));
+    }
+
+    /**
+     * Kodiert eine Eroeffnungsstellung zusammen mit dem Gewinner bei perfektem Spiel
+     * @param position Die Eroeffnungsstellung als Base-3 Index
+     * @param winner Der Gewinner (0: Keiner; 1: X; 2: O)
+     * @return Die Kodierung (position * 3 + winner, passt in 16 Bits ohne Vorzeichen)
+     */
+    public static char encodeOutcome(int position, int winner) {
+        return (char) (position * 3 + winner);
+    }
+
+    /**
+     * Kodiert eine Antwort des Spielers
+     * @param answer Die Antwort (answerCount hoechstens 2^30 - 1)
+     * @return Die Kodierung (answerCount in Bit 2-31, richtig in Bit 1, Antwort in Bit 0)
+     */
+    public static int encodeAnswer(PlayerAnswer answer) {
+        if(answer.answerCount < 0 || answer.answerCount >= 1 << 30 || (answer.answer & ~1) != 0) {
+            throw new IllegalArgumentException("Answer cannot be encoded");
+        }
+        return answer.answerCount << 2 | (answer.correct ? 2 : 0) | answer.answer;
+    }
+
+    /**
+     * Dekodiert eine Antwort des Spielers
+     * @param code Die Kodierung aus encodeAnswer
+     * @return Die Antwort
+     */
+    public static PlayerAnswer decodeAnswer(int code) {
+        return new PlayerAnswer(code & 1, code >>> 2, (code & 2) != 0);
+    }
+
+    /**
+     * Schreibt ein Spielbrett mit 2 Bytes
+     * @param out Das Ziel
+     * @param board Das Spielbrett (0: frei; 1: X; 2: O)
+     * @throws IOException Wenn nicht geschrieben werden kann
+     */
+    public static void writeBoard(DataOutput out, int[] board) throws IOException {
+        out.writeShort(encode(board));
+    }
+
+    /**
+     * Liest ein mit writeBoard geschriebenes Spielbrett
+     * @param in Die Quelle
+     * @param board Das zu fuellende Spielbrett
+     * @return Das uebergebene Spielbrett
+     * @throws IOException Wenn nicht gelesen werden kann
+     */
+    public static int[] readBoard(DataInput in, int[] board) throws IOException {
+        return decode(in.readUnsignedShort(), board);
+    }
+
+    /**
+     * Schreibt eine Zugfolge mit MOVES_BYTES Bytes
+     * @param out Das Ziel
+     * @param moves Die belegten Felder in der Reihenfolge der Zuege
+     * @param count Die Anzahl der Zuege
+     * @throws IOException Wenn nicht geschrieben werden kann
+     */
+    public static void writeMoves(DataOutput out, int[] moves, int count) throws IOException {
+        int code = encodeMoves(moves, count);
+        out.writeByte(code >>> 16);
+        out.writeShort(code);
+    }
+
+    /**
+     * Liest eine mit writeMoves geschriebene Zugfolge
+     * @param in Die Quelle
+     * @param moves Die zu fuellenden Felder
+     * @return Die Anzahl der Zuege
+     * @throws IOException Wenn nicht gelesen werden kann
+     */
+    public static int readMoves(DataInput in, int[] moves) throws IOException {
+        int code = in.readUnsignedByte() << 16 | in.readUnsignedShort();
+        return decodeMoves(code, moves);
+    }
+
+    /**
+     * Schreibt ein Raetsel mit 4 Bytes
+     * @param out Das Ziel
+     * @param puzzle Das Raetsel
+     * @throws IOException Wenn nicht geschrieben werden kann
+     */
+    public static void writePuzzle(DataOutput out, Puzzle puzzle) throws IOException {
+        out.writeInt(encodePuzzle(puzzle));
+    }
+
+    /**
+     * Liest ein mit writePuzzle geschriebenes Raetsel
+     * @param in Die Quelle
+     * @return Das Raetsel
+     * @throws IOException Wenn nicht gelesen werden kann
+     */
+    public static Puzzle readPuzzle(DataInput in) throws IOException {
+        return decodePuzzle(in.readInt());
+    }
+
+    /**
+     * Schreibt eine Antwort mit 4 Bytes
+     * @param out Das Ziel
+     * @param answer Die Antwort
+     * @throws IOException Wenn nicht geschrieben werden kann
+     */
+    public static void writeAnswer(DataOutput out, PlayerAnswer answer) throws IOException {
+        out.writeInt(encodeAnswer(answer));
+    }
+
+    /**
+     * Liest eine mit writeAnswer geschriebene Antwort
+     * @param in Die Quelle
+     * @return Die Antwort
+     * @throws IOException Wenn nicht gelesen werden kann
+     */
+    public static PlayerAnswer readAnswer(DataInput in) throws IOException {
+        return decodeAnswer(in.readInt());
+    }
+
+    /**
+     * Schreibt count Ausgaenge, wie sie PuzzleGenerator.generate erzeugt, mit je 2 Bytes
+     * @param out Das Ziel
+     * @param positions Die Eroeffnungsstellungen als Base-3 Index
+     * @param winners Die Gewinner bei perfektem Spiel
+     * @param offset Der erste zu schreibende Index der Arrays
+     * @param count Die Anzahl der Ausgaenge
+     * @throws IOException Wenn nicht geschrieben werden kann
+     */
+    public static void writeOutcomes(DataOutput out, int[] positions, byte[] winners, int offset, int count) throws IOException {
+        for(int i = offset; i < offset + count; i++) {
+            out.writeChar(encodeOutcome(positions[i], winners[i]));
+        }
+    }
+
+    /**
+     * Liest count Ausgaenge, die mit writeOutcomes bzw. putOutcomes geschrieben wurden
+     * @param in Die Quelle
+     * @param positions Die Eroeffnungsstellungen als Base-3 Index
+     * @param winners Die Gewinner bei perfektem Spiel
+     * @param offset Der erste zu fuellende Index der Arrays
+     * @param count Die Anzahl der Ausgaenge
+     * @throws IOException Wenn nicht gelesen werden kann
+     */
+    public static void readOutcomes(DataInput in, int[] positions, byte[] winners, int offset, int count) throws IOException {
+        for(int i = offset; i < offset + count; i++) {
+            int code = in.readUnsignedShort();
+            positions[i] = code / 3;
+            winners[i] = (byte) (code % 3);
+        }
+    }
+
+    /**
+     * Schreibt ein Spielbrett mit 2 Bytes, siehe writeBoard
+     */
+    public static void putBoard(ByteBuffer buffer, int[] board) {
+        buffer.putShort(encode(board));
+    }
+
+    /**
+     * Liest ein Spielbrett mit 2 Bytes, siehe readBoard
+     */
+    public static int[] getBoard(ByteBuffer buffer, int[] board) {
+        return decode(Short.toUnsignedInt(buffer.getShort()), board);
+    }
+
+    /**
+     * Schreibt eine Zugfolge mit MOVES_BYTES Bytes, siehe writeMoves
+     */
+    public static void putMoves(ByteBuffer buffer, int[] moves, int count) {
+        int code = encodeMoves(moves, count);
+        buffer.put((byte) (code >>> 16));
+        buffer.putShort((short) code);
+    }
+
+    /**
+     * Liest eine Zugfolge mit MOVES_BYTES Bytes, siehe readMoves
+     */
+    public static int getMoves(ByteBuffer buffer, int[] moves) {
+        int code = Byte.toUnsignedInt(buffer.get()) << 16 | Short.toUnsignedInt(buffer.getShort());
+        return decodeMoves(code, moves);
+    }
+
+    /**
+     * Schreibt ein Raetsel mit 4 Bytes, siehe writePuzzle
+     */
+    public static void putPuzzle(ByteBuffer buffer, Puzzle puzzle) {
+        buffer.putInt(encodePuzzle(puzzle));
+    }
+
+    /**
+     * Liest ein Raetsel mit 4 Bytes, siehe readPuzzle
+     */
+    public static Puzzle getPuzzle(ByteBuffer buffer) {
+        return decodePuzzle(buffer.getInt());
+    }
+
+    /**
+     * Schreibt eine Antwort mit 4 Bytes, siehe writeAnswer
+     */
+    public static void putAnswer(ByteBuffer buffer, PlayerAnswer answer) {
+        buffer.putInt(encodeAnswer(answer));
+    }
+
+    /**
+     * Liest eine Antwort mit 4 Bytes, siehe readAnswer
+     */
+    public static PlayerAnswer getAnswer(ByteBuffer buffer) {
+        return decodeAnswer(buffer.getInt());
+    }
+
+    /**
+     * Schreibt count Ausgaenge mit je 2 Bytes, siehe writeOutcomes
+     */
+    public static void putOutcomes(ByteBuffer buffer, int[] positions, byte[] winners, int offset, int count) {
+        for(int i = offset; i < offset + count; i++) {
+            buffer.putChar(encodeOutcome(positions[i], winners[i]));
+        }
+    }
+
+    /**
+     * Liest count Ausgaenge mit je 2 Bytes, siehe readOutcomes
+     */
+    public static void getOutcomes(ByteBuffer buffer, int[] positions, byte[] winners, int offset, int count) {
+        for(int i = offset; i < offset + count; i++) {
+            int code = buffer.getChar();
+            positions[i] = code / 3;
+            winners[i] = (byte) (code % 3);
+        }
+    }
+
+    /**
+     * Bestimmt den Spieler am Zug aus der Anzahl der Steine
+     */
+    private static int playerToMove(int[] board) {
+        int pieces = 0;
+        for(int cell : board) {
+            pieces += cell == 1 ? 1 : cell == 2 ? -1 : 0;
+        }
+        return pieces == 0 ? 1 : 2;
+    }
+
+    private static int[] createMovesOffsets() {
+        int[] offsets = new int[11];
+        int sequences = 1;
+        for(int count = 0; count <= 9; count++) {
+            offsets[count + 1] = offsets[count] + sequences;
+            sequences *= 9 - count;
+        }
+        return offsets;
+    }
+}
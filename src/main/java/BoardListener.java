@@ -0,0 +1,15 @@
+/**
+ * Beobachter eines BoardModel. Er wird fuer jedes Feld benachrichtigt, dessen Inhalt sich tatsaechlich geaendert hat,
+ * unveraenderte Felder loesen keine Benachrichtigung aus.
+ */
+@FunctionalInterface
+public interface BoardListener {
+
+    /**
+     * Wird nach einer Aenderung des Spielbretts fuer jedes geaenderte Feld aufgerufen. Das Spielbrett hat zu diesem Zeitpunkt
+     * bereits seinen neuen Zustand.
+     * @param cell Der Index des Feldes (y * width + x)
+     * @param value Der neue Inhalt (0: frei; 1: X; 2: O)
+     */
+    void cellChanged(int cell, int value);
+}
@@ -0,0 +1,206 @@
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Das Spielbrett als einzige Quelle fuer den Zustand des Spiels. Die Felder beider Spieler werden als Bitmasken gehalten
+ * (ein Bit je Feld, Index y * width + x), sodass auch groessere Spielbretter kompakt bleiben. Jede Aenderung wird mit dem
+ * bisherigen Zustand verglichen und nur fuer die tatsaechlich geaenderten Felder an die BoardListener gemeldet; eine
+ * Oberflaeche muss daher nie alle Felder neu zeichnen.
+ * Die Klasse ist nicht threadsicher, TicTacToeDecider benutzt sie nur auf dem Event Dispatch Thread (auch beim Start, da main
+ * das Spiel mit SwingUtilities.invokeLater erstellt).
+ */
+public class BoardModel {
+    /**
+     * Breite des Spielbretts
+     */
+    private final int width;
+    /**
+     * Hoehe des Spielbretts
+     */
+    private final int height;
+    /**
+     * Die Felder von X, 64 Felder je long
+     */
+    private final long[] xBits;
+    /**
+     * Die Felder von O, 64 Felder je long
+     */
+    private final long[] oBits;
+    /**
+     * Die bei der letzten Aenderung geaenderten Felder, wiederverwendet fuer jede Aenderung
+     */
+    private final long[] changed;
+    /**
+     * Die Beobachter
+     */
+    private final List<BoardListener> listeners = new ArrayList<>();
+
+    /**
+     * Erstellt ein leeres Spielbrett der uebergebenen Groesse
+     * @param width Die Breite des Spielbretts
+     * @param height Die Hoehe des Spielbretts
+     */
+    public BoardModel(int width, int height) {
+        if(width < 1 || height < 1) {
+            throw new IllegalArgumentException("Invalid board " + width + "x" + height);
+        }
+        this.width = width;
+        this.height = height;
+        int words = (width * height + 63) / 64;
+        xBits = new long[words];
+        oBits = new long[words];
+        changed = new long[words];
+    }
+
+    /**
+     * Meldet einen Beobachter an
+     * @param listener Der Beobachter
+     */
+    public void addListener(BoardListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Meldet einen Beobachter ab
+     * @param listener Der Beobachter
+     */
+    public void removeListener(BoardListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Liefert den Inhalt eines Feldes
+     * @param cell Der Index des Feldes
+     * @return Der Inhalt (0: frei; 1: X; 2: O)
+     */
+    public int get(int cell) {
+        checkCell(cell);
+        long bit = 1L << cell;
+        if((xBits[cell >>> 6] & bit) != 0) return 1;
+        if((oBits[cell >>> 6] & bit) != 0) return 2;
+        return 0;
+    }
+
+    /**
+     * Setzt den Inhalt eines Feldes
+     * @param cell Der Index des Feldes
+     * @param value Der neue Inhalt (0: frei; 1: X; 2: O)
+     */
+    public void set(int cell, int value) {
+        checkCell(cell);
+        checkValue(value);
+        if(get(cell) == value) return;
+        long bit = 1L << cell;
+        int word = cell >>> 6;
+        xBits[word] = value == 1 ? xBits[word] | bit : xBits[word] & ~bit;
+        oBits[word] = value == 2 ? oBits[word] | bit : oBits[word] & ~bit;
+        for(BoardListener listener : listeners) {
+            listener.cellChanged(cell, value);
+        }
+    }
+
+    /**
+     * Uebernimmt ein komplettes Spielbrett. Benachrichtigt wird nur fuer die Felder, die sich dabei aendern.
+     * @param board Das Spielbrett als flaches Array mit width * height Feldern (0: frei; 1: X; 2: O)
+     */
+    public void setAll(int[] board) {
+        if(board.length != size()) {
+            throw new IllegalArgumentException("Board has " + board.length + " cells, expected " + size());
+        }
+        for(int word = 0; word < xBits.length; word++) {
+            long x = 0;
+            long o = 0;
+            for(int cell = word << 6, end = Math.min(board.length, cell + 64); cell < end; cell++) {
+                checkValue(board[cell]);
+                if(board[cell] == 1) x |= 1L << cell;
+                else if(board[cell] == 2) o |= 1L << cell;
+            }
+            changed[word] = (xBits[word] ^ x) | (oBits[word] ^ o);
+            xBits[word] = x;
+            oBits[word] = o;
+        }
+        fireChanged();
+    }
+
+    /**
+     * Leert alle Felder. Benachrichtigt wird nur fuer die bisher belegten Felder.
+     */
+    public void clear() {
+        for(int word = 0; word < xBits.length; word++) {
+            changed[word] = xBits[word] | oBits[word];
+            xBits[word] = 0;
+            oBits[word] = 0;
+        }
+        fireChanged();
+    }
+
+    /**
+     * Schreibt das Spielbrett in ein flaches Array
+     * @param board Das Array mit width * height Feldern
+     * @return Das uebergebene Array (0: frei; 1: X; 2: O)
+     */
+    public int[] toArray(int[] board) {
+        for(int cell = 0; cell < board.length; cell++) {
+            long bit = 1L << cell;
+            board[cell] = (xBits[cell >>> 6] & bit) != 0 ? 1 : (oBits[cell >>> 6] & bit) != 0 ? 2 : 0;
+        }
+        return board;
+    }
+
+    /**
+     * Liefert das Spielbrett als neues flaches Array
+     * @return Das Spielbrett (0: frei; 1: X; 2: O)
+     */
+    public int[] toArray() {
+        return toArray(new int[size()]);
+    }
+
+    /**
+     * @return Die Breite des Spielbretts
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * @return Die Hoehe des Spielbretts
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * @return Die Anzahl der Felder
+     */
+    public int size() {
+        return width * height;
+    }
+
+    /**
+     * Benachrichtigt die Beobachter fuer alle Felder in changed
+     */
+    private void fireChanged() {
+        if(listeners.isEmpty()) return;
+        for(int word = 0; word < changed.length; word++) {
+            for(long bits = changed[word]; bits != 0; bits &= bits - 1) {
+                int cell = word << 6 | Long.numberOfTrailingZeros(bits);
+                int value = get(cell);
+                for(BoardListener listener : listeners) {
+                    listener.cellChanged(cell, value);
+                }
+            }
+        }
+    }
+
+    private void checkCell(int cell) {
+        if(cell < 0 || cell >= size()) {
+            throw new IndexOutOfBoundsException("Cell " + cell + " outside of " + width + "x" + height + " board");
+        }
+    }
+
+    private static void checkValue(int value) {
+        if(value < 0 || value > 2) {
+            throw new IllegalArgumentException("Invalid cell value " + value);
+        }
+    }
+}
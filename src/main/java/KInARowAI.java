@@ -0,0 +1,610 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * K.I. fuer verallgemeinerte Tic Tac Toe Varianten auf einem Spielbrett mit beliebiger Breite und Hoehe,
+ * bei denen K Steine in einer Reihe (waagerecht, senkrecht oder diagonal) gewinnen, z.B. 4x4, 5x5 oder 7x7 Gomoku Varianten.
+ * Da eine vollstaendige MinMax Suche auf diesen Spielbrettern nicht durchfuehrbar ist, sucht die K.I. nur bis zu einer
+ * festgelegten Tiefe und bewertet die erreichten Stellungen heuristisch anhand der noch offenen Gewinnreihen.
+ * Das Spielbrett wird wie bei der Klasse AI als flaches Array uebergeben (Index y * width + x; 0: frei; 1: X; 2: O).
+ * Eine K.I., die ihren Thread Pool selbst erstellt hat, muss mit close beendet werden, damit dessen Threads enden.
+ * Ist die Instrumentierung eingeschaltet, zaehlt jede Suche ihre Knoten und Abschnitte in Metrics (kInARowAI.nodes,
+ * kInARowAI.cutoffs) und wird als Phase kInARowAI.search gemessen; Zuege aus der Tablebase zaehlen als kInARowAI.tablebaseHits.
+ */
+public class KInARowAI implements AutoCloseable {
+
+    /**
+     * Evaluierungswert eines gewonnenen Spiels, die Heuristik bleibt immer deutlich darunter
+     */
+    static final int WIN_SCORE = 1_000_000_000;
+
+    /**
+     * Obergrenze fuer den heuristischen Wert einer einzelnen Gewinnreihe
+     */
+    private static final int MAX_WINDOW_SCORE = 1 << 20;
+
+    /**
+     * Die vier Richtungen einer Reihe: waagerecht, senkrecht und die beiden Diagonalen
+     */
+    private static final int[][] DIRECTIONS = {{1, 0}, {0, 1}, {1, 1}, {1, -1}};
+
+    /**
+     * Die Staerke der K.I.
+     */
+    private final double strength;
+    /**
+     * Breite des Spielbretts
+     */
+    private final int width;
+    /**
+     * Hoehe des Spielbretts
+     */
+    private final int height;
+    /**
+     * Anzahl der Steine in einer Reihe, die zum Gewinn benoetigt werden
+     */
+    private final int k;
+    /**
+     * Die maximale Suchtiefe in Halbzuegen
+     */
+    private final int maxDepth;
+    /**
+     * Alle Gewinnreihen des Spielbretts, jeweils als Liste der K Feldindizes
+     */
+    private final int[][] windows;
+    /**
+     * Heuristischer Wert einer Gewinnreihe mit n eigenen und keinen gegnerischen Steinen
+     */
+    private final int[] windowScores;
+    /**
+     * Der Thread Pool fuer die parallele Suche (null: sequentielle Suche)
+     */
+    private final ForkJoinPool pool;
+    /**
+     * Ob pool von dieser K.I. erstellt wurde und von close beendet wird
+     */
+    private final boolean ownsPool;
+    /**
+     * Die Zufallsquelle fuer die zufaelligen Zuege, wie bei AI eine eigene Quelle je Objekt. Sie wird nur unter ihrer eigenen
+     * Sperre benutzt, damit doMove von mehreren Threads gleichzeitig aufgerufen werden kann.
+     */
+    private final SplittableRandom random;
+    /**
+     * Die Tablebase, aus der die Zuege gelesen werden (null: immer suchen)
+     */
+    private volatile Tablebase tablebase;
+
+    /**
+     * Konstruktormethode zum Erstellen einer K.I. fuer ein Spielbrett der uebergebenen Groesse
+     * @param strength Die Faehigkeitsstufe der K.I. (0: random; 1: staerkste Suche)
+     * @param width Die Breite des Spielbretts
+     * @param height Die Hoehe des Spielbretts
+     * @param k Die Anzahl der Steine in einer Reihe, die zum Gewinn benoetigt werden
+     * @param maxDepth Die maximale Suchtiefe in Halbzuegen (mindestens 1)
+     */
+    public KInARowAI(double strength, int width, int height, int k, int maxDepth) {
+        this(strength, width, height, k, maxDepth, null, 1, new SplittableRandom());
+    }
+
+    /**
+     * Konstruktormethode zum Erstellen einer K.I., deren Suche die Zuege an der Wurzel auf einen eigenen Thread Pool
+     * mit der uebergebenen Anzahl an Threads verteilt. Der Pool gehoert der K.I. und wird mit close beendet.
+     * @param strength Die Faehigkeitsstufe der K.I. (0: random; 1: staerkste Suche)
+     * @param width Die Breite des Spielbretts
+     * @param height Die Hoehe des Spielbretts
+     * @param k Die Anzahl der Steine in einer Reihe, die zum Gewinn benoetigt werden
+     * @param maxDepth Die maximale Suchtiefe in Halbzuegen (mindestens 1)
+     * @param parallelism Die Anzahl der Threads (1: sequentielle Suche)
+     */
+    public KInARowAI(double strength, int width, int height, int k, int maxDepth, int parallelism) {
+        this(strength, width, height, k, maxDepth, null, parallelism, new SplittableRandom());
+    }
+
+    /**
+     * Konstruktormethode zum Erstellen einer K.I., deren Suche die Zuege an der Wurzel auf den uebergebenen Thread Pool verteilt.
+     * Die parallele Suche liefert immer denselben Zug wie die sequentielle Suche. Der Pool gehoert weiterhin dem Aufrufer,
+     * close beendet ihn nicht.
+     * @param strength Die Faehigkeitsstufe der K.I. (0: random; 1: staerkste Suche)
+     * @param width Die Breite des Spielbretts
+     * @param height Die Hoehe des Spielbretts
+     * @param k Die Anzahl der Steine in einer Reihe, die zum Gewinn benoetigt werden
+     * @param maxDepth Die maximale Suchtiefe in Halbzuegen (mindestens 1)
+     * @param pool Der Thread Pool fuer die Suche (null: sequentielle Suche)
+     */
+    public KInARowAI(double strength, int width, int height, int k, int maxDepth, ForkJoinPool pool) {
+        this(strength, width, height, k, maxDepth, pool, 1, new SplittableRandom());
+    }
+
+    /**
+     * Konstruktormethode zum Erstellen einer K.I., deren zufaellige Zuege sich mit demselben Startwert wiederholen lassen,
+     * solange doMove in derselben Reihenfolge aufgerufen wird. Die Suche selbst ist auch parallel deterministisch.
+     * @param strength Die Faehigkeitsstufe der K.I. (0: random; 1: staerkste Suche)
+     * @param width Die Breite des Spielbretts
+     * @param height Die Hoehe des Spielbretts
+     * @param k Die Anzahl der Steine in einer Reihe, die zum Gewinn benoetigt werden
+     * @param maxDepth Die maximale Suchtiefe in Halbzuegen (mindestens 1)
+     * @param pool Der Thread Pool fuer die Suche (null: sequentielle Suche), er gehoert weiterhin dem Aufrufer
+     * @param seed Der Startwert der Zufallsquelle
+     */
+    public KInARowAI(double strength, int width, int height, int k, int maxDepth, ForkJoinPool pool, long seed) {
+        this(strength, width, height, k, maxDepth, pool, 1, new SplittableRandom(seed));
+    }
+
+    /**
+     * Erstellt die K.I. mit dem uebergebenen Pool bzw., wenn keiner uebergeben wird und parallelism groesser als 1 ist,
+     * mit einem eigenen Pool. Der eigene Pool wird erst nach der Pruefung der Parameter erstellt.
+     */
+    private KInARowAI(double strength, int width, int height, int k, int maxDepth, ForkJoinPool pool, int parallelism,
+                      SplittableRandom random) {
+        if(width < 1 || height < 1 || k < 1 || k > Math.max(width, height)) {
+            throw new IllegalArgumentException("Invalid board " + width + "x" + height + " with k=" + k);
+        }
+        if(maxDepth < 1) {
+            throw new IllegalArgumentException("maxDepth must be at least 1");
+        }
+        this.strength = strength;
+        this.width = width;
+        this.height = height;
+        this.k = k;
+        this.maxDepth = maxDepth;
+        this.random = random;
+        this.ownsPool = pool == null && parallelism > 1;
+        this.pool = ownsPool ? new ForkJoinPool(parallelism) : pool;
+        this.windows = createWindows(width, height, k);
+
+        windowScores = new int[k + 1];
+        int score = 1;
+        for(int n = 1; n <= k; n++) {
+            windowScores[n] = score;
+            score = Math.min(score * 8, MAX_WINDOW_SCORE);
+        }
+    }
+
+    /**
+     * Setzt die Tablebase, aus der die K.I. ihre Zuege liest, statt zu suchen. Damit spielt sie perfekt, sofern sie nicht
+     * wegen der Staerke zufaellig zieht. Stellungen, die die Tablebase nicht beantworten kann, werden weiterhin durchsucht.
+     * @param tablebase Die Tablebase fuer dieses Spielbrett (null: immer suchen)
+     */
+    public void setTablebase(Tablebase tablebase) {
+        if(tablebase != null && (tablebase.getWidth() != width || tablebase.getHeight() != height || tablebase.getK() != k)) {
+            throw new IllegalArgumentException("Tablebase is for " + tablebase.getWidth() + "x" + tablebase.getHeight()
+                    + " with k=" + tablebase.getK());
+        }
+        this.tablebase = tablebase;
+    }
+
+    /**
+     * Beendet den Thread Pool, wenn die K.I. ihn selbst erstellt hat; ein uebergebener Pool bleibt unberuehrt.
+     * Laufende Suchen werden noch zu Ende gefuehrt, danach darf doMove nicht mehr aufgerufen werden.
+     */
+    @Override
+    public void close() {
+        if(ownsPool) pool.shutdown();
+    }
+
+    /**
+     * Die Methode bestimmt den besten gefundenen Spielzug fuer den uebergebenen Spieler
+     * @param board Das aktuelle Spielfeld als flaches Array (0: frei; 1: X; 2: O)
+     * @param player Der Spieler der aktuell am Zug ist (1: X; 2: O)
+     * @return int gibt den Index des besten Zuges im Array zurueck
+     */
+    public int doMove(int[] board, int player) {
+        if(strength != 1) {
+            synchronized(random) {
+                if(random.nextDouble() >= strength) {
+                    int emptyCells = 0;
+                    for (int cell : board) {
+                        if (cell == 0) emptyCells++;
+                    }
+                    int j = random.nextInt(emptyCells);
+                    for(int i = 0; i < board.length; i++) {
+                        if(board[i] == 0) {
+                            if(j == 0) return i;
+                            else j--;
+                        }
+                    }
+                }
+            }
+        }
+
+        Tablebase tablebase = this.tablebase;
+        if(tablebase != null) {
+            int move = tablebase.bestMove(board, player);
+            if(move >= 0) {
+                Metrics.count("kInARowAI.tablebaseHits", 1);
+                return move;
+            }
+        }
+
+        int empty = countEmpty(board);
+        int[] moves = generateMoves(board, empty);
+        if(moves.length == 0) return 0;
+        // Die Suche prueft nur die Reihen durch den letzten Zug. Hat schon das uebergebene Spielbrett einen Gewinner,
+        // endet das Spiel nach jedem Zug; der Gewinner wird dann wie bisher mit allen Gewinnreihen bestimmt.
+        if(checkForWinner(board) != 0) return firstWinningMove(board, player, moves);
+
+        long start = Metrics.start();
+        SearchStats stats = new SearchStats();
+        int bestMove = pool != null && moves.length > 1
+                ? doParallelMove(board, player, moves, empty, stats)
+                : doSequentialMove(board, player, moves, empty, stats);
+        if(start != 0) {
+            Metrics.phase("kInARowAI.search", start);
+            Metrics.count("kInARowAI.nodes", stats.nodes);
+            Metrics.count("kInARowAI.cutoffs", stats.cutoffs);
+        }
+        return bestMove;
+    }
+
+    /**
+     * Durchsucht die Zuege an der Wurzel nacheinander
+     * @param board Das aktuelle Spielbrett
+     * @param player Der Spieler der aktuell am Zug ist
+     * @param moves Die zu untersuchenden Zuege in aufsteigender Reihenfolge
+     * @param empty Die Anzahl der freien Felder
+     * @param stats Die Zaehler der Suche
+     * @return Der Index des besten Zuges
+     */
+    private int doSequentialMove(int[] board, int player, int[] moves, int empty, SearchStats stats) {
+        int bestMove = moves[0];
+        int alpha = -WIN_SCORE - 1;
+        for(int move : moves) {
+            board[move] = player;
+            int score = -negamax(board, player % 2 + 1, 1, -WIN_SCORE - 1, -alpha, move, empty - 1, stats);
+            board[move] = 0;
+            if(score > alpha) {
+                alpha = score;
+                bestMove = move;
+            }
+        }
+        return bestMove;
+    }
+
+    /**
+     * Waehlt auf einem Spielbrett, das schon einen Gewinner hat, den ersten Zug, nach dem der Spieler als Gewinner gilt,
+     * bzw. den ersten Zug, wenn es keinen solchen gibt
+     * @param board Das Spielbrett, es wird nach der Methode unveraendert zurueckgegeben
+     * @param player Der Spieler der aktuell am Zug ist
+     * @param moves Die moeglichen Zuege in aufsteigender Reihenfolge
+     * @return Der Index des gewaehlten Zuges
+     */
+    private int firstWinningMove(int[] board, int player, int[] moves) {
+        for(int move : moves) {
+            board[move] = player;
+            int winner = checkForWinner(board);
+            board[move] = 0;
+            if(winner == player) return move;
+        }
+        return moves[0];
+    }
+
+    /**
+     * Verteilt die Zuege an der Wurzel auf den Thread Pool. Der erste Zug wird allein durchsucht, um eine Schranke zu erhalten
+     * (young brothers wait), danach werden die uebrigen Zuege parallel durchsucht. Jede Teilsuche startet mit der besten bisher
+     * von irgendeiner Teilsuche gefundenen Schranke, damit Alpha-Beta weiterhin abschneiden kann.
+     * Die Schranke wird um 1 verringert, sodass gleich gute Zuege exakt bewertet werden und wie bei der sequentiellen Suche
+     * der erste der besten Zuege gewaehlt wird.
+     * @param board Das aktuelle Spielbrett
+     * @param player Der Spieler der aktuell am Zug ist
+     * @param moves Die zu untersuchenden Zuege in aufsteigender Reihenfolge
+     * @param empty Die Anzahl der freien Felder
+     * @param stats Die Zaehler der Suche, jede Teilsuche zaehlt zunaechst fuer sich
+     * @return Der Index des besten Zuges
+     */
+    private int doParallelMove(int[] board, int player, int[] moves, int empty, SearchStats stats) {
+        AtomicInteger sharedAlpha = new AtomicInteger(-WIN_SCORE - 1);
+        int[] scores = new int[moves.length];
+        RootMoveTask first = new RootMoveTask(board, player, moves[0], empty, sharedAlpha);
+        scores[0] = first.compute();
+        stats.add(first.stats);
+
+        List<RootMoveTask> tasks = new ArrayList<>();
+        for(int i = 1; i < moves.length; i++) {
+            tasks.add(new RootMoveTask(board, player, moves[i], empty, sharedAlpha));
+        }
+        pool.invoke(new RecursiveTask<Void>() {
+            @Override
+            protected Void compute() {
+                invokeAll(tasks);
+                return null;
+            }
+        });
+
+        int bestMove = moves[0];
+        int bestMoveScore = scores[0];
+        for(int i = 1; i < moves.length; i++) {
+            RootMoveTask task = tasks.get(i - 1);
+            int score = task.join();
+            stats.add(task.stats);
+            if(score > bestMoveScore) {
+                bestMoveScore = score;
+                bestMove = moves[i];
+            }
+        }
+        return bestMove;
+    }
+
+    /**
+     * Teilsuche der parallelen Suche fuer einen einzelnen Zug an der Wurzel. Jede Teilsuche arbeitet auf einer eigenen Kopie des Spielbretts.
+     */
+    private class RootMoveTask extends RecursiveTask<Integer> {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] board;
+        private final int player;
+        private final int move;
+        private final int empty;
+        private final AtomicInteger sharedAlpha;
+        private final SearchStats stats = new SearchStats();
+
+        RootMoveTask(int[] board, int player, int move, int empty, AtomicInteger sharedAlpha) {
+            this.board = board.clone();
+            this.player = player;
+            this.move = move;
+            this.empty = empty;
+            this.sharedAlpha = sharedAlpha;
+        }
+
+        @Override
+        protected Integer compute() {
+            board[move] = player;
+            int alpha = Math.max(sharedAlpha.get() - 1, -WIN_SCORE - 1);
+            int score = -negamax(board, player % 2 + 1, 1, -WIN_SCORE - 1, -alpha, move, empty - 1, stats);
+            sharedAlpha.accumulateAndGet(score, Math::max);
+            return score;
+        }
+    }
+
+    /**
+     * Die Zaehler einer Suche bzw. Teilsuche. Jede Teilsuche zaehlt in ihr eigenes Objekt, damit die Threads sich nicht
+     * gegenseitig ausbremsen; nach dem join werden die Zaehler zusammengezaehlt.
+     */
+    private static final class SearchStats {
+        long nodes;
+        long cutoffs;
+
+        void add(SearchStats other) {
+            nodes += other.nodes;
+            cutoffs += other.cutoffs;
+        }
+    }
+
+    /**
+     * Alpha-Beta Suche in Negamax Form: der Evaluierungswert ist immer aus Sicht des Spielers am Zug.
+     * Nach maxDepth Halbzuegen wird die Stellung heuristisch bewertet.
+     * @param board Das Spielbrett
+     * @param player Der Spieler der am Zug ist
+     * @param depth Die Tiefe des Spielbaums bzw. der Rekursionsstufe
+     * @param alpha Der Wert, den der Spieler am Zug bereits sicher erreichen kann
+     * @param beta Der Wert, den der Gegner bereits sicher erreichen kann
+     * @param lastMove Das Feld, auf das der Gegner zuletzt gesetzt hat; nur die Reihen durch dieses Feld werden auf einen Gewinn geprueft
+     * @param empty Die Anzahl der freien Felder
+     * @param stats Die Zaehler der Suche
+     * @return Der Evaluierungswert der Stellung aus Sicht des Spielers am Zug
+     */
+    private int negamax(int[] board, int player, int depth, int alpha, int beta, int lastMove, int empty, SearchStats stats) {
+        stats.nodes++;
+        if(completesRow(board, lastMove)) {
+            // Der Gegner des Spielers am Zug hat mit dem letzten Zug gewonnen
+            return -(WIN_SCORE - depth);
+        }
+        if(depth >= maxDepth) return evaluate(board, player);
+        if(empty == 0) return 0;
+
+        int[] moves = generateMoves(board, empty);
+
+        int bestMoveScore = -WIN_SCORE - 1;
+        for(int move : moves) {
+            board[move] = player;
+            int score = -negamax(board, player % 2 + 1, depth + 1, -beta, -Math.max(alpha, bestMoveScore), move, empty - 1,
+                    stats);
+            board[move] = 0;
+            if(score > bestMoveScore) {
+                bestMoveScore = score;
+                if(bestMoveScore >= beta) {
+                    stats.cutoffs++;
+                    break;
+                }
+            }
+        }
+        return bestMoveScore;
+    }
+
+    /**
+     * Heuristische Bewertung einer Stellung. Jede Gewinnreihe, in der nur ein Spieler Steine hat, zaehlt fuer diesen Spieler,
+     * und zwar umso mehr, je mehr Steine er darin schon hat. Gewinnreihen mit Steinen beider Spieler zaehlen nicht.
+     * @param board Das Spielbrett
+     * @param player Der Spieler aus dessen Sicht bewertet wird
+     * @return Der heuristische Evaluierungswert
+     */
+    int evaluate(int[] board, int player) {
+        long score = 0;
+        for(int[] window : windows) {
+            int xCount = 0;
+            int oCount = 0;
+            for(int cell : window) {
+                if(board[cell] == 1) xCount++;
+                else if(board[cell] == 2) oCount++;
+            }
+            if(oCount == 0) score += windowScores[xCount];
+            else if(xCount == 0) score -= windowScores[oCount];
+        }
+        int clamped = (int) Math.max(-WIN_SCORE / 2, Math.min(WIN_SCORE / 2, score));
+        return player == 1 ? clamped : -clamped;
+    }
+
+    /**
+     * Bestimmt die zu untersuchenden Zuege. Auf einem leeren Spielbrett ist das nur das mittlere Feld,
+     * sonst alle freien Felder, die an ein belegtes Feld angrenzen, da entfernte Felder weder Reihen bilden noch blockieren.
+     * Auf einem nicht leeren Spielbrett mit freien Feldern gibt es immer mindestens einen solchen Zug.
+     * @param board Das Spielbrett
+     * @param empty Die Anzahl der freien Felder
+     * @return Die Indizes der zu untersuchenden Felder in aufsteigender Reihenfolge
+     */
+    private int[] generateMoves(int[] board, int empty) {
+        if(empty == 0) return new int[0];
+        if(empty == board.length) return new int[] {(height / 2) * width + width / 2};
+        int[] moves = new int[empty];
+        int count = 0;
+        for(int i = 0; i < board.length; i++) {
+            if(board[i] == 0 && hasNeighbour(board, i)) {
+                moves[count++] = i;
+            }
+        }
+        int[] result = new int[count];
+        System.arraycopy(moves, 0, result, 0, count);
+        return result;
+    }
+
+    /**
+     * Ueberprueft, ob eines der bis zu 8 Nachbarfelder belegt ist
+     * @param board Das Spielbrett
+     * @param cell Das zu pruefende Feld
+     * @return true, wenn mindestens ein Nachbarfeld belegt ist
+     */
+    private boolean hasNeighbour(int[] board, int cell) {
+        int x = cell % width;
+        int y = cell / width;
+        for(int dy = -1; dy <= 1; dy++) {
+            for(int dx = -1; dx <= 1; dx++) {
+                int nx = x + dx;
+                int ny = y + dy;
+                if((dx != 0 || dy != 0) && nx >= 0 && nx < width && ny >= 0 && ny < height
+                        && board[ny * width + nx] != 0) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Ueberprueft, ob der Stein auf dem Feld cell Teil einer Reihe von mindestens K Steinen desselben Spielers ist.
+     * Dafuer werden nur die vier Reihen durch das Feld geprueft, statt alle Gewinnreihen des Spielbretts.
+     * @param board Das Spielbrett
+     * @param cell Das zuletzt belegte Feld
+     * @return true, wenn der Spieler auf dem Feld cell damit gewonnen hat
+     */
+    private boolean completesRow(int[] board, int cell) {
+        int player = board[cell];
+        int x = cell % width;
+        int y = cell / width;
+        for(int[] direction : DIRECTIONS) {
+            int count = 1 + countStones(board, player, x, y, direction[0], direction[1])
+                    + countStones(board, player, x, y, -direction[0], -direction[1]);
+            if(count >= k) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Zaehlt die Steine des Spielers, die vom Feld (x, y) aus in der uebergebenen Richtung direkt aufeinander folgen
+     * (hoechstens k - 1)
+     * @param board Das Spielbrett
+     * @param player Der Spieler
+     * @param x Die Spalte des Ausgangsfelds
+     * @param y Die Zeile des Ausgangsfelds
+     * @param dx Die Richtung in x
+     * @param dy Die Richtung in y
+     * @return Die Anzahl der Steine, ohne das Ausgangsfeld
+     */
+    private int countStones(int[] board, int player, int x, int y, int dx, int dy) {
+        int count = 0;
+        int nx = x + dx;
+        int ny = y + dy;
+        while(count < k - 1 && nx >= 0 && nx < width && ny >= 0 && ny < height && board[ny * width + nx] == player) {
+            count++;
+            nx += dx;
+            ny += dy;
+        }
+        return count;
+    }
+
+    /**
+     * Zaehlt die freien Felder
+     * @param board Das Spielbrett
+     * @return Die Anzahl der freien Felder
+     */
+    private static int countEmpty(int[] board) {
+        int empty = 0;
+        for(int cell : board) {
+            if(cell == 0) empty++;
+        }
+        return empty;
+    }
+
+    /**
+     * Die Methode ueberprueft, ob ein Spieler auf dem uebergebenden Spielbrett bereits K Steine in einer Reihe hat
+     * @param board Das aktuelle Spielbrett
+     * @return Den Gewinner auf dem aktuellen Spielbrett (0: Kein Gewinner; 1: X, 2: O)
+     */
+    public int checkForWinner(int[] board) {
+        for(int[] window : windows) {
+            int first = board[window[0]];
+            if(first == 0) continue;
+            boolean won = true;
+            for(int i = 1; i < window.length && won; i++) {
+                if(board[window[i]] != first) won = false;
+            }
+            if(won) return first;
+        }
+        return 0;
+    }
+
+    /**
+     * Erzeugt alle Gewinnreihen der Laenge k auf dem Spielbrett: waagerecht, senkrecht und in beiden diagonalen Richtungen
+     * @param width Die Breite des Spielbretts
+     * @param height Die Hoehe des Spielbretts
+     * @param k Die Laenge der Gewinnreihen
+     * @return Die Gewinnreihen als Listen von Feldindizes
+     */
+    private static int[][] createWindows(int width, int height, int k) {
+        int[][] buffer = new int[4 * width * height][];
+        int count = 0;
+        for(int y = 0; y < height; y++) {
+            for(int x = 0; x < width; x++) {
+                for(int[] direction : DIRECTIONS) {
+                    int endX = x + (k - 1) * direction[0];
+                    int endY = y + (k - 1) * direction[1];
+                    if(endX < 0 || endX >= width || endY < 0 || endY >= height) continue;
+                    int[] window = new int[k];
+                    for(int i = 0; i < k; i++) {
+                        window[i] = (y + i * direction[1]) * width + x + i * direction[0];
+                    }
+                    buffer[count++] = window;
+                }
+            }
+        }
+        int[][] windows = new int[count][];
+        System.arraycopy(buffer, 0, windows, 0, count);
+        return windows;
+    }
+
+    /**
+     * Liefert die Breite des Spielbretts
+     * @return Die Breite des Spielbretts
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Liefert die Hoehe des Spielbretts
+     * @return Die Hoehe des Spielbretts
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Liefert die Anzahl der Steine in einer Reihe, die zum Gewinn benoetigt werden
+     * @return Die Laenge der Gewinnreihen
+     */
+    public int getK() {
+        return k;
+    }
+}
@@ -0,0 +1,326 @@
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Zaehler und Zeitmessungen fuer die Suche der K.I., die Phasen einer Runde und den Antwortspeicher.
+ * Neben den festen Zaehlern der Suche von AI gibt es benannte Zaehler (count) fuer die uebrigen K.I. Klassen.
+ * Die Instrumentierung ist standardmaessig ausgeschaltet und wird mit -DtictactoeDecider.metrics=true, ueber setEnabled
+ * oder ueber JMX (siehe MetricsMXBean) eingeschaltet. Ausgeschaltet kostet jede Messstelle nur das Lesen eines volatile Feldes.
+ * Alle Zaehler sind LongAdder bzw. LongAccumulator, daher koennen beliebig viele Threads gleichzeitig messen, ohne sich
+ * gegenseitig auszubremsen. Die Werte koennen ueber export an einen MetricsSink uebergeben werden.
+ */
+public final class Metrics {
+    /**
+     * Der Name, unter dem die Messwerte per JMX erreichbar sind
+     */
+    public static final String OBJECT_NAME = "tictactoeDecider:type=Metrics";
+
+    /**
+     * Ob die Instrumentierung eingeschaltet ist
+     */
+    private static volatile boolean enabled = Boolean.getBoolean("tictactoeDecider.metrics");
+
+    private static final LongAdder searchCalls = new LongAdder();
+    private static final LongAdder searchNodes = new LongAdder();
+    private static final LongAdder searchCutoffs = new LongAdder();
+    private static final LongAdder tableProbes = new LongAdder();
+    private static final LongAdder tableHits = new LongAdder();
+    private static final LongAccumulator maxSearchDepth = new LongAccumulator(Math::max, 0);
+    private static final Timer searchTimer = new Timer();
+    private static final LongAdder solutionTableHits = new LongAdder();
+
+    /**
+     * Die Zeitmessungen der Phasen je Name
+     */
+    private static final Map<String, Timer> phases = new ConcurrentHashMap<>();
+
+    /**
+     * Die benannten Zaehler je Name
+     */
+    private static final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+
+    private static volatile long answerStoreSize;
+    private static volatile long answerStorePages;
+
+    private Metrics() {
+    }
+
+    /**
+     * Ueberprueft, ob die Instrumentierung eingeschaltet ist
+     * @return true, wenn gemessen wird
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Schaltet die Instrumentierung ein oder aus. Bisherige Werte bleiben erhalten.
+     * @param enabled true zum Einschalten
+     */
+    public static void setEnabled(boolean enabled) {
+        Metrics.enabled = enabled;
+    }
+
+    /**
+     * Zeichnet eine Suche von AI.search bzw. AI.analyze auf
+     * @param nanos Die Dauer der Suche
+     * @param nodes Die besuchten Knoten
+     * @param cutoffs Die Alpha-Beta Abschnitte
+     * @param maxDepth Die groesste erreichte Tiefe
+     * @param probes Die Abfragen der Transpositionstabelle
+     * @param hits Die Abfragen, die einen Eintrag gefunden haben
+     */
+    static void recordSearch(long nanos, long nodes, long cutoffs, int maxDepth, long probes, long hits) {
+        searchCalls.increment();
+        searchNodes.add(nodes);
+        searchCutoffs.add(cutoffs);
+        tableProbes.add(probes);
+        tableHits.add(hits);
+        maxSearchDepth.accumulate(maxDepth);
+        searchTimer.record(nanos);
+    }
+
+    /**
+     * Zeichnet einen Aufruf von AI.doMove auf, der den Zug aus der Loesungstabelle gelesen hat, statt zu suchen
+     */
+    static void recordSolutionTableHit() {
+        solutionTableHits.increment();
+    }
+
+    /**
+     * Erhoeht einen benannten Zaehler, z.B. die besuchten Knoten von KInARowAI
+     * @param name Der Name des Zaehlers, z.B. "kInARowAI.nodes"
+     * @param delta Der Betrag, um den der Zaehler waechst
+     */
+    static void count(String name, long delta) {
+        if(!enabled) return;
+        counters.computeIfAbsent(name, key -> new LongAdder()).add(delta);
+    }
+
+    /**
+     * Beginnt die Zeitmessung einer Folge von Phasen
+     * @return Der Startzeitpunkt fuer phase, 0 wenn die Instrumentierung ausgeschaltet ist
+     */
+    static long start() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Beendet eine Phase, die zum uebergebenen Zeitpunkt begonnen hat, und beginnt die naechste
+     * @param name Der Name der Phase, z.B. "checkWin.log"
+     * @param start Der Startzeitpunkt aus start bzw. dem vorherigen Aufruf von phase
+     * @return Der Startzeitpunkt der naechsten Phase, 0 wenn die Instrumentierung ausgeschaltet ist
+     */
+    static long phase(String name, long start) {
+        if(start == 0 || !enabled) return 0;
+        long now = System.nanoTime();
+        phases.computeIfAbsent(name, key -> new Timer()).record(now - start);
+        return now;
+    }
+
+    /**
+     * Zeichnet die Anzahl der Antworten und Seiten des Antwortspeichers auf
+     * @param store Der Antwortspeicher
+     */
+    static void recordAnswerStore(AnswerStore store) {
+        if(!enabled) return;
+        answerStoreSize = store.size();
+        answerStorePages = store.pageCount();
+    }
+
+    /**
+     * Uebergibt alle aktuellen Werte an den Empfaenger
+     * @param sink Der Empfaenger
+     */
+    public static void export(MetricsSink sink) {
+        sink.counter("search.calls", searchCalls.sum());
+        sink.counter("search.nodes", searchNodes.sum());
+        sink.counter("search.cutoffs", searchCutoffs.sum());
+        sink.counter("search.tableProbes", tableProbes.sum());
+        sink.counter("search.tableHits", tableHits.sum());
+        sink.gauge("search.maxDepth", maxSearchDepth.get());
+        sink.gauge("search.tableHitRate", tableHitRate());
+        searchTimer.export("search.time", sink);
+        sink.counter("search.solutionTableHits", solutionTableHits.sum());
+        new TreeMap<>(counters).forEach((name, counter) -> sink.counter(name, counter.sum()));
+        sink.gauge("answerStore.size", answerStoreSize);
+        sink.gauge("answerStore.pages", answerStorePages);
+        new TreeMap<>(phases).forEach((name, timer) -> timer.export("phase." + name, sink));
+    }
+
+    /**
+     * Uebergibt die Werte in festen Abstaenden auf einem Daemon Thread an den Empfaenger
+     * @param sink Der Empfaenger
+     * @param period Der Abstand zwischen zwei Uebergaben
+     * @param unit Die Einheit von period
+     * @return Der Dienst, der die Uebergaben ausfuehrt; mit shutdown wird die Uebergabe beendet
+     */
+    public static ScheduledExecutorService exportPeriodically(MetricsSink sink, long period, TimeUnit unit) {
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "metrics-export");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(() -> export(sink), period, period, unit);
+        return scheduler;
+    }
+
+    /**
+     * Setzt alle Zaehler und Zeitmessungen zurueck
+     */
+    public static void reset() {
+        searchCalls.reset();
+        searchNodes.reset();
+        searchCutoffs.reset();
+        tableProbes.reset();
+        tableHits.reset();
+        maxSearchDepth.reset();
+        searchTimer.reset();
+        solutionTableHits.reset();
+        phases.clear();
+        counters.clear();
+    }
+
+    /**
+     * Registriert die Messwerte unter OBJECT_NAME beim Platform MBeanServer. Ist bereits ein Objekt unter dem Namen
+     * registriert, geschieht nichts.
+     */
+    public static void registerMBean() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if(!server.isRegistered(name)) server.registerMBean(new MXBean(), name);
+        } catch (JMException e) {
+            System.err.println("Metrics MBean not registered: " + e.getMessage());
+        }
+    }
+
+    private static double tableHitRate() {
+        long probes = tableProbes.sum();
+        return probes == 0 ? 0 : (double) tableHits.sum() / probes;
+    }
+
+    /**
+     * Zeitmessung mit Anzahl, Summe und Maximum
+     */
+    private static final class Timer {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+        void record(long nanos) {
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+        }
+
+        double averageMicros() {
+            long n = count.sum();
+            return n == 0 ? 0 : totalNanos.sum() / 1000.0 / n;
+        }
+
+        void export(String name, MetricsSink sink) {
+            sink.timer(name, count.sum(), totalNanos.sum(), maxNanos.get());
+        }
+
+        void reset() {
+            count.reset();
+            totalNanos.reset();
+            maxNanos.reset();
+        }
+    }
+
+    /**
+     * Die JMX Sicht auf die Messwerte
+     */
+    private static final class MXBean implements MetricsMXBean {
+        @Override
+        public boolean isEnabled() {
+            return Metrics.isEnabled();
+        }
+
+        @Override
+        public void setEnabled(boolean enabled) {
+            Metrics.setEnabled(enabled);
+        }
+
+        @Override
+        public long getSearchCalls() {
+            return searchCalls.sum();
+        }
+
+        @Override
+        public long getSearchNodes() {
+            return searchNodes.sum();
+        }
+
+        @Override
+        public long getSearchCutoffs() {
+            return searchCutoffs.sum();
+        }
+
+        @Override
+        public long getMaxSearchDepth() {
+            return maxSearchDepth.get();
+        }
+
+        @Override
+        public double getTableHitRate() {
+            return tableHitRate();
+        }
+
+        @Override
+        public double getAverageSearchMicros() {
+            return searchTimer.averageMicros();
+        }
+
+        @Override
+        public long getMaxSearchMicros() {
+            return searchTimer.maxNanos.get() / 1000;
+        }
+
+        @Override
+        public long getSolutionTableHits() {
+            return solutionTableHits.sum();
+        }
+
+        @Override
+        public Map<String, Long> getCounters() {
+            Map<String, Long> values = new TreeMap<>();
+            counters.forEach((name, counter) -> values.put(name, counter.sum()));
+            return values;
+        }
+
+        @Override
+        public long getAnswerStoreSize() {
+            return answerStoreSize;
+        }
+
+        @Override
+        public long getAnswerStorePages() {
+            return answerStorePages;
+        }
+
+        @Override
+        public Map<String, Double> getAveragePhaseMicros() {
+            Map<String, Double> averages = new TreeMap<>();
+            phases.forEach((name, timer) -> averages.put(name, timer.averageMicros()));
+            return averages;
+        }
+
+        @Override
+        public void reset() {
+            Metrics.reset();
+        }
+    }
+}
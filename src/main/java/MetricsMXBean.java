@@ -0,0 +1,84 @@
+import java.util.Map;
+
+/**
+ * JMX Schnittstelle der Messwerte aus Metrics, registriert unter dem Namen Metrics.OBJECT_NAME.
+ * Ueber JConsole oder VisualVM laesst sich die Instrumentierung damit auch zur Laufzeit ein- und ausschalten.
+ */
+public interface MetricsMXBean {
+
+    /**
+     * @return true, wenn die Instrumentierung eingeschaltet ist
+     */
+    boolean isEnabled();
+
+    /**
+     * Schaltet die Instrumentierung ein oder aus
+     * @param enabled true zum Einschalten
+     */
+    void setEnabled(boolean enabled);
+
+    /**
+     * @return Die Anzahl der gemessenen Suchen von AI.search bzw. AI.analyze (auch ueber AI.doMove ohne Loesungstabelle)
+     */
+    long getSearchCalls();
+
+    /**
+     * @return Die Summe der dabei besuchten Knoten
+     */
+    long getSearchNodes();
+
+    /**
+     * @return Die Summe der Alpha-Beta Abschnitte
+     */
+    long getSearchCutoffs();
+
+    /**
+     * @return Die groesste erreichte Suchtiefe
+     */
+    long getMaxSearchDepth();
+
+    /**
+     * @return Der Anteil der Abfragen der Transpositionstabelle, die einen Eintrag gefunden haben (0 bis 1)
+     */
+    double getTableHitRate();
+
+    /**
+     * @return Die durchschnittliche Dauer einer gemessenen Suche in Mikrosekunden
+     */
+    double getAverageSearchMicros();
+
+    /**
+     * @return Die laengste Dauer einer gemessenen Suche in Mikrosekunden
+     */
+    long getMaxSearchMicros();
+
+    /**
+     * @return Die Anzahl der Aufrufe von AI.doMove, die den Zug aus der Loesungstabelle gelesen haben
+     */
+    long getSolutionTableHits();
+
+    /**
+     * @return Der Stand jedes benannten Zaehlers, z.B. kInARowAI.nodes oder monteCarloAI.playouts
+     */
+    Map<String, Long> getCounters();
+
+    /**
+     * @return Die Anzahl der Antworten im Antwortspeicher
+     */
+    long getAnswerStoreSize();
+
+    /**
+     * @return Die Anzahl der Seiten des Antwortspeichers
+     */
+    long getAnswerStorePages();
+
+    /**
+     * @return Die durchschnittliche Dauer jeder gemessenen Phase in Mikrosekunden
+     */
+    Map<String, Double> getAveragePhaseMicros();
+
+    /**
+     * Setzt alle Zaehler und Zeitmessungen zurueck
+     */
+    void reset();
+}
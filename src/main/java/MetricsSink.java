@@ -0,0 +1,57 @@
+import java.io.PrintStream;
+
+/**
+ * Empfaenger fuer die Messwerte aus Metrics. Metrics.export uebergibt alle aktuellen Werte nacheinander an die Methoden
+ * des Empfaengers, so lassen sich die Werte an ein beliebiges Monitoring System weitergeben.
+ * Die Namen sind durch Punkte gegliedert, z.B. "search.nodes" oder "phase.checkWin.log".
+ */
+public interface MetricsSink {
+
+    /**
+     * Uebergibt einen Zaehler, der seit dem Start bzw. dem letzten Metrics.reset nur waechst
+     * @param name Der Name des Zaehlers
+     * @param value Der aktuelle Stand
+     */
+    void counter(String name, long value);
+
+    /**
+     * Uebergibt einen Momentanwert
+     * @param name Der Name des Wertes
+     * @param value Der aktuelle Wert
+     */
+    void gauge(String name, double value);
+
+    /**
+     * Uebergibt eine Zeitmessung
+     * @param name Der Name der Messung
+     * @param count Die Anzahl der Messungen
+     * @param totalNanos Die Summe aller gemessenen Zeiten in Nanosekunden
+     * @param maxNanos Die laengste gemessene Zeit in Nanosekunden
+     */
+    void timer(String name, long count, long totalNanos, long maxNanos);
+
+    /**
+     * Liefert einen Empfaenger, der jeden Wert als eigene Zeile ausgibt
+     * @param out Der Ausgabestrom, z.B. System.out
+     * @return Der Empfaenger
+     */
+    static MetricsSink printing(PrintStream out) {
+        return new MetricsSink() {
+            @Override
+            public void counter(String name, long value) {
+                out.println(name + " = " + value);
+            }
+
+            @Override
+            public void gauge(String name, double value) {
+                out.println(name + " = " + value);
+            }
+
+            @Override
+            public void timer(String name, long count, long totalNanos, long maxNanos) {
+                long averageMicros = count == 0 ? 0 : totalNanos / count / 1000;
+                out.println(name + " = " + count + " calls, avg " + averageMicros + " us, max " + maxNanos / 1000 + " us");
+            }
+        };
+    }
+}
@@ -0,0 +1,653 @@
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * K.I. mit Monte Carlo Baumsuche (UCT, optional mit RAVE) fuer dieselben Spielbretter wie KInARowAI: beliebige Breite und
+ * Hoehe, K Steine in einer Reihe gewinnen. Statt die Stellungen heuristisch zu bewerten, werden von jeder Stellung aus Partien
+ * mit zufaelligen Zuegen zu Ende gespielt (Playouts) und die Ergebnisse im Suchbaum gesammelt.
+ * Die Suche endet nach einer festen Anzahl an Playouts bzw. nach einer festen Zeit.
+ * <p>
+ * Mit mehreren Threads wird ein gemeinsamer Suchbaum benutzt (tree parallel). Die Zaehler der Knoten werden ohne Sperren mit
+ * atomaren Additionen aktualisiert; ein Knoten zaehlt schon beim Abstieg als besucht (virtual loss), damit die Threads sich
+ * auf verschiedene Zweige verteilen. Die Playouts laufen auf einer eigenen Kopie des Spielbretts je Thread (ein byte je Feld)
+ * und legen keine Objekte an.
+ * Eine K.I., die ihren Thread Pool selbst erstellt hat, muss mit close beendet werden, damit dessen Threads enden.
+ * Ist die Instrumentierung eingeschaltet, wird jede Suche als Phase monteCarloAI.search gemessen und ihre Playouts und
+ * Erweiterungen des Suchbaums werden in Metrics gezaehlt (monteCarloAI.playouts, monteCarloAI.expansions).
+ */
+public class MonteCarloAI implements AutoCloseable {
+
+    /**
+     * Die Konstante der Erkundung in UCB1
+     */
+    private static final double EXPLORATION = 0.7;
+
+    /**
+     * Die Konstante b der RAVE Gewichtung nach Gelly und Silver; je kleiner, desto schneller verliert RAVE an Gewicht
+     */
+    private static final double RAVE_BIAS = 0.1;
+
+    /**
+     * Anzahl der Besuche, ab der ein Blatt um seine Kinder erweitert wird
+     */
+    private static final int EXPAND_VISITS = 2;
+
+    /**
+     * Wert eines noch nicht besuchten Kindes mit RAVE, groesser als jeder Wert eines besuchten Kindes. Unter den nicht
+     * besuchten Kindern entscheidet so der RAVE Wert.
+     */
+    private static final double UNVISITED = 1000;
+
+    /**
+     * Die Staerke der K.I.
+     */
+    private final double strength;
+    /**
+     * Breite des Spielbretts
+     */
+    private final int width;
+    /**
+     * Hoehe des Spielbretts
+     */
+    private final int height;
+    /**
+     * Anzahl der Steine in einer Reihe, die zum Gewinn benoetigt werden
+     */
+    private final int k;
+    /**
+     * Die Anzahl der Playouts je Zug
+     */
+    private final int playouts;
+    /**
+     * Der Thread Pool fuer die parallele Suche (null: sequentielle Suche)
+     */
+    private final ForkJoinPool pool;
+    /**
+     * Ob pool von dieser K.I. erstellt wurde und von close beendet wird
+     */
+    private final boolean ownsPool;
+    /**
+     * Die Zufallsquelle, wie bei AI eine eigene Quelle je Objekt. Jeder Aufruf von doMove teilt unter ihrer Sperre eine eigene
+     * Quelle davon ab, aus der wiederum jeder Thread der Suche eine eigene Quelle erhaelt; so kann doMove von mehreren Threads
+     * gleichzeitig aufgerufen werden.
+     */
+    private final SplittableRandom random;
+
+    /**
+     * Die maximale Dauer eines Zuges in Nanosekunden (0: unbegrenzt)
+     */
+    private volatile long timeLimitNanos;
+    /**
+     * Ob die Zuege zusaetzlich mit RAVE (all moves as first) bewertet werden
+     */
+    private volatile boolean rave;
+    /**
+     * Anzahl der bisher gespielten Playouts
+     */
+    private final AtomicLong playoutCount = new AtomicLong();
+
+    /**
+     * Konstruktormethode zum Erstellen einer K.I. fuer ein Spielbrett der uebergebenen Groesse
+     * @param strength Die Faehigkeitsstufe der K.I. (0: random; 1: staerkste Suche)
+     * @param width Die Breite des Spielbretts
+     * @param height Die Hoehe des Spielbretts
+     * @param k Die Anzahl der Steine in einer Reihe, die zum Gewinn benoetigt werden
+     * @param playouts Die Anzahl der Playouts je Zug (mindestens 1)
+     */
+    public MonteCarloAI(double strength, int width, int height, int k, int playouts) {
+        this(strength, width, height, k, playouts, null, 1, new SplittableRandom());
+    }
+
+    /**
+     * Konstruktormethode zum Erstellen einer K.I., deren Playouts auf einen eigenen Thread Pool mit der uebergebenen Anzahl
+     * an Threads verteilt werden. Der Pool gehoert der K.I. und wird mit close beendet.
+     * @param strength Die Faehigkeitsstufe der K.I. (0: random; 1: staerkste Suche)
+     * @param width Die Breite des Spielbretts
+     * @param height Die Hoehe des Spielbretts
+     * @param k Die Anzahl der Steine in einer Reihe, die zum Gewinn benoetigt werden
+     * @param playouts Die Anzahl der Playouts je Zug (mindestens 1)
+     * @param parallelism Die Anzahl der Threads (1: sequentielle Suche)
+     */
+    public MonteCarloAI(double strength, int width, int height, int k, int playouts, int parallelism) {
+        this(strength, width, height, k, playouts, null, parallelism, new SplittableRandom());
+    }
+
+    /**
+     * Konstruktormethode zum Erstellen einer K.I., deren Playouts auf den uebergebenen Thread Pool verteilt werden.
+     * Es werden so viele Threads benutzt, wie der Pool parallel ausfuehren kann. Der Pool gehoert weiterhin dem Aufrufer,
+     * close beendet ihn nicht.
+     * @param strength Die Faehigkeitsstufe der K.I. (0: random; 1: staerkste Suche)
+     * @param width Die Breite des Spielbretts
+     * @param height Die Hoehe des Spielbretts
+     * @param k Die Anzahl der Steine in einer Reihe, die zum Gewinn benoetigt werden
+     * @param playouts Die Anzahl der Playouts je Zug (mindestens 1)
+     * @param pool Der Thread Pool fuer die Suche (null: sequentielle Suche)
+     */
+    public MonteCarloAI(double strength, int width, int height, int k, int playouts, ForkJoinPool pool) {
+        this(strength, width, height, k, playouts, pool, 1, new SplittableRandom());
+    }
+
+    /**
+     * Konstruktormethode zum Erstellen einer K.I., deren Zuege sich mit demselben Startwert wiederholen lassen, solange doMove
+     * in derselben Reihenfolge aufgerufen wird. Das gilt nur fuer die sequentielle Suche ohne Zeitgrenze; mit mehreren Threads
+     * haengt der Suchbaum davon ab, wie sich die Threads abwechseln.
+     * @param strength Die Faehigkeitsstufe der K.I. (0: random; 1: staerkste Suche)
+     * @param width Die Breite des Spielbretts
+     * @param height Die Hoehe des Spielbretts
+     * @param k Die Anzahl der Steine in einer Reihe, die zum Gewinn benoetigt werden
+     * @param playouts Die Anzahl der Playouts je Zug (mindestens 1)
+     * @param pool Der Thread Pool fuer die Suche (null: sequentielle Suche), er gehoert weiterhin dem Aufrufer
+     * @param seed Der Startwert der Zufallsquelle
+     */
+    public MonteCarloAI(double strength, int width, int height, int k, int playouts, ForkJoinPool pool, long seed) {
+        this(strength, width, height, k, playouts, pool, 1, new SplittableRandom(seed));
+    }
+
+    /**
+     * Erstellt die K.I. mit dem uebergebenen Pool bzw., wenn keiner uebergeben wird und parallelism groesser als 1 ist,
+     * mit einem eigenen Pool. Der eigene Pool wird erst nach der Pruefung der Parameter erstellt.
+     */
+    private MonteCarloAI(double strength, int width, int height, int k, int playouts, ForkJoinPool pool, int parallelism,
+                         SplittableRandom random) {
+        if(width < 1 || height < 1 || k < 1 || k > Math.max(width, height)) {
+            throw new IllegalArgumentException("Invalid board " + width + "x" + height + " with k=" + k);
+        }
+        if(playouts < 1) {
+            throw new IllegalArgumentException("playouts must be at least 1");
+        }
+        this.strength = strength;
+        this.width = width;
+        this.height = height;
+        this.k = k;
+        this.playouts = playouts;
+        this.random = random;
+        this.ownsPool = pool == null && parallelism > 1;
+        this.pool = ownsPool ? new ForkJoinPool(parallelism) : pool;
+    }
+
+    /**
+     * Begrenzt die Dauer eines Zuges zusaetzlich zur Anzahl der Playouts. Die Suche endet, sobald eine der beiden Grenzen
+     * erreicht ist; fuer eine reine Zeitgrenze kann als Anzahl der Playouts Integer.MAX_VALUE angegeben werden.
+     * @param timeLimit Die maximale Dauer eines Zuges (0: unbegrenzt)
+     * @param unit Die Einheit von timeLimit
+     */
+    public void setTimeLimit(long timeLimit, TimeUnit unit) {
+        if(timeLimit < 0) {
+            throw new IllegalArgumentException("timeLimit must not be negative");
+        }
+        timeLimitNanos = unit.toNanos(timeLimit);
+    }
+
+    /**
+     * Schaltet die Bewertung mit RAVE ein oder aus. Mit RAVE zaehlt das Ergebnis eines Playouts fuer jeden Zug, den der
+     * Spieler darin irgendwann gespielt hat, dadurch sind die Werte nach wenigen Playouts schon brauchbar.
+     * @param rave true zum Einschalten
+     */
+    public void setRave(boolean rave) {
+        this.rave = rave;
+    }
+
+    /**
+     * Liefert die Anzahl der seit dem Erstellen bzw. dem letzten Aufruf von resetPlayoutCount gespielten Playouts
+     * @return Die Anzahl der Playouts
+     */
+    public long getPlayoutCount() {
+        return playoutCount.get();
+    }
+
+    /**
+     * Setzt den Zaehler der Playouts zurueck
+     */
+    public void resetPlayoutCount() {
+        playoutCount.set(0);
+    }
+
+    /**
+     * Beendet den Thread Pool, wenn die K.I. ihn selbst erstellt hat; ein uebergebener Pool bleibt unberuehrt.
+     * Laufende Suchen werden noch zu Ende gefuehrt, danach darf doMove nicht mehr aufgerufen werden.
+     */
+    @Override
+    public void close() {
+        if(ownsPool) pool.shutdown();
+    }
+
+    /**
+     * Die Methode bestimmt den besten gefundenen Spielzug fuer den uebergebenen Spieler
+     * @param board Das aktuelle Spielfeld als flaches Array (0: frei; 1: X; 2: O)
+     * @param player Der Spieler der aktuell am Zug ist (1: X; 2: O)
+     * @return int gibt den Index des besten Zuges im Array zurueck
+     */
+    public int doMove(int[] board, int player) {
+        SplittableRandom random;
+        synchronized(this.random) {
+            random = this.random.split();
+        }
+        if(strength != 1 && random.nextDouble() >= strength) {
+            int emptyCells = 0;
+            for (int cell : board) {
+                if (cell == 0) emptyCells++;
+            }
+            int j = random.nextInt(emptyCells);
+            for(int i = 0; i < board.length; i++) {
+                if(board[i] == 0) {
+                    if(j == 0) return i;
+                    else j--;
+                }
+            }
+        }
+
+        byte[] cells = new byte[board.length];
+        int empty = 0;
+        for(int i = 0; i < board.length; i++) {
+            cells[i] = (byte) board[i];
+            if(board[i] == 0) empty++;
+        }
+        if(empty == 0) return 0;
+        // Hat das uebergebene Spielbrett schon einen Gewinner, gibt es nichts mehr zu entscheiden
+        if(hasWinner(cells)) return firstEmpty(cells);
+
+        Node root = new Node(-1, player % 2 + 1);
+        root.children = expand(cells, empty, player);
+        if(root.children.length == 1) return root.children[0].move;
+
+        long start = Metrics.start();
+        long deadline = timeLimitNanos == 0 ? 0 : System.nanoTime() + timeLimitNanos;
+        AtomicInteger remaining = new AtomicInteger(playouts);
+        int threads = pool == null ? 1 : pool.getParallelism();
+        Worker[] workers = new Worker[threads];
+        for(int i = 0; i < threads; i++) {
+            workers[i] = new Worker(cells, empty, player, random.split());
+        }
+        ForkJoinTask<?>[] tasks = new ForkJoinTask<?>[threads - 1];
+        for(int i = 0; i < tasks.length; i++) {
+            Worker worker = workers[i + 1];
+            tasks[i] = pool.submit(() -> worker.run(root, remaining, deadline));
+        }
+        workers[0].run(root, remaining, deadline);
+        for(ForkJoinTask<?> task : tasks) {
+            task.join();
+        }
+        if(start != 0) {
+            Metrics.phase("monteCarloAI.search", start);
+            for(Worker worker : workers) {
+                Metrics.count("monteCarloAI.playouts", worker.playouts);
+                Metrics.count("monteCarloAI.expansions", worker.expansions);
+            }
+        }
+        return mostVisited(root.children).move;
+    }
+
+    /**
+     * Waehlt den am haeufigsten besuchten Zug, bei Gleichstand den ersten
+     * @param children Die Kinder der Wurzel
+     * @return Der gewaehlte Knoten
+     */
+    private static Node mostVisited(Node[] children) {
+        Node best = children[0];
+        for(Node child : children) {
+            if(child.visits() > best.visits()) best = child;
+        }
+        return best;
+    }
+
+    /**
+     * Bestimmt die Zuege, um die ein Knoten des Suchbaums erweitert wird. Wie bei KInARowAI ist das auf einem leeren
+     * Spielbrett nur das mittlere Feld, sonst alle freien Felder, die an ein belegtes Feld angrenzen.
+     * Die Playouts waehlen dagegen aus allen freien Feldern.
+     * @param board Das Spielbrett
+     * @param empty Die Anzahl der freien Felder
+     * @param player Der Spieler der am Zug ist
+     * @return Die Kinder in aufsteigender Reihenfolge der Felder, leer wenn das Spielbrett voll ist
+     */
+    private Node[] expand(byte[] board, int empty, int player) {
+        if(empty == 0) return new Node[0];
+        if(empty == board.length) return new Node[] {new Node((height / 2) * width + width / 2, player)};
+        int count = 0;
+        for(int i = 0; i < board.length; i++) {
+            if(board[i] == 0 && hasNeighbour(board, i)) count++;
+        }
+        Node[] children = new Node[count];
+        count = 0;
+        for(int i = 0; i < board.length; i++) {
+            if(board[i] == 0 && hasNeighbour(board, i)) children[count++] = new Node(i, player);
+        }
+        return children;
+    }
+
+    /**
+     * Ueberprueft, ob eines der bis zu 8 Nachbarfelder belegt ist
+     * @param board Das Spielbrett
+     * @param cell Das zu pruefende Feld
+     * @return true, wenn mindestens ein Nachbarfeld belegt ist
+     */
+    private boolean hasNeighbour(byte[] board, int cell) {
+        int x = cell % width;
+        int y = cell / width;
+        for(int dy = -1; dy <= 1; dy++) {
+            for(int dx = -1; dx <= 1; dx++) {
+                int nx = x + dx;
+                int ny = y + dy;
+                if((dx != 0 || dy != 0) && nx >= 0 && nx < width && ny >= 0 && ny < height
+                        && board[ny * width + nx] != 0) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Ueberprueft, ob der Stein auf dem Feld cell Teil einer Reihe von mindestens K Steinen desselben Spielers ist.
+     * Dafuer werden nur die vier Reihen durch das Feld geprueft.
+     * @param board Das Spielbrett
+     * @param cell Das zuletzt belegte Feld
+     * @return true, wenn der Spieler auf dem Feld cell damit gewonnen hat
+     */
+    private boolean completesRow(byte[] board, int cell) {
+        byte player = board[cell];
+        int x = cell % width;
+        int y = cell / width;
+        return 1 + countStones(board, player, x, y, 1, 0) + countStones(board, player, x, y, -1, 0) >= k
+                || 1 + countStones(board, player, x, y, 0, 1) + countStones(board, player, x, y, 0, -1) >= k
+                || 1 + countStones(board, player, x, y, 1, 1) + countStones(board, player, x, y, -1, -1) >= k
+                || 1 + countStones(board, player, x, y, 1, -1) + countStones(board, player, x, y, -1, 1) >= k;
+    }
+
+    /**
+     * Zaehlt die Steine des Spielers, die vom Feld (x, y) aus in der uebergebenen Richtung direkt aufeinander folgen
+     * (hoechstens k - 1)
+     * @param board Das Spielbrett
+     * @param player Der Spieler
+     * @param x Die Spalte des Ausgangsfelds
+     * @param y Die Zeile des Ausgangsfelds
+     * @param dx Die Richtung in x
+     * @param dy Die Richtung in y
+     * @return Die Anzahl der Steine, ohne das Ausgangsfeld
+     */
+    private int countStones(byte[] board, byte player, int x, int y, int dx, int dy) {
+        int count = 0;
+        int nx = x + dx;
+        int ny = y + dy;
+        while(count < k - 1 && nx >= 0 && nx < width && ny >= 0 && ny < height && board[ny * width + nx] == player) {
+            count++;
+            nx += dx;
+            ny += dy;
+        }
+        return count;
+    }
+
+    /**
+     * Ueberprueft, ob ein Spieler bereits K Steine in einer Reihe hat
+     * @param board Das Spielbrett
+     * @return true, wenn es einen Gewinner gibt
+     */
+    private boolean hasWinner(byte[] board) {
+        for(int cell = 0; cell < board.length; cell++) {
+            if(board[cell] != 0 && completesRow(board, cell)) return true;
+        }
+        return false;
+    }
+
+    private static int firstEmpty(byte[] board) {
+        for(int cell = 0; cell < board.length; cell++) {
+            if(board[cell] == 0) return cell;
+        }
+        return 0;
+    }
+
+    /**
+     * Die Punkte eines Playouts aus Sicht eines Spielers: 2 fuer einen Gewinn, 1 fuer ein Unentschieden, 0 fuer eine Niederlage
+     */
+    private static long points(int winner, int player) {
+        return winner == player ? 2 : winner == 0 ? 1 : 0;
+    }
+
+    /**
+     * Ein Knoten des Suchbaums, also der Zug move des Spielers player. Besuche und Punkte liegen zusammen in einem long
+     * (Besuche in den oberen 32 Bits, Punkte in den unteren), damit ein Besuch mit einer einzigen atomaren Addition
+     * gezaehlt werden kann. Fuer RAVE gibt es ein zweites long nach demselben Schema.
+     */
+    private static final class Node {
+        private static final AtomicLongFieldUpdater<Node> STATS = AtomicLongFieldUpdater.newUpdater(Node.class, "stats");
+        private static final AtomicLongFieldUpdater<Node> RAVE_STATS = AtomicLongFieldUpdater.newUpdater(Node.class, "raveStats");
+        private static final AtomicReferenceFieldUpdater<Node, Node[]> CHILDREN =
+                AtomicReferenceFieldUpdater.newUpdater(Node.class, Node[].class, "children");
+        private static final long VISIT = 1L << 32;
+        private static final long POINTS = VISIT - 1;
+
+        final int move;
+        /**
+         * Der Spieler, der den Zug macht (1: X; 2: O)
+         */
+        final int player;
+        volatile long stats;
+        volatile long raveStats;
+        /**
+         * Die Kinder, null solange der Knoten nicht erweitert wurde
+         */
+        volatile Node[] children;
+
+        Node(int move, int player) {
+            this.move = move;
+            this.player = player;
+        }
+
+        int visits() {
+            return (int) (stats >>> 32);
+        }
+
+        void addVisit() {
+            STATS.getAndAdd(this, VISIT);
+        }
+
+        void addPoints(long points) {
+            STATS.getAndAdd(this, points);
+        }
+
+        void addRave(long points) {
+            RAVE_STATS.getAndAdd(this, VISIT + points);
+        }
+
+        /**
+         * Setzt die Kinder, falls kein anderer Thread den Knoten schon erweitert hat
+         * @return Die gueltigen Kinder
+         */
+        Node[] expandWith(Node[] expanded) {
+            return CHILDREN.compareAndSet(this, null, expanded) ? expanded : children;
+        }
+    }
+
+    /**
+     * Ein Thread der Suche mit eigenem Spielbrett und eigenen Puffern, die fuer alle seine Playouts wiederverwendet werden
+     */
+    private final class Worker {
+        private final byte[] rootBoard;
+        private final int rootEmpty;
+        private final int player;
+        private final SplittableRandom random;
+        private final byte[] board;
+        /**
+         * Die freien Felder waehrend des Playouts
+         */
+        private final int[] free;
+        /**
+         * Alle Felder in der Reihenfolge, in der sie ab der Wurzel belegt wurden
+         */
+        private final int[] sequence;
+        /**
+         * Die Anzahl der Felder in sequence
+         */
+        private int moves;
+        /**
+         * Die Knoten auf dem Weg von der Wurzel
+         */
+        private final Node[] path;
+        /**
+         * Fuer RAVE: welcher Spieler ein Feld nach dem aktuellen Knoten belegt hat (0: niemand)
+         */
+        private final byte[] playedBy;
+        /**
+         * Die Anzahl der Playouts dieses Threads, nach dem join von doMove gelesen
+         */
+        private long playouts;
+        /**
+         * Die Anzahl der Knoten, die dieser Thread erweitert hat
+         */
+        private long expansions;
+
+        Worker(byte[] rootBoard, int rootEmpty, int player, SplittableRandom random) {
+            this.rootBoard = rootBoard;
+            this.rootEmpty = rootEmpty;
+            this.player = player;
+            this.random = random;
+            board = new byte[rootBoard.length];
+            free = new int[rootBoard.length];
+            sequence = new int[rootBoard.length];
+            path = new Node[rootEmpty + 1];
+            playedBy = new byte[rootBoard.length];
+        }
+
+        void run(Node root, AtomicInteger remaining, long deadline) {
+            long count = 0;
+            while(remaining.getAndDecrement() > 0 && (deadline == 0 || System.nanoTime() < deadline)) {
+                playout(root);
+                count++;
+            }
+            playouts = count;
+            playoutCount.addAndGet(count);
+        }
+
+        /**
+         * Ein Durchlauf der Suche: Auswahl eines Blatts mit UCB1, Erweiterung, Playout mit zufaelligen Zuegen und
+         * Rueckfuehrung des Ergebnisses zur Wurzel
+         */
+        private void playout(Node root) {
+            boolean useRave = rave;
+            System.arraycopy(rootBoard, 0, board, 0, board.length);
+            int empty = rootEmpty;
+            int toMove = player;
+            int depth = 0;
+            moves = 0;
+            int winner = 0;
+            Node node = root;
+            path[0] = root;
+            root.addVisit();
+
+            while(true) {
+                Node[] children = node.children;
+                if(children == null) {
+                    if(node.visits() < EXPAND_VISITS) break;
+                    Node[] expanded = expand(board, empty, toMove);
+                    children = node.expandWith(expanded);
+                    if(children == expanded) expansions++;
+                }
+                if(children.length == 0) break;
+                Node child = select(node, children, useRave);
+                child.addVisit();
+                board[child.move] = (byte) toMove;
+                sequence[moves++] = child.move;
+                path[++depth] = child;
+                empty--;
+                if(completesRow(board, child.move)) {
+                    winner = toMove;
+                    break;
+                }
+                toMove = toMove % 2 + 1;
+                node = child;
+                if(empty == 0) break;
+            }
+
+            if(winner == 0 && empty > 0) winner = randomPlayout(toMove);
+
+            for(int d = 0; d <= depth; d++) {
+                path[d].addPoints(points(winner, path[d].player));
+            }
+            if(useRave) updateRave(depth, winner);
+        }
+
+        /**
+         * Spielt die Partie vom aktuellen Spielbrett aus mit zufaelligen Zuegen zu Ende. Die gespielten Felder werden an
+         * sequence angehaengt.
+         * @return Der Gewinner (0: Keiner; 1: X; 2: O)
+         */
+        private int randomPlayout(int toMove) {
+            int count = 0;
+            for(int i = 0; i < board.length; i++) {
+                if(board[i] == 0) free[count++] = i;
+            }
+            while(count > 0) {
+                int index = random.nextInt(count);
+                int cell = free[index];
+                free[index] = free[--count];
+                board[cell] = (byte) toMove;
+                sequence[moves++] = cell;
+                if(completesRow(board, cell)) return toMove;
+                toMove = toMove % 2 + 1;
+            }
+            return 0;
+        }
+
+        /**
+         * Waehlt das Kind mit dem hoechsten Wert nach UCB1. Noch nicht besuchte Kinder werden zuerst gewaehlt. Mit RAVE wird
+         * der Anteil der Punkte mit dem Anteil der RAVE Punkte gemischt, gewichtet nach Gelly und Silver.
+         */
+        private Node select(Node node, Node[] children, boolean useRave) {
+            double logVisits = Math.log(Math.max(node.visits(), 1));
+            Node best = children[0];
+            double bestValue = Double.NEGATIVE_INFINITY;
+            for(Node child : children) {
+                long stats = child.stats;
+                int visits = (int) (stats >>> 32);
+                double value;
+                if(useRave) {
+                    long raveStats = child.raveStats;
+                    int raveVisits = (int) (raveStats >>> 32);
+                    double raveValue = raveVisits == 0 ? 0.5 : (raveStats & Node.POINTS) / (2.0 * raveVisits);
+                    if(visits == 0) {
+                        value = UNVISITED + raveValue;
+                    } else {
+                        double beta = raveVisits / (visits + raveVisits + 4 * RAVE_BIAS * RAVE_BIAS * visits * raveVisits);
+                        double mean = (stats & Node.POINTS) / (2.0 * visits);
+                        value = (1 - beta) * mean + beta * raveValue + EXPLORATION * Math.sqrt(logVisits / visits);
+                    }
+                } else if(visits == 0) {
+                    return child;
+                } else {
+                    value = (stats & Node.POINTS) / (2.0 * visits) + EXPLORATION * Math.sqrt(logVisits / visits);
+                }
+                if(value > bestValue) {
+                    bestValue = value;
+                    best = child;
+                }
+            }
+            return best;
+        }
+
+        /**
+         * Zaehlt das Ergebnis fuer RAVE: fuer jeden Knoten auf dem Weg bei jedem Kind, dessen Feld der Spieler des Kindes
+         * irgendwann nach diesem Knoten belegt hat
+         */
+        private void updateRave(int depth, int winner) {
+            for(int i = depth; i < moves; i++) {
+                playedBy[sequence[i]] = board[sequence[i]];
+            }
+            for(int d = depth - 1; d >= 0; d--) {
+                playedBy[sequence[d]] = board[sequence[d]];
+                Node[] children = path[d].children;
+                if(children == null) continue;
+                for(Node child : children) {
+                    if(playedBy[child.move] == child.player) child.addRave(points(winner, child.player));
+                }
+            }
+            for(int i = 0; i < moves; i++) {
+                playedBy[sequence[i]] = 0;
+            }
+        }
+    }
+}
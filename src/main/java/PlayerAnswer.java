@@ -2,11 +2,15 @@ public class PlayerAnswer implements ComparableContent<PlayerAnswer> {
     /**
      * Die Antwort die der Spieler gegeben hat
      */
-    public Integer answer;
+    public int answer;
     /**
      * Die wievielte Antwort die gegebene Antwort war
      */
-    public Integer answerCount;
+    public int answerCount;
+    /**
+     * Ob die Antwort richtig war. Geht nicht in die Ordnung ein, wird aber von BoardCodec mitgespeichert
+     */
+    public boolean correct;
 
     /**
      * Konstruktor der eine Spielerantwort erstellt
@@ -14,8 +18,19 @@ public class PlayerAnswer implements ComparableContent<PlayerAnswer> {
      * @param answerCount Die wievielte Antwort im aktuellen Spiel diese Antwort ist
      */
     public PlayerAnswer(int answer, int answerCount) {
+        this(answer, answerCount, false);
+    }
+
+    /**
+     * Konstruktor der eine Spielerantwort erstellt
+     * @param answer Die gegebene Antwort (0: X gewinnt; 1: O gewinnt)
+     * @param answerCount Die wievielte Antwort im aktuellen Spiel diese Antwort ist
+     * @param correct Ob die Antwort richtig war
+     */
+    public PlayerAnswer(int answer, int answerCount, boolean correct) {
         this.answer = answer;
         this.answerCount = answerCount;
+        this.correct = correct;
     }
 
     /**
@@ -31,7 +46,7 @@ public class PlayerAnswer implements ComparableContent<PlayerAnswer> {
      */
     @Override
     public boolean isGreater(PlayerAnswer pContent) {
-        if (answer.equals(pContent.answer)) {
+        if (answer == pContent.answer) {
             return answerCount > pContent.answerCount;
         }
         return answer > pContent.answer;
@@ -49,8 +64,8 @@ public class PlayerAnswer implements ComparableContent<PlayerAnswer> {
      */
     @Override
     public boolean isEqual(PlayerAnswer pContent) {
-        if (answer.equals(pContent.answer)) {
-            return answerCount.equals(pContent.answerCount);
+        if (answer == pContent.answer) {
+            return answerCount == pContent.answerCount;
         }
         return false;
     }
@@ -68,7 +83,7 @@ public class PlayerAnswer implements ComparableContent<PlayerAnswer> {
      */
     @Override
     public boolean isLess(PlayerAnswer pContent) {
-        if (answer.equals(pContent.answer)) {
+        if (answer == pContent.answer) {
             return answerCount < pContent.answerCount;
         }
         return answer < pContent.answer;
@@ -0,0 +1,75 @@
+/**
+ * Ein generiertes Raetsel: die Eroeffnungsstellung, die dem Spieler gezeigt wird, und der tatsaechliche Ausgang des Spiels bei perfektem Spiel beider K.I.s
+ */
+public class Puzzle {
+    /**
+     * Die Eroeffnungsstellung als flaches Array (0: frei; 1: X; 2: O)
+     */
+    private final int[] board;
+    /**
+     * Der Spieler, der in der Eroeffnungsstellung am Zug ist (1: X; 2: O)
+     */
+    private final int playerToMove;
+    /**
+     * Der Gewinner bei perfektem Spiel (0: Keiner; 1: X; 2: O)
+     */
+    private final int winner;
+    /**
+     * Das Spielbrett, nachdem beide K.I.s das Spiel ab der Eroeffnungsstellung perfekt zu Ende gespielt haben
+     */
+    private final int[] finalBoard;
+
+    /**
+     * Konstruktor der ein Raetsel erstellt
+     * @param board Die Eroeffnungsstellung (0: frei; 1: X; 2: O)
+     * @param playerToMove Der Spieler, der in der Eroeffnungsstellung am Zug ist (1: X; 2: O)
+     * @param winner Der Gewinner bei perfektem Spiel (0: Keiner; 1: X; 2: O)
+     * @param finalBoard Das zu Ende gespielte Spielbrett (0: frei; 1: X; 2: O)
+     */
+    public Puzzle(int[] board, int playerToMove, int winner, int[] finalBoard) {
+        this.board = board;
+        this.playerToMove = playerToMove;
+        this.winner = winner;
+        this.finalBoard = finalBoard;
+    }
+
+    /**
+     * Liefert eine Kopie der Eroeffnungsstellung
+     * @return Die Eroeffnungsstellung als flaches Array (0: frei; 1: X; 2: O)
+     */
+    public int[] getBoard() {
+        return board.clone();
+    }
+
+    /**
+     * Liefert eine Kopie des zu Ende gespielten Spielbretts
+     * @return Das Spielbrett nach perfektem Spiel beider K.I.s (0: frei; 1: X; 2: O)
+     */
+    public int[] getFinalBoard() {
+        return finalBoard.clone();
+    }
+
+    /**
+     * Liefert den Spieler, der in der Eroeffnungsstellung am Zug ist
+     * @return Der Spieler am Zug (1: X; 2: O)
+     */
+    public int getPlayerToMove() {
+        return playerToMove;
+    }
+
+    /**
+     * Liefert den Gewinner bei perfektem Spiel
+     * @return Der Gewinner (0: Keiner; 1: X; 2: O)
+     */
+    public int getWinner() {
+        return winner;
+    }
+
+    /**
+     * Gibt an, ob X das Spiel bei perfektem Spiel gewinnt
+     * @return true, wenn X gewinnt, sonst false
+     */
+    public boolean xWins() {
+        return winner == 1;
+    }
+}
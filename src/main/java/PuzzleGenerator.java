@@ -0,0 +1,225 @@
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Erzeugt Raetsel ohne grafische Oberflaeche: zwei K.I.s mit den uebergebenen Faehigkeitsstufen spielen die Eroeffnung,
+ * danach wird der Ausgang bei perfektem Spiel bestimmt. Die Klasse benutzt kein AWT/Swing und kann daher auch auf Servern
+ * benutzt werden, um Raetsel in grossen Mengen vorzuberechnen.
+ * Ein Objekt der Klasse ist nicht threadsicher; fuer mehrere Threads wird je Thread ein eigenes Objekt benutzt (siehe generateParallel).
+ * Mit einem Startwert erzeugt ein Generator immer dieselbe Folge von Raetseln.
+ */
+public class PuzzleGenerator {
+    /**
+     * Anzahl der Zuege der Eroeffnung, wenn nichts anderes angegeben wird
+     */
+    public static final int DEFAULT_OPENING_MOVES = 3;
+
+    /**
+     * Anzahl der Raetsel, die ein Thread bei generateParallel am Stueck erzeugt
+     */
+    private static final int CHUNK_SIZE = 4096;
+
+    /**
+     * K.I. fuer Spieler X
+     */
+    private final AI aiX;
+    /**
+     * K.I. fuer Spieler O
+     */
+    private final AI aiO;
+    /**
+     * Anzahl der Zuege der Eroeffnung
+     */
+    private final int openingMoves;
+    /**
+     * Perfekte K.I. zum zu Ende Spielen der Raetsel in next
+     */
+    private final AI perfect = new AI(1);
+    /**
+     * Wiederverwendetes Spielbrett, damit pro Raetsel nichts ausser dem Ergebnis angelegt wird
+     */
+    private final int[] board = new int[9];
+
+    /**
+     * Erstellt einen Generator fuer Eroeffnungen mit DEFAULT_OPENING_MOVES Zuegen
+     * @param strengthX Die Faehigkeitsstufe der K.I. fuer X (0: random; 1: perfekt)
+     * @param strengthO Die Faehigkeitsstufe der K.I. fuer O (0: random; 1: perfekt)
+     */
+    public PuzzleGenerator(double strengthX, double strengthO) {
+        this(strengthX, strengthO, DEFAULT_OPENING_MOVES);
+    }
+
+    /**
+     * Erstellt einen Generator
+     * @param strengthX Die Faehigkeitsstufe der K.I. fuer X (0: random; 1: perfekt)
+     * @param strengthO Die Faehigkeitsstufe der K.I. fuer O (0: random; 1: perfekt)
+     * @param openingMoves Die Anzahl der Zuege der Eroeffnung, X beginnt
+     */
+    public PuzzleGenerator(double strengthX, double strengthO, int openingMoves) {
+        this(strengthX, strengthO, openingMoves, new SplittableRandom());
+    }
+
+    /**
+     * Erstellt einen Generator, der mit demselben Startwert immer dieselben Raetsel erzeugt
+     * @param strengthX Die Faehigkeitsstufe der K.I. fuer X (0: random; 1: perfekt)
+     * @param strengthO Die Faehigkeitsstufe der K.I. fuer O (0: random; 1: perfekt)
+     * @param openingMoves Die Anzahl der Zuege der Eroeffnung, X beginnt
+     * @param seed Der Startwert der Zufallsquellen beider K.I.s
+     */
+    public PuzzleGenerator(double strengthX, double strengthO, int openingMoves, long seed) {
+        this(strengthX, strengthO, openingMoves, new SplittableRandom(seed));
+    }
+
+    /**
+     * Erstellt einen Generator, dessen K.I.s jeweils eine eigene, von random abgespaltene Zufallsquelle erhalten
+     * @param strengthX Die Faehigkeitsstufe der K.I. fuer X (0: random; 1: perfekt)
+     * @param strengthO Die Faehigkeitsstufe der K.I. fuer O (0: random; 1: perfekt)
+     * @param openingMoves Die Anzahl der Zuege der Eroeffnung, X beginnt
+     * @param random Die Zufallsquelle, von der die Quellen der K.I.s abgespalten werden
+     */
+    private PuzzleGenerator(double strengthX, double strengthO, int openingMoves, SplittableRandom random) {
+        if(openingMoves < 0 || openingMoves > 9) {
+            throw new IllegalArgumentException("openingMoves must be between 0 and 9");
+        }
+        this.aiX = new AI(strengthX, AI.sharedTable(), random.split());
+        this.aiO = new AI(strengthO, AI.sharedTable(), random.split());
+        this.openingMoves = openingMoves;
+    }
+
+    /**
+     * Erzeugt ein einzelnes Raetsel. Zusaetzlich zur Eroeffnung wird das Spiel von beiden K.I.s perfekt zu Ende gespielt,
+     * damit das Ergebnis angezeigt werden kann.
+     * @return Das neue Raetsel
+     */
+    public Puzzle next() {
+        simulate();
+        int playerToMove = openingMoves % 2 == 0 ? 1 : 2;
+        int[] finalBoard = board.clone();
+        int winner = playMoves(finalBoard, playerToMove == 1, 9, perfect, perfect);
+        return new Puzzle(board.clone(), playerToMove, winner, finalBoard);
+    }
+
+    /**
+     * Erzeugt count Raetsel und schreibt sie in die uebergebenen Arrays. Es werden dabei keine Objekte angelegt.
+     * @param positions Die Eroeffnungsstellungen als Base-3 Index (Feld i zaehlt board[i] * 3^i)
+     * @param winners Die Gewinner bei perfektem Spiel (0: Keiner; 1: X; 2: O)
+     * @param offset Der erste zu beschreibende Index der Arrays
+     * @param count Die Anzahl der zu erzeugenden Raetsel
+     */
+    public void generate(int[] positions, byte[] winners, int offset, int count) {
+        for(int i = offset; i < offset + count; i++) {
+            winners[i] = (byte) simulate();
+            positions[i] = SolutionTable.index(board);
+        }
+    }
+
+    /**
+     * Erzeugt count Raetsel parallel auf allen Prozessorkernen. Jeder Thread benutzt dabei einen eigenen Generator.
+     * @param strengthX Die Faehigkeitsstufe der K.I. fuer X (0: random; 1: perfekt)
+     * @param strengthO Die Faehigkeitsstufe der K.I. fuer O (0: random; 1: perfekt)
+     * @param openingMoves Die Anzahl der Zuege der Eroeffnung, X beginnt
+     * @param positions Die Eroeffnungsstellungen als Base-3 Index, es werden die ersten count Eintraege beschrieben
+     * @param winners Die Gewinner bei perfektem Spiel, es werden die ersten count Eintraege beschrieben
+     * @param count Die Anzahl der zu erzeugenden Raetsel
+     */
+    public static void generateParallel(double strengthX, double strengthO, int openingMoves,
+                                        int[] positions, byte[] winners, int count) {
+        generateParallel(strengthX, strengthO, openingMoves, positions, winners, count, new SplittableRandom().nextLong());
+    }
+
+    /**
+     * Erzeugt count Raetsel parallel auf allen Prozessorkernen. Die Raetsel werden in Bloecke fester Groesse (CHUNK_SIZE)
+     * aufgeteilt, deren Startwerte vorab der Reihe nach aus seed abgeleitet werden. Jeder Block wird von einem eigenen
+     * Generator erzeugt, das Ergebnis ist daher fuer denselben Startwert immer gleich, unabhaengig von der Anzahl der Threads.
+     * @param strengthX Die Faehigkeitsstufe der K.I. fuer X (0: random; 1: perfekt)
+     * @param strengthO Die Faehigkeitsstufe der K.I. fuer O (0: random; 1: perfekt)
+     * @param openingMoves Die Anzahl der Zuege der Eroeffnung, X beginnt
+     * @param positions Die Eroeffnungsstellungen als Base-3 Index, es werden die ersten count Eintraege beschrieben
+     * @param winners Die Gewinner bei perfektem Spiel, es werden die ersten count Eintraege beschrieben
+     * @param count Die Anzahl der zu erzeugenden Raetsel
+     * @param seed Der Startwert
+     */
+    public static void generateParallel(double strengthX, double strengthO, int openingMoves,
+                                        int[] positions, byte[] winners, int count, long seed) {
+        int chunks = (count + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        SplittableRandom random = new SplittableRandom(seed);
+        long[] chunkSeeds = new long[chunks];
+        for(int chunk = 0; chunk < chunks; chunk++) {
+            chunkSeeds[chunk] = random.nextLong();
+        }
+        IntStream.range(0, chunks).parallel().forEach(chunk -> {
+            int offset = chunk * CHUNK_SIZE;
+            new PuzzleGenerator(strengthX, strengthO, openingMoves, chunkSeeds[chunk])
+                    .generate(positions, winners, offset, Math.min(CHUNK_SIZE, count - offset));
+        });
+    }
+
+    /**
+     * Spielt eine neue Eroeffnung auf dem wiederverwendeten Spielbrett und bestimmt den Ausgang bei perfektem Spiel
+     * @return Der Gewinner bei perfektem Spiel (0: Keiner; 1: X; 2: O)
+     */
+    private int simulate() {
+        for(int i = 0; i < board.length; i++) {
+            board[i] = 0;
+        }
+        playMoves(board, true, openingMoves, aiX, aiO);
+        return perfectPlayWinner(board, openingMoves % 2 == 0 ? 1 : 2);
+    }
+
+    /**
+     * Spielt die uebergebene Anzahl an Zuegen abwechselnd mit den beiden K.I.s. Es wird vorher aufgehoert,
+     * sobald ein Spieler gewonnen hat oder das Spielbrett voll ist.
+     * @param board Das Spielbrett, auf dem gespielt wird (0: frei; 1: X; 2: O)
+     * @param xToStart Der Parameter gibt an ob X den naechsten Zug macht oder nicht
+     * @param movesToMake Die maximale Anzahl an Zuegen
+     * @param aiX Die K.I. fuer X
+     * @param aiO Die K.I. fuer O
+     * @return Der Gewinner nach den gespielten Zuegen (0: Keiner; 1: X; 2: O)
+     */
+    public static int playMoves(int[] board, boolean xToStart, int movesToMake, AI aiX, AI aiO) {
+        int player = xToStart ? 1 : 2;
+        for(int i = 0; i < movesToMake; i++) {
+            if(AI.checkForWinner(board) != 0 || isFull(board)) break;
+            int move = (player == 1 ? aiX : aiO).doMove(board, player);
+            board[move] = player;
+            player = player % 2 + 1;
+        }
+        return AI.checkForWinner(board);
+    }
+
+    /**
+     * Bestimmt den Gewinner bei perfektem Spiel beider Spieler. Steht das Ergebnis schon fest, wird es direkt geliefert,
+     * ansonsten wird der Wert der Stellung aus der Loesungstabelle gelesen (bzw. das Spiel ohne Tabelle zu Ende gespielt).
+     * @param board Das Spielbrett (0: frei; 1: X; 2: O), es wird nicht veraendert
+     * @param player Der Spieler der am Zug ist (1: X; 2: O)
+     * @return Der Gewinner bei perfektem Spiel (0: Keiner; 1: X; 2: O)
+     */
+    public static int perfectPlayWinner(int[] board, int player) {
+        int winner = AI.checkForWinner(board);
+        if(winner != 0 || isFull(board)) return winner;
+
+        byte[] solutions = SolutionTable.get();
+        if(solutions != null) {
+            int value = SolutionTable.value(solutions, board, player);
+            if(value > 0) return player;
+            if(value < 0) return player % 2 + 1;
+            return 0;
+        }
+        AI perfect = new AI(1);
+        return playMoves(board.clone(), player == 1, 9, perfect, perfect);
+    }
+
+    /**
+     * Ueberprueft, ob das Spielbrett voll ist und keine Zuege mehr getaetigt werden koennen
+     * @param board Das aktuelle Spielbrett
+     * @return true, wenn das Spielbrett voll ist. Wenn es freie Positionen gibt false
+     */
+    private static boolean isFull(int[] board) {
+        for (int cell : board) {
+            if (cell == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,222 @@
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Index aller Eroeffnungsstellungen, die zwei K.I.s mit den uebergebenen Faehigkeitsstufen nach einer festen Anzahl von
+ * Zuegen erreichen koennen, zusammen mit der exakten Wahrscheinlichkeit jeder Stellung.
+ * Die Wahrscheinlichkeiten werden einmalig Zug um Zug berechnet: die K.I. waehlt mit Wahrscheinlichkeit strength den
+ * besten Zug und sonst gleichverteilt ein freies Feld (siehe AI.doMove). Die Stellungen werden nach dem Ausgang bei
+ * perfektem Spiel in zwei Eimer (X gewinnt / X gewinnt nicht) aufgeteilt, fuer jeden Eimer und fuer alle Stellungen gibt
+ * es eine Alias Tabelle. Ein Raetsel wird damit in O(1) ohne Suche gezogen, entweder mit derselben Verteilung wie beim
+ * Simulieren mit PuzzleGenerator oder mit einem vorgegebenen Anteil an Raetseln, bei denen X gewinnt.
+ * Ein Pool ist nach dem Erstellen unveraenderlich und kann von mehreren Threads gleichzeitig benutzt werden.
+ */
+public class PuzzlePool {
+    /**
+     * Bereits erstellte Pools je Faehigkeitsstufen und Anzahl der Zuege
+     */
+    private static final Map<String, PuzzlePool> POOLS = new ConcurrentHashMap<>();
+
+    /**
+     * Die Anzahl der Zuege der Eroeffnung
+     */
+    private final int openingMoves;
+    /**
+     * Die erreichbaren Stellungen je Eimer (0: X gewinnt nicht; 1: X gewinnt) als Base-3 Index
+     */
+    private final int[][] positions = new int[2][];
+    /**
+     * Die zu Ende gespielten Spielbretter zu den Stellungen als Base-3 Index
+     */
+    private final int[][] finals = new int[2][];
+    /**
+     * Die Gewinner bei perfektem Spiel zu den Stellungen (0: Keiner; 1: X; 2: O)
+     */
+    private final byte[][] winners = new byte[2][];
+    /**
+     * Die Alias Tabellen je Eimer (null, wenn der Eimer leer ist)
+     */
+    private final AliasTable[] buckets = new AliasTable[2];
+    /**
+     * Die Wahrscheinlichkeit, dass X bei einem simulierten Raetsel gewinnt
+     */
+    private final double xWinProbability;
+
+    /**
+     * Liefert den Pool fuer die uebergebenen Faehigkeitsstufen; jeder Pool wird nur einmal erstellt
+     * @param strengthX Die Faehigkeitsstufe der K.I. fuer X (0: random; 1: perfekt)
+     * @param strengthO Die Faehigkeitsstufe der K.I. fuer O (0: random; 1: perfekt)
+     * @param openingMoves Die Anzahl der Zuege der Eroeffnung, X beginnt
+     * @return Der Pool
+     */
+    public static PuzzlePool get(double strengthX, double strengthO, int openingMoves) {
+        return POOLS.computeIfAbsent(strengthX + "/" + strengthO + "/" + openingMoves,
+                key -> new PuzzlePool(strengthX, strengthO, openingMoves));
+    }
+
+    /**
+     * Erstellt den Pool. Dafuer wird die Wahrscheinlichkeit aller 3^9 Spielbretter Zug um Zug berechnet.
+     * @param strengthX Die Faehigkeitsstufe der K.I. fuer X (0: random; 1: perfekt)
+     * @param strengthO Die Faehigkeitsstufe der K.I. fuer O (0: random; 1: perfekt)
+     * @param openingMoves Die Anzahl der Zuege der Eroeffnung, X beginnt
+     */
+    public PuzzlePool(double strengthX, double strengthO, int openingMoves) {
+        if(openingMoves < 0 || openingMoves > 9) {
+            throw new IllegalArgumentException("openingMoves must be between 0 and 9");
+        }
+        long start = Metrics.start();
+        this.openingMoves = openingMoves;
+        AI perfect = new AI(1);
+
+        double[] probabilities = new double[TranspositionTable.POSITIONS];
+        probabilities[0] = 1;
+        int[] board = new int[9];
+        for(int move = 0; move < openingMoves; move++) {
+            int player = move % 2 == 0 ? 1 : 2;
+            double randomShare = randomShare(player == 1 ? strengthX : strengthO);
+            double[] next = new double[probabilities.length];
+            for(int index = 0; index < probabilities.length; index++) {
+                double probability = probabilities[index];
+                if(probability == 0) continue;
+                BoardCodec.decode(index, board);
+                int empty = countEmpty(board);
+                if(AI.checkForWinner(board) != 0 || empty == 0) {
+                    // Wie bei PuzzleGenerator.playMoves endet die Eroeffnung vorzeitig
+                    next[index] += probability;
+                    continue;
+                }
+                int best = perfect.doMove(board, player);
+                int power = 1;
+                for(int cell = 0; cell < 9; cell++, power *= 3) {
+                    if(board[cell] != 0) continue;
+                    double share = randomShare / empty + (cell == best ? 1 - randomShare : 0);
+                    next[index + player * power] += probability * share;
+                }
+            }
+            probabilities = next;
+        }
+
+        int playerToMove = openingMoves % 2 == 0 ? 1 : 2;
+        int[] counts = new int[2];
+        int[] reachable = new int[probabilities.length];
+        int[] bucketOf = new int[probabilities.length];
+        int[] finalOf = new int[probabilities.length];
+        byte[] winnerOf = new byte[probabilities.length];
+        int reachableCount = 0;
+        double xWins = 0;
+        for(int index = 0; index < probabilities.length; index++) {
+            if(probabilities[index] == 0) continue;
+            BoardCodec.decode(index, board);
+            int winner = PuzzleGenerator.playMoves(board, playerToMove == 1, 9, perfect, perfect);
+            int bucket = winner == 1 ? 1 : 0;
+            if(bucket == 1) xWins += probabilities[index];
+            reachable[reachableCount++] = index;
+            bucketOf[index] = bucket;
+            finalOf[index] = SolutionTable.index(board);
+            winnerOf[index] = (byte) winner;
+            counts[bucket]++;
+        }
+        this.xWinProbability = xWins;
+
+        double[][] weights = new double[2][];
+        for(int bucket = 0; bucket < 2; bucket++) {
+            positions[bucket] = new int[counts[bucket]];
+            finals[bucket] = new int[counts[bucket]];
+            winners[bucket] = new byte[counts[bucket]];
+            weights[bucket] = new double[counts[bucket]];
+        }
+        int[] filled = new int[2];
+        for(int i = 0; i < reachableCount; i++) {
+            int index = reachable[i];
+            int bucket = bucketOf[index];
+            int slot = filled[bucket]++;
+            positions[bucket][slot] = index;
+            finals[bucket][slot] = finalOf[index];
+            winners[bucket][slot] = winnerOf[index];
+            weights[bucket][slot] = probabilities[index];
+        }
+        for(int bucket = 0; bucket < 2; bucket++) {
+            if(counts[bucket] > 0) buckets[bucket] = new AliasTable(weights[bucket]);
+        }
+        Metrics.phase("puzzlePool.build", start);
+    }
+
+    /**
+     * Zieht ein Raetsel mit derselben Verteilung, mit der PuzzleGenerator es durch Simulieren erzeugen wuerde
+     * @param random Die Zufallsquelle
+     * @return Das Raetsel
+     */
+    public Puzzle sample(SplittableRandom random) {
+        return sample(random, xWinProbability);
+    }
+
+    /**
+     * Zieht ein Raetsel, bei dem X mit der Wahrscheinlichkeit xWinShare gewinnt. Innerhalb der beiden Ausgaenge werden die
+     * Stellungen so gewichtet, wie oft die K.I.s sie erreichen. Kann ein Ausgang mit diesen Faehigkeitsstufen gar nicht
+     * auftreten, wird immer der andere gezogen.
+     * @param random Die Zufallsquelle
+     * @param xWinShare Der gewuenschte Anteil der Raetsel, bei denen X gewinnt (0 bis 1)
+     * @return Das Raetsel
+     */
+    public Puzzle sample(SplittableRandom random, double xWinShare) {
+        int bucket = random.nextDouble() < xWinShare ? 1 : 0;
+        if(buckets[bucket] == null) bucket = 1 - bucket;
+        return sample(random, bucket == 1);
+    }
+
+    /**
+     * Zieht ein Raetsel mit dem uebergebenen Ausgang
+     * @param random Die Zufallsquelle
+     * @param xWins true fuer ein Raetsel, bei dem X gewinnt, false fuer eines, bei dem X nicht gewinnt
+     * @return Das Raetsel
+     * @throws IllegalStateException wenn die K.I.s keine Stellung mit diesem Ausgang erreichen koennen
+     */
+    public Puzzle sample(SplittableRandom random, boolean xWins) {
+        long start = Metrics.start();
+        int bucket = xWins ? 1 : 0;
+        if(buckets[bucket] == null) {
+            throw new IllegalStateException("No reachable puzzle with xWins=" + xWins);
+        }
+        int slot = buckets[bucket].sample(random);
+        Puzzle puzzle = new Puzzle(BoardCodec.decode(positions[bucket][slot]), openingMoves % 2 == 0 ? 1 : 2,
+                winners[bucket][slot], BoardCodec.decode(finals[bucket][slot]));
+        Metrics.phase("puzzlePool.sample", start);
+        return puzzle;
+    }
+
+    /**
+     * Liefert die Wahrscheinlichkeit, dass X bei einem mit PuzzleGenerator simulierten Raetsel gewinnt
+     * @return Die Wahrscheinlichkeit (0 bis 1)
+     */
+    public double getXWinProbability() {
+        return xWinProbability;
+    }
+
+    /**
+     * Liefert die Anzahl der erreichbaren Stellungen
+     * @param xWins true fuer die Stellungen, bei denen X gewinnt, sonst die uebrigen
+     * @return Die Anzahl der Stellungen mit diesem Ausgang
+     */
+    public int size(boolean xWins) {
+        return positions[xWins ? 1 : 0].length;
+    }
+
+    /**
+     * Wahrscheinlichkeit, dass die K.I. einen zufaelligen Zug macht
+     * @param strength Die Faehigkeitsstufe der K.I.
+     * @return Die Wahrscheinlichkeit eines zufaelligen Zuges
+     */
+    private static double randomShare(double strength) {
+        if(strength == 1) return 0;
+        return Math.min(1, Math.max(0, 1 - strength));
+    }
+
+    private static int countEmpty(int[] board) {
+        int empty = 0;
+        for(int cell : board) {
+            if(cell == 0) empty++;
+        }
+        return empty;
+    }
+}
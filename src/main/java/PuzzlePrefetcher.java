@@ -0,0 +1,147 @@
+import java.util.SplittableRandom;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Erzeugt Raetsel im Hintergrund und haelt eine begrenzte Anzahl fertiger Raetsel bereit, damit die naechste Runde
+ * ohne Wartezeit angezeigt werden kann. Die Raetsel werden von einem eigenen Daemon Thread erzeugt, der blockiert,
+ * sobald die Warteschlange voll ist.
+ * Die Raetsel werden aus dem PuzzlePool der Faehigkeitsstufen gezogen und haben daher dieselbe Verteilung wie beim
+ * Simulieren mit PuzzleGenerator, ohne dass pro Raetsel gesucht werden muss.
+ * Werden die Faehigkeitsstufen geaendert, werden alle bereits erzeugten Raetsel verworfen.
+ * Mit eingeschalteten Metrics werden die Aufrufe von next getrennt nach vorraetigem ("prefetcher.hit") und direkt erzeugtem
+ * Raetsel ("prefetcher.miss") gemessen, ausserdem die Zeit, die der Thread an der vollen Warteschlange wartet
+ * ("prefetcher.queueWait").
+ */
+public class PuzzlePrefetcher {
+    /**
+     * Die fertigen Raetsel zusammen mit den Faehigkeitsstufen, mit denen sie erzeugt wurden
+     */
+    private final BlockingQueue<Prefetched> queue;
+    /**
+     * Der Thread, der die Raetsel erzeugt
+     */
+    private final ExecutorService executor;
+    /**
+     * Die aktuell eingestellten Faehigkeitsstufen
+     */
+    private volatile Strengths strengths;
+
+    /**
+     * Erstellt den Prefetcher und startet die Erzeugung im Hintergrund
+     * @param capacity Die maximale Anzahl bereitgehaltener Raetsel
+     * @param strengthX Die Faehigkeitsstufe der K.I. fuer X (0: random; 1: perfekt)
+     * @param strengthO Die Faehigkeitsstufe der K.I. fuer O (0: random; 1: perfekt)
+     */
+    public PuzzlePrefetcher(int capacity, double strengthX, double strengthO) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.strengths = new Strengths(strengthX, strengthO);
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "puzzle-prefetcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.execute(this::produce);
+    }
+
+    /**
+     * Aendert die Faehigkeitsstufen fuer alle folgenden Raetsel und verwirft die bereits erzeugten Raetsel
+     * @param strengthX Die Faehigkeitsstufe der K.I. fuer X (0: random; 1: perfekt)
+     * @param strengthO Die Faehigkeitsstufe der K.I. fuer O (0: random; 1: perfekt)
+     */
+    public void setStrengths(double strengthX, double strengthO) {
+        Strengths current = strengths;
+        if(current.x == strengthX && current.o == strengthO) return;
+        strengths = new Strengths(strengthX, strengthO);
+        queue.clear();
+    }
+
+    /**
+     * Liefert das naechste Raetsel. Ist gerade keines vorraetig, wird es direkt im aufrufenden Thread erzeugt.
+     * @return Das naechste Raetsel
+     */
+    public Puzzle next() {
+        long start = Metrics.start();
+        Strengths current = strengths;
+        Prefetched prefetched;
+        while((prefetched = queue.poll()) != null) {
+            if(prefetched.strengths == current) {
+                Metrics.phase("prefetcher.hit", start);
+                return prefetched.puzzle;
+            }
+        }
+        Puzzle puzzle = pool(current).sample(new SplittableRandom());
+        Metrics.phase("prefetcher.miss", start);
+        return puzzle;
+    }
+
+    /**
+     * Beendet die Erzeugung im Hintergrund
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Erzeugt so lange Raetsel, bis der Thread unterbrochen wird. Fuer jede Einstellung der Faehigkeitsstufen wird der
+     * passende Pool benutzt.
+     */
+    private void produce() {
+        SplittableRandom random = new SplittableRandom();
+        Strengths current = null;
+        PuzzlePool pool = null;
+        try {
+            while(!Thread.currentThread().isInterrupted()) {
+                if(current != strengths) {
+                    current = strengths;
+                    pool = pool(current);
+                }
+                Puzzle puzzle = pool.sample(random);
+                if(current == strengths) {
+                    long start = Metrics.start();
+                    queue.put(new Prefetched(current, puzzle));
+                    Metrics.phase("prefetcher.queueWait", start);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Liefert den Pool fuer Eroeffnungen mit PuzzleGenerator.DEFAULT_OPENING_MOVES Zuegen
+     * @param strengths Die Faehigkeitsstufen
+     * @return Der Pool
+     */
+    private static PuzzlePool pool(Strengths strengths) {
+        return PuzzlePool.get(strengths.x, strengths.o, PuzzleGenerator.DEFAULT_OPENING_MOVES);
+    }
+
+    /**
+     * Die Faehigkeitsstufen beider K.I.s
+     */
+    private static class Strengths {
+        private final double x;
+        private final double o;
+
+        Strengths(double x, double o) {
+            this.x = x;
+            this.o = o;
+        }
+    }
+
+    /**
+     * Ein fertiges Raetsel und die Faehigkeitsstufen, mit denen es erzeugt wurde
+     */
+    private static class Prefetched {
+        private final Strengths strengths;
+        private final Puzzle puzzle;
+
+        Prefetched(Strengths strengths, Puzzle puzzle) {
+            this.strengths = strengths;
+            this.puzzle = puzzle;
+        }
+    }
+}
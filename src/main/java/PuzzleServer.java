@@ -0,0 +1,450 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * HTTP Server ohne Oberflaeche, der Raetsel und Bewertungen von Stellungen an beliebig viele Clients ausliefert.
+ * Alle Antworten sind JSON, Spielbretter werden als 9 Zeichen lange Zeichenkette uebertragen ('X', 'O' bzw. '.' fuer ein
+ * freies Feld, Feld 0 zuerst):
+ * <ul>
+ *     <li>GET /puzzle?x=0.2&amp;o=0.2 liefert ein neues Raetsel mit den Faehigkeitsstufen der beiden K.I.s (Standard 0.2,
+ *     wie bei den Schiebereglern des Spiels auf Zehntel gerundet)</li>
+ *     <li>POST /answer?id=...&amp;xWins=true beantwortet ein Raetsel und liefert das Ergebnis bei perfektem Spiel</li>
+ *     <li>GET /evaluate?board=X...O....&amp;player=1 liefert den besten Zug ueber AI.doMove und den Gewinner bei perfektem Spiel</li>
+ * </ul>
+ * Jede Anfrage wird auf einem eigenen virtuellen Thread bearbeitet, wenn die Java Version virtuelle Threads anbietet
+ * (ab Java 21), sonst auf einem festen Pool von Threads. Raetsel werden in O(1) aus dem PuzzlePool gezogen und AI.doMove
+ * liest mit Faehigkeitsstufe 1 nur die Loesungstabelle. Da die Faehigkeitsstufen gerundet werden, gibt es nur
+ * (STRENGTH_STEPS + 1)^2 Pools; sie werden beim Start im Hintergrund erstellt, sodass nur Anfragen, die vor dem Ende davon
+ * eintreffen, auf die Erstellung ihres Pools warten. Beliebige Faehigkeitsstufen eines Clients koennen so weder Pools ohne
+ * Ende anlegen noch Anfragen mit deren Erstellung aufhalten.
+ * Offene Raetsel werden bis zu ihrer Beantwortung gespeichert, standardmaessig hoechstens MAX_OPEN_PUZZLES gleichzeitig.
+ * Ein Raetsel, das nicht innerhalb seiner Gueltigkeit (Standard DEFAULT_PUZZLE_TTL_MINUTES) beantwortet wird, verfaellt:
+ * ein Daemon Thread entfernt verfallene Raetsel regelmaessig und gibt ihren Platz frei, sodass Clients, die nie antworten,
+ * den Server nicht dauerhaft fuellen.
+ */
+public class PuzzleServer {
+    /**
+     * Der Standardport, wenn beim Start keiner angegeben wird
+     */
+    public static final int DEFAULT_PORT = 8080;
+    /**
+     * Die Standardanzahl gleichzeitig offener Raetsel; darueber hinaus antwortet /puzzle mit 503
+     */
+    static final int MAX_OPEN_PUZZLES = 1_000_000;
+    /**
+     * Die Anzahl der Stufen zwischen 0 und 1, auf die die Faehigkeitsstufen gerundet werden (wie die Schieberegler des Spiels)
+     */
+    static final int STRENGTH_STEPS = 10;
+    /**
+     * Die Standardgueltigkeit eines offenen Raetsels in Minuten
+     */
+    public static final long DEFAULT_PUZZLE_TTL_MINUTES = 10;
+    /**
+     * Die Laenge der Warteschlange fuer noch nicht angenommene Verbindungen
+     */
+    private static final int BACKLOG = 4096;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    /**
+     * Der Thread, der verfallene Raetsel entfernt
+     */
+    private final ScheduledExecutorService sweeper;
+    /**
+     * Die Gueltigkeit eines offenen Raetsels in Nanosekunden
+     */
+    private final long puzzleTtlNanos;
+    /**
+     * Die maximale Anzahl gleichzeitig offener Raetsel
+     */
+    private final int maxOpenPuzzles;
+    /**
+     * Die offenen Raetsel je Id
+     */
+    private final Map<Long, OpenPuzzle> openPuzzles = new ConcurrentHashMap<>();
+    /**
+     * Die Anzahl der offenen Raetsel; wird getrennt gezaehlt, da ConcurrentHashMap.size nicht atomar mit put ist
+     */
+    private final AtomicInteger openPuzzleCount = new AtomicInteger();
+    private final AtomicLong nextId = new AtomicLong();
+    /**
+     * Die Anzahl der verfallenen Raetsel
+     */
+    private final AtomicLong expiredPuzzles = new AtomicLong();
+
+    /**
+     * Erstellt den Server mit der Standardgueltigkeit fuer offene Raetsel, ohne ihn zu starten
+     * @param address Die Adresse, an die der Server gebunden wird (Port 0: freien Port waehlen)
+     * @throws IOException wenn der Port nicht gebunden werden kann
+     */
+    public PuzzleServer(InetSocketAddress address) throws IOException {
+        this(address, DEFAULT_PUZZLE_TTL_MINUTES, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Erstellt den Server, ohne ihn zu starten
+     * @param address Die Adresse, an die der Server gebunden wird (Port 0: freien Port waehlen)
+     * @param puzzleTtl Die Zeit, nach der ein nicht beantwortetes Raetsel verfaellt
+     * @param unit Die Einheit von puzzleTtl
+     * @throws IOException wenn der Port nicht gebunden werden kann
+     */
+    public PuzzleServer(InetSocketAddress address, long puzzleTtl, TimeUnit unit) throws IOException {
+        this(address, puzzleTtl, unit, MAX_OPEN_PUZZLES);
+    }
+
+    /**
+     * Erstellt den Server mit einer anderen Hoechstzahl offener Raetsel, ohne ihn zu starten
+     * @param address Die Adresse, an die der Server gebunden wird (Port 0: freien Port waehlen)
+     * @param puzzleTtl Die Zeit, nach der ein nicht beantwortetes Raetsel verfaellt
+     * @param unit Die Einheit von puzzleTtl
+     * @param maxOpenPuzzles Die maximale Anzahl gleichzeitig offener Raetsel
+     * @throws IOException wenn der Port nicht gebunden werden kann
+     */
+    PuzzleServer(InetSocketAddress address, long puzzleTtl, TimeUnit unit, int maxOpenPuzzles) throws IOException {
+        if(puzzleTtl <= 0) throw new IllegalArgumentException("puzzleTtl must be positive");
+        if(maxOpenPuzzles < 1) throw new IllegalArgumentException("maxOpenPuzzles must be at least 1");
+        this.puzzleTtlNanos = unit.toNanos(puzzleTtl);
+        this.maxOpenPuzzles = maxOpenPuzzles;
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "puzzle-server-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.server = HttpServer.create(address, BACKLOG);
+        this.executor = newRequestExecutor();
+        server.setExecutor(executor);
+        server.createContext("/puzzle", exchange -> handle(exchange, "GET", this::puzzle));
+        server.createContext("/answer", exchange -> handle(exchange, "POST", this::answer));
+        server.createContext("/evaluate", exchange -> handle(exchange, "GET", this::evaluate));
+    }
+
+    /**
+     * Startet die Bearbeitung von Anfragen
+     */
+    public void start() {
+        server.start();
+        sweeper.execute(PuzzleServer::preparePools);
+        // Ein Raetsel verfaellt damit spaetestens ein Viertel seiner Gueltigkeit zu spaet
+        long period = Math.max(TimeUnit.MILLISECONDS.toNanos(10), puzzleTtlNanos / 4);
+        sweeper.scheduleAtFixedRate(this::removeExpiredPuzzles, period, period, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Beendet den Server. Laufende Anfragen werden noch bis zu einer Sekunde lang zu Ende bearbeitet.
+     */
+    public void stop() {
+        server.stop(1);
+        sweeper.shutdownNow();
+        executor.shutdown();
+        try {
+            executor.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Liefert die Adresse, an die der Server gebunden ist, z.B. um den gewaehlten Port zu erfahren
+     * @return Die Adresse
+     */
+    public InetSocketAddress getAddress() {
+        return server.getAddress();
+    }
+
+    /**
+     * Liefert die Anzahl der offenen Raetsel
+     * @return Die Anzahl der ausgelieferten, aber noch nicht beantworteten Raetsel
+     */
+    public int getOpenPuzzles() {
+        return openPuzzleCount.get();
+    }
+
+    /**
+     * Liefert die Anzahl der Raetsel, die seit dem Start verfallen sind
+     * @return Die Anzahl der nicht rechtzeitig beantworteten Raetsel
+     */
+    public long getExpiredPuzzles() {
+        return expiredPuzzles.get();
+    }
+
+    /**
+     * Erstellt die Pools aller moeglichen Faehigkeitsstufen, sofern sie noch nicht existieren
+     */
+    private static void preparePools() {
+        for(int x = 0; x <= STRENGTH_STEPS && !Thread.currentThread().isInterrupted(); x++) {
+            for(int o = 0; o <= STRENGTH_STEPS; o++) {
+                PuzzlePool.get((double) x / STRENGTH_STEPS, (double) o / STRENGTH_STEPS, PuzzleGenerator.DEFAULT_OPENING_MOVES);
+            }
+        }
+    }
+
+    /**
+     * Entfernt alle verfallenen Raetsel und gibt ihre Plaetze frei. Ein Raetsel, das gleichzeitig beantwortet wird, wird
+     * durch remove(key, value) nur einmal gezaehlt.
+     */
+    void removeExpiredPuzzles() {
+        long now = System.nanoTime();
+        for(Map.Entry<Long, OpenPuzzle> entry : openPuzzles.entrySet()) {
+            if(entry.getValue().isExpired(now) && openPuzzles.remove(entry.getKey(), entry.getValue())) {
+                openPuzzleCount.decrementAndGet();
+                expiredPuzzles.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Erstellt den Executor fuer die Anfragen: ab Java 21 einen virtuellen Thread pro Anfrage, sonst einen festen Pool.
+     * Die Methode wird per Reflection gesucht, damit das Programm weiterhin mit Java 17 uebersetzt werden kann.
+     * @return Der Executor
+     */
+    static ExecutorService newRequestExecutor() {
+        try {
+            Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) method.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            AtomicInteger threads = new AtomicInteger();
+            return Executors.newFixedThreadPool(Math.max(2, 2 * Runtime.getRuntime().availableProcessors()), runnable -> {
+                Thread thread = new Thread(runnable, "puzzle-server-" + threads.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * GET /puzzle: zieht ein neues Raetsel und merkt es sich unter einer neuen Id
+     */
+    private Response puzzle(Map<String, String> parameters) {
+        double strengthX = parseStrength(parameters.get("x"));
+        double strengthO = parseStrength(parameters.get("o"));
+        if(openPuzzleCount.incrementAndGet() > maxOpenPuzzles) {
+            openPuzzleCount.decrementAndGet();
+            return Response.error(503, "too many open puzzles");
+        }
+        Puzzle puzzle = PuzzlePool.get(strengthX, strengthO, PuzzleGenerator.DEFAULT_OPENING_MOVES).sample(new SplittableRandom());
+        long id = nextId.incrementAndGet();
+        openPuzzles.put(id, new OpenPuzzle(puzzle, System.nanoTime() + puzzleTtlNanos));
+        return Response.ok("{\"id\":" + id
+                + ",\"board\":\"" + formatBoard(puzzle.getBoard())
+                + "\",\"playerToMove\":" + puzzle.getPlayerToMove() + "}");
+    }
+
+    /**
+     * POST /answer: beantwortet ein offenes Raetsel und entfernt es
+     */
+    private Response answer(Map<String, String> parameters) {
+        long id = parseLong(parameters.get("id"), "id");
+        String xWinsParameter = parameters.get("xWins");
+        if(!"true".equals(xWinsParameter) && !"false".equals(xWinsParameter)) {
+            throw new IllegalArgumentException("xWins must be true or false");
+        }
+        OpenPuzzle open = openPuzzles.remove(id);
+        if(open == null) return Response.error(404, "unknown puzzle " + id);
+        openPuzzleCount.decrementAndGet();
+        if(open.isExpired(System.nanoTime())) {
+            // Noch nicht vom Sweeper entfernt, aber bereits verfallen
+            expiredPuzzles.incrementAndGet();
+            return Response.error(404, "puzzle " + id + " expired");
+        }
+        Puzzle puzzle = open.puzzle;
+
+        boolean correct = Boolean.parseBoolean(xWinsParameter) == puzzle.xWins();
+        return Response.ok("{\"correct\":" + correct
+                + ",\"winner\":" + puzzle.getWinner()
+                + ",\"finalBoard\":\"" + formatBoard(puzzle.getFinalBoard()) + "\"}");
+    }
+
+    /**
+     * GET /evaluate: bestimmt den besten Zug und den Gewinner bei perfektem Spiel
+     */
+    private Response evaluate(Map<String, String> parameters) {
+        int[] board = parseBoard(parameters.get("board"));
+        int player = (int) parseLong(parameters.get("player"), "player");
+        if(player != 1 && player != 2) throw new IllegalArgumentException("player must be 1 or 2");
+
+        int winner = AI.checkForWinner(board);
+        boolean full = AI.toBitboard(board, 0) == 0;
+        int move = winner != 0 || full ? -1 : new AI(1).doMove(board, player);
+        return Response.ok("{\"move\":" + move
+                + ",\"winner\":" + PuzzleGenerator.perfectPlayWinner(board, player) + "}");
+    }
+
+    /**
+     * Bearbeitet eine Anfrage: prueft die Methode, liest die Parameter und schreibt die Antwort
+     * @param exchange Die Anfrage
+     * @param method Die erwartete HTTP Methode
+     * @param handler Die Bearbeitung der Parameter
+     */
+    private void handle(HttpExchange exchange, String method, Handler handler) throws IOException {
+        long start = Metrics.start();
+        Response response;
+        try {
+            if(!method.equals(exchange.getRequestMethod())) {
+                response = Response.error(405, method + " expected");
+            } else {
+                response = handler.handle(parseQuery(exchange.getRequestURI().getRawQuery()));
+            }
+        } catch (IllegalArgumentException e) {
+            response = Response.error(400, e.getMessage());
+        }
+
+        byte[] body = response.body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(response.status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+        if(start != 0) Metrics.phase("server" + exchange.getHttpContext().getPath(), start);
+    }
+
+    /**
+     * Liest die Parameter einer Anfrage
+     * @param query Der noch kodierte Query String, null wenn es keinen gibt
+     * @return Die Parameter je Name
+     */
+    static Map<String, String> parseQuery(String query) {
+        Map<String, String> parameters = new HashMap<>();
+        if(query == null || query.isEmpty()) return parameters;
+        for(String pair : query.split("&")) {
+            int separator = pair.indexOf('=');
+            String name = separator < 0 ? pair : pair.substring(0, separator);
+            String value = separator < 0 ? "" : pair.substring(separator + 1);
+            parameters.put(URLDecoder.decode(name, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return parameters;
+    }
+
+    /**
+     * Wandelt ein Spielbrett in die Darstellung als Zeichenkette um
+     * @param board Das Spielbrett (0: frei; 1: X; 2: O)
+     * @return Die Zeichenkette mit 'X', 'O' und '.'
+     */
+    static String formatBoard(int[] board) {
+        char[] cells = new char[board.length];
+        for(int i = 0; i < board.length; i++) {
+            cells[i] = board[i] == 1 ? 'X' : board[i] == 2 ? 'O' : '.';
+        }
+        return new String(cells);
+    }
+
+    /**
+     * Liest ein Spielbrett aus seiner Darstellung als Zeichenkette
+     * @param text Die Zeichenkette mit 9 Zeichen 'X', 'O' und '.' (bzw. '-' oder '_' fuer freie Felder)
+     * @return Das Spielbrett (0: frei; 1: X; 2: O)
+     * @throws IllegalArgumentException wenn die Zeichenkette kein Spielbrett ist
+     */
+    static int[] parseBoard(String text) {
+        if(text == null || text.length() != 9) throw new IllegalArgumentException("board must have 9 cells");
+        int[] board = new int[9];
+        for(int i = 0; i < 9; i++) {
+            switch(Character.toUpperCase(text.charAt(i))) {
+                case 'X': board[i] = 1; break;
+                case 'O': board[i] = 2; break;
+                case '.': case '-': case '_': board[i] = 0; break;
+                default: throw new IllegalArgumentException("invalid cell '" + text.charAt(i) + "'");
+            }
+        }
+        return board;
+    }
+
+    /**
+     * Liest eine Faehigkeitsstufe und rundet sie auf die naechste der STRENGTH_STEPS Stufen, damit sie denselben PuzzlePool
+     * wie der entsprechende Wert des Schiebereglers benutzt
+     */
+    static double parseStrength(String text) {
+        if(text == null) return 0.2;
+        try {
+            double strength = Double.parseDouble(text);
+            if(!(strength >= 0 && strength <= 1)) throw new IllegalArgumentException("strength must be between 0 and 1");
+            return (double) Math.round(strength * STRENGTH_STEPS) / STRENGTH_STEPS;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("invalid strength " + text);
+        }
+    }
+
+    private static long parseLong(String text, String name) {
+        if(text == null) throw new IllegalArgumentException(name + " missing");
+        try {
+            return Long.parseLong(text);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("invalid " + name + " " + text);
+        }
+    }
+
+    /**
+     * Startet den Server
+     * @param args Optional der Port (Standard DEFAULT_PORT) und die Adresse (Standard nur Loopback, "0.0.0.0" fuer alle)
+     * @throws IOException wenn der Port nicht gebunden werden kann
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        InetAddress host = args.length > 1 ? InetAddress.getByName(args[1]) : InetAddress.getLoopbackAddress();
+        Metrics.registerMBean();
+        PuzzleServer server = new PuzzleServer(new InetSocketAddress(host, port));
+        server.start();
+        System.out.println("Puzzle server listening on " + server.getAddress());
+    }
+
+    /**
+     * Bearbeitung der Parameter einer Anfrage
+     */
+    private interface Handler {
+        Response handle(Map<String, String> parameters);
+    }
+
+    /**
+     * Ein ausgeliefertes Raetsel und der Zeitpunkt, zu dem es verfaellt
+     */
+    private static final class OpenPuzzle {
+        private final Puzzle puzzle;
+        private final long expiresAt;
+
+        private OpenPuzzle(Puzzle puzzle, long expiresAt) {
+            this.puzzle = puzzle;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isExpired(long now) {
+            return now - expiresAt >= 0;
+        }
+    }
+
+    /**
+     * Statuscode und JSON Inhalt einer Antwort
+     */
+    private static final class Response {
+        private final int status;
+        private final String body;
+
+        private Response(int status, String body) {
+            this.status = status;
+            this.body = body;
+        }
+
+        static Response ok(String body) {
+            return new Response(200, body);
+        }
+
+        static Response error(int status, String message) {
+            return new Response(status, "{\"error\":\"" + message.replace("\\", "\\\\").replace("\"", "\\\"") + "\"}");
+        }
+    }
+}
@@ -0,0 +1,39 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR Ereignis fuer eine einzelne Suche von AI.search bzw. AI.analyze oder einen Aufruf von AI.doMove, der den Zug aus der
+ * Loesungstabelle liest (dann sind alle Zaehler 0). Das Ereignis wird nur erzeugt, wenn eine JFR Aufzeichnung laeuft, z.B. mit java -XX:StartFlightRecording=filename=search.jfr -jar ...
+ */
+@Name("tictactoeDecider.Search")
+@Label("AI Search")
+@Category("Tic Tac Toe")
+@Description("Bestimmung des besten Zuges durch die Suche bzw. die Loesungstabelle von AI")
+class SearchEvent extends Event {
+    @Label("Player")
+    int player;
+
+    @Label("Move")
+    int move;
+
+    @Label("From Solution Table")
+    boolean solutionTable;
+
+    @Label("Nodes")
+    long nodes;
+
+    @Label("Cutoffs")
+    long cutoffs;
+
+    @Label("Max Depth")
+    int maxDepth;
+
+    @Label("Table Probes")
+    long tableProbes;
+
+    @Label("Table Hits")
+    long tableHits;
+}
@@ -0,0 +1,54 @@
+/**
+ * Das Ergebnis einer Suche der K.I.: der beste Zug, sein Evaluierungswert und die Hauptvariante, also die Zugfolge, die
+ * sich bei bestem Spiel beider Spieler ab dem durchsuchten Spielbrett ergibt
+ */
+public class SearchResult {
+    /**
+     * Der beste Zug (-1 wenn kein Zug moeglich ist)
+     */
+    private final int move;
+    /**
+     * Der Evaluierungswert des besten Zuges aus Sicht des Spielers am Zug
+     */
+    private final int score;
+    /**
+     * Die Hauptvariante, beginnend mit dem besten Zug
+     */
+    private final int[] principalVariation;
+
+    /**
+     * Konstruktor der ein Suchergebnis erstellt
+     * @param move Der beste Zug (-1 wenn kein Zug moeglich ist)
+     * @param score Der Evaluierungswert des besten Zuges aus Sicht des Spielers am Zug
+     * @param principalVariation Die Hauptvariante, beginnend mit dem besten Zug
+     */
+    public SearchResult(int move, int score, int[] principalVariation) {
+        this.move = move;
+        this.score = score;
+        this.principalVariation = principalVariation;
+    }
+
+    /**
+     * Liefert den besten Zug
+     * @return Der Index des besten Zuges im Spielbrett, -1 wenn kein Zug moeglich ist
+     */
+    public int getMove() {
+        return move;
+    }
+
+    /**
+     * Liefert den Evaluierungswert des besten Zuges (100 - Tiefe fuer einen Gewinn, -(100 - Tiefe) fuer eine Niederlage, 0 fuer unentschieden)
+     * @return Der Evaluierungswert aus Sicht des Spielers am Zug
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * Liefert eine Kopie der Hauptvariante
+     * @return Die Felder der Zuege abwechselnd fuer den Spieler am Zug und seinen Gegner, beginnend mit dem besten Zug
+     */
+    public int[] getPrincipalVariation() {
+        return principalVariation.clone();
+    }
+}
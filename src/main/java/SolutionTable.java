@@ -0,0 +1,82 @@
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Vorberechnete Loesungstabelle fuer perfektes Spiel.
+ * Fuer jedes der 3^9 Spielbretter und jeden Spieler am Zug enthaelt die Tabelle den besten Zug und dessen Evaluierungswert,
+ * so wie ihn die MinMax Suche der K.I. liefert. Die Tabelle wird von SolutionTableGenerator erzeugt und beim ersten Zugriff
+ * als Ressource geladen. Ein Eintrag besteht aus 2 Bytes (Zug, Evaluierungswert) und liegt an der Stelle
+ * 2 * (2 * index + player - 1), wobei index der Base-3 Index des Spielbretts ist (Feld i zaehlt board[i] * 3^i).
+ */
+public class SolutionTable {
+    /**
+     * Name der Ressource, in der die Tabelle abgelegt ist
+     */
+    static final String RESOURCE = "/solutions.bin";
+
+    /**
+     * Anzahl der Bytes der Tabelle
+     */
+    static final int SIZE = 2 * 2 * TranspositionTable.POSITIONS;
+
+    /**
+     * Die geladene Tabelle bzw. null, wenn die Ressource nicht vorhanden ist
+     */
+    private static final byte[] TABLE = load();
+
+    private SolutionTable() {
+    }
+
+    /**
+     * Liefert die geladene Tabelle
+     * @return Die Tabelle bzw. null, wenn keine gueltige Tabelle gefunden wurde
+     */
+    static byte[] get() {
+        return TABLE;
+    }
+
+    /**
+     * Berechnet den Base-3 Index des Spielbretts
+     * @param board Das Spielbrett (0: frei; 1: X; 2: O)
+     * @return Der Base-3 Index des Spielbretts
+     */
+    static int index(int[] board) {
+        return BoardCodec.encode(board);
+    }
+
+    /**
+     * Liefert den besten Zug aus der Tabelle
+     * @param table Die Tabelle
+     * @param board Das Spielbrett (0: frei; 1: X; 2: O)
+     * @param player Der Spieler der am Zug ist (1: X; 2: O)
+     * @return Der Index des besten Zuges
+     */
+    static int bestMove(byte[] table, int[] board, int player) {
+        return table[2 * (2 * index(board) + player - 1)];
+    }
+
+    /**
+     * Liefert den Evaluierungswert des besten Zuges aus der Tabelle
+     * @param table Die Tabelle
+     * @param board Das Spielbrett (0: frei; 1: X; 2: O)
+     * @param player Der Spieler der am Zug ist (1: X; 2: O)
+     * @return Der Evaluierungswert aus Sicht des Spielers am Zug (positiv: Gewinn; 0: Unentschieden; negativ: Niederlage)
+     */
+    static int value(byte[] table, int[] board, int player) {
+        return table[2 * (2 * index(board) + player - 1) + 1];
+    }
+
+    /**
+     * Laedt die Tabelle aus der Ressource
+     * @return Die Tabelle bzw. null, wenn die Ressource fehlt oder nicht die erwartete Groesse hat
+     */
+    private static byte[] load() {
+        try (InputStream in = SolutionTable.class.getResourceAsStream(RESOURCE)) {
+            if(in == null) return null;
+            byte[] table = in.readAllBytes();
+            return table.length == SIZE ? table : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,172 @@
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Vorberechnete Werte aller Stellungen eines Spielbretts mit hoechstens 16 Feldern (z.B. 4x4), erzeugt von TablebaseGenerator.
+ * Die Datei wird mit FileChannel.map in den Speicher abgebildet und nicht in den Heap kopiert, daher ist sie sofort nach dem
+ * Oeffnen benutzbar; das Betriebssystem laedt nur die Seiten, die tatsaechlich abgefragt werden.
+ * <p>
+ * Aufbau der Datei: ein Kopf aus 4 int (MAGIC, Breite, Hoehe, K), danach 2 Bits je Stellung (DRAW, WIN oder LOSS aus Sicht
+ * des Spielers am Zug), vier Stellungen je Byte, beginnend mit den unteren Bits. Die Nummer einer Stellung liefert
+ * TablebaseIndex.
+ */
+public final class Tablebase {
+    /**
+     * Kennung am Anfang der Datei ("TTTB")
+     */
+    static final int MAGIC = 0x54545442;
+
+    /**
+     * Anzahl der Bytes des Kopfes
+     */
+    static final int HEADER_SIZE = 16;
+
+    /**
+     * Wert einer Stellung: Unentschieden bei perfektem Spiel
+     */
+    public static final int DRAW = 0;
+    /**
+     * Wert einer Stellung: der Spieler am Zug gewinnt bei perfektem Spiel
+     */
+    public static final int WIN = 1;
+    /**
+     * Wert einer Stellung: der Spieler am Zug verliert bei perfektem Spiel
+     */
+    public static final int LOSS = 2;
+
+    private final MappedByteBuffer data;
+    private final TablebaseIndex index;
+    private final int width;
+    private final int height;
+    private final int k;
+
+    private Tablebase(MappedByteBuffer data, int width, int height, int k) {
+        this.data = data;
+        this.index = new TablebaseIndex(width, height, k);
+        this.width = width;
+        this.height = height;
+        this.k = k;
+    }
+
+    /**
+     * Oeffnet eine von TablebaseGenerator erzeugte Datei
+     * @param file Die Datei
+     * @return Die Tablebase
+     * @throws IOException Wenn die Datei nicht gelesen werden kann oder keine gueltige Tablebase ist
+     */
+    public static Tablebase open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // Die Abbildung bleibt nach dem Schliessen des Kanals gueltig
+            MappedByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if(data.limit() < HEADER_SIZE || data.getInt(0) != MAGIC) {
+                throw new IOException("Not a tablebase: " + file);
+            }
+            int width = data.getInt(4);
+            int height = data.getInt(8);
+            int k = data.getInt(12);
+            Tablebase tablebase;
+            try {
+                tablebase = new Tablebase(data, width, height, k);
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Invalid tablebase " + file + ": " + e.getMessage(), e);
+            }
+            if(data.limit() != HEADER_SIZE + (tablebase.index.size() + 3) / 4) {
+                throw new IOException("Truncated tablebase: " + file);
+            }
+            return tablebase;
+        }
+    }
+
+    /**
+     * Liefert den Wert einer Stellung. Am Zug ist X, wenn beide Spieler gleich viele Steine haben, sonst O.
+     * @param board Das Spielbrett als flaches Array (Index y * width + x; 0: frei; 1: X; 2: O)
+     * @return DRAW, WIN oder LOSS aus Sicht des Spielers am Zug
+     * @throws IllegalArgumentException Wenn das Spielbrett nicht die Groesse der Tablebase hat oder die Anzahl der Steine
+     *                                  in keinem Spiel vorkommen kann
+     */
+    public int probe(int[] board) {
+        if(board.length != index.cells()) {
+            throw new IllegalArgumentException("Board has " + board.length + " cells, tablebase " + index.cells());
+        }
+        int xBits = bits(board, 1);
+        int oBits = bits(board, 2);
+        int pieces = Integer.bitCount(xBits) - Integer.bitCount(oBits);
+        if(pieces != 0 && pieces != 1) {
+            throw new IllegalArgumentException("Impossible piece counts");
+        }
+        return value(xBits, oBits);
+    }
+
+    /**
+     * Bestimmt einen besten Zug: einen sofort gewinnenden Zug, sonst einen Zug in eine fuer den Gegner verlorene Stellung,
+     * sonst in eine unentschiedene Stellung, jeweils das erste solche Feld
+     * @param board Das Spielbrett als flaches Array (Index y * width + x; 0: frei; 1: X; 2: O)
+     * @param player Der Spieler der am Zug ist (1: X; 2: O)
+     * @return Der Index des Zuges, -1 wenn die Tablebase die Stellung nicht beantworten kann (andere Groesse, voll, schon
+     *         entschieden oder player passt nicht zur Anzahl der Steine)
+     */
+    public int bestMove(int[] board, int player) {
+        if(board.length != index.cells()) return -1;
+        int xBits = bits(board, 1);
+        int oBits = bits(board, 2);
+        int difference = Integer.bitCount(xBits) - Integer.bitCount(oBits);
+        if(difference != (player == 1 ? 0 : 1)) return -1;
+        if(index.containsLine(xBits) || index.containsLine(oBits)) return -1;
+
+        int drawMove = -1;
+        int anyMove = -1;
+        int winMove = -1;
+        int free = index.full() & ~(xBits | oBits);
+        while(free != 0) {
+            int move = free & -free;
+            free ^= move;
+            int cell = Integer.numberOfTrailingZeros(move);
+            int newX = player == 1 ? xBits | move : xBits;
+            int newO = player == 2 ? oBits | move : oBits;
+            if(index.containsLine(player == 1 ? newX : newO)) return cell;
+            int value = value(newX, newO);
+            if(value == LOSS && winMove < 0) winMove = cell;
+            else if(value == DRAW && drawMove < 0) drawMove = cell;
+            if(anyMove < 0) anyMove = cell;
+        }
+        return winMove >= 0 ? winMove : drawMove >= 0 ? drawMove : anyMove;
+    }
+
+    private int value(int xBits, int oBits) {
+        long position = index.index(xBits, oBits);
+        int packed = data.get(HEADER_SIZE + (int) (position >>> 2));
+        return packed >>> 2 * (int) (position & 3) & 3;
+    }
+
+    private static int bits(int[] board, int player) {
+        int bits = 0;
+        for(int i = 0; i < board.length; i++) {
+            if(board[i] == player) bits |= 1 << i;
+        }
+        return bits;
+    }
+
+    /**
+     * @return Die Breite des Spielbretts
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * @return Die Hoehe des Spielbretts
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * @return Die Anzahl der Steine in einer Reihe, die zum Gewinn benoetigt werden
+     */
+    public int getK() {
+        return k;
+    }
+}
@@ -0,0 +1,121 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.stream.IntStream;
+
+/**
+ * Erzeugt die Tablebase fuer ein Spielbrett mit hoechstens 16 Feldern durch Rueckwaertsanalyse.
+ * Die Stellungen werden schichtweise nach der Anzahl der Steine bewertet, beginnend mit dem vollen Spielbrett: da jeder Zug
+ * genau einen Stein hinzufuegt, sind beim Bewerten einer Schicht alle Nachfolger bereits bewertet. Eine Stellung ist gewonnen,
+ * wenn ein Zug zu einer fuer den Gegner verlorenen Stellung fuehrt, unentschieden, wenn es keinen solchen, aber einen Zug zu
+ * einer unentschiedenen Stellung gibt, und sonst verloren. Die Stellungen einer Schicht werden parallel bewertet.
+ * Aufruf: java TablebaseGenerator width height k [Datei]
+ */
+public class TablebaseGenerator {
+
+    /**
+     * Erzeugt die Tablebase und schreibt sie in die uebergebene Datei (Standard: tablebase-WxH-K.bin)
+     * @param args Breite, Hoehe, K und optional die Datei
+     * @throws IOException Wenn die Datei nicht geschrieben werden kann
+     */
+    public static void main(String[] args) throws IOException {
+        if(args.length < 3) {
+            System.out.println("Usage: java TablebaseGenerator width height k [file]");
+            return;
+        }
+        int width = Integer.parseInt(args[0]);
+        int height = Integer.parseInt(args[1]);
+        int k = Integer.parseInt(args[2]);
+        Path output = Paths.get(args.length > 3 ? args[3] : "tablebase-" + width + "x" + height + "-" + k + ".bin");
+
+        long start = System.nanoTime();
+        byte[] tablebase = generate(width, height, k);
+        if(output.getParent() != null) Files.createDirectories(output.getParent());
+        Files.write(output, tablebase);
+        System.out.println("Wrote " + output + " (" + tablebase.length + " bytes) in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+
+    /**
+     * Erzeugt die Tablebase samt Kopf, so wie sie in der Datei steht
+     * @param width Die Breite des Spielbretts
+     * @param height Die Hoehe des Spielbretts
+     * @param k Die Anzahl der Steine in einer Reihe, die zum Gewinn benoetigt werden
+     * @return Der Inhalt der Datei
+     */
+    static byte[] generate(int width, int height, int k) {
+        TablebaseIndex index = new TablebaseIndex(width, height, k);
+        byte[] values = solve(index);
+
+        long bytes = Tablebase.HEADER_SIZE + (index.size() + 3) / 4;
+        if(bytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Tablebase too large: " + bytes + " bytes");
+        }
+        ByteBuffer tablebase = ByteBuffer.allocate((int) bytes);
+        tablebase.putInt(Tablebase.MAGIC).putInt(width).putInt(height).putInt(k);
+        for(int i = 0; i < values.length; i += 4) {
+            int packed = 0;
+            for(int j = 0; j < 4 && i + j < values.length; j++) {
+                packed |= values[i + j] << 2 * j;
+            }
+            tablebase.put((byte) packed);
+        }
+        return tablebase.array();
+    }
+
+    /**
+     * Bewertet alle Stellungen durch Rueckwaertsanalyse
+     * @param index Die Nummerierung der Stellungen
+     * @return Der Wert jeder Stellung aus Sicht des Spielers am Zug (Tablebase.DRAW, WIN oder LOSS), indiziert mit der Nummer
+     */
+    static byte[] solve(TablebaseIndex index) {
+        if(index.size() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many positions: " + index.size());
+        }
+        byte[] values = new byte[(int) index.size()];
+        int cells = index.cells();
+        for(int pieces = cells; pieces >= 0; pieces--) {
+            int layer = pieces;
+            int x = (pieces + 1) / 2;
+            int o = pieces / 2;
+            int oCount = index.binomial(cells - x, o);
+            int base = (int) index.offset(pieces);
+            IntStream.range(0, index.binomial(cells, x)).parallel().forEach(xRank -> {
+                int xBits = index.mask(x, xRank);
+                int free = index.full() & ~xBits;
+                for(int oRank = 0; oRank < oCount; oRank++) {
+                    int oBits = TablebaseIndex.deposit(index.mask(o, oRank), free);
+                    values[base + xRank * oCount + oRank] = (byte) evaluate(index, values, xBits, oBits, layer);
+                }
+            });
+        }
+        return values;
+    }
+
+    /**
+     * Bewertet eine Stellung anhand der bereits bewerteten Nachfolger
+     * @return Der Wert aus Sicht des Spielers am Zug
+     */
+    private static int evaluate(TablebaseIndex index, byte[] values, int xBits, int oBits, int pieces) {
+        boolean xToMove = pieces % 2 == 0;
+        int own = xToMove ? xBits : oBits;
+        int other = xToMove ? oBits : xBits;
+        // Hat der Spieler, der zuletzt gezogen hat, eine Reihe, ist das Spiel vorbei
+        if(index.containsLine(other)) return Tablebase.LOSS;
+        if(index.containsLine(own)) return Tablebase.WIN;
+        if(pieces == index.cells()) return Tablebase.DRAW;
+
+        int best = Tablebase.LOSS;
+        int free = index.full() & ~(xBits | oBits);
+        while(free != 0) {
+            int move = free & -free;
+            free ^= move;
+            long child = xToMove ? index.index(xBits | move, oBits) : index.index(xBits, oBits | move);
+            int value = values[(int) child];
+            if(value == Tablebase.LOSS) return Tablebase.WIN;
+            if(value == Tablebase.DRAW) best = Tablebase.DRAW;
+        }
+        return best;
+    }
+}
@@ -0,0 +1,222 @@
+/**
+ * Nummerierung der Stellungen und Gewinnreihen eines Spielbretts mit hoechstens 16 Feldern fuer die Tablebase.
+ * Die Felder von X und O sind Bitmasken (Bit i: Feld i, Index y * width + x). Es werden nur Stellungen nummeriert, die im Spiel
+ * vorkommen koennen, also mit gleich vielen Steinen beider Spieler (X am Zug) bzw. einem Stein mehr fuer X (O am Zug).
+ * Die Stellungen sind nach der Anzahl der Steine in Schichten geordnet; innerhalb einer Schicht ergibt sich die Nummer aus dem
+ * Rang der Felder von X unter allen gleich grossen Mengen und dem Rang der Felder von O unter den danach freien Feldern.
+ * Der Rang einer Menge ist ihre Position in der aufsteigenden Reihenfolge aller Bitmasken mit derselben Anzahl gesetzter Bits.
+ */
+final class TablebaseIndex {
+    /**
+     * Die groesste unterstuetzte Anzahl an Feldern
+     */
+    static final int MAX_CELLS = 16;
+
+    private final int cells;
+    private final int full;
+    /**
+     * binomial[n][r] = n ueber r
+     */
+    private final int[][] binomial;
+    /**
+     * Die Bitmasken jeder Anzahl gesetzter Bits in aufsteigender Reihenfolge
+     */
+    private final int[][] masks;
+    /**
+     * Der Rang jeder Bitmaske in masks
+     */
+    private final int[] rank;
+    /**
+     * Die erste Nummer der Schicht mit der jeweiligen Anzahl an Steinen, an der letzten Stelle die Anzahl aller Stellungen
+     */
+    private final long[] offsets;
+    /**
+     * Gibt fuer jede Bitmaske an, ob sie eine Gewinnreihe enthaelt
+     */
+    private final boolean[] containsLine;
+
+    /**
+     * Erstellt die Nummerierung fuer ein Spielbrett der uebergebenen Groesse
+     * @param width Die Breite des Spielbretts
+     * @param height Die Hoehe des Spielbretts
+     * @param k Die Anzahl der Steine in einer Reihe, die zum Gewinn benoetigt werden
+     */
+    TablebaseIndex(int width, int height, int k) {
+        if(width < 1 || height < 1 || k < 1 || k > Math.max(width, height)) {
+            throw new IllegalArgumentException("Invalid board " + width + "x" + height + " with k=" + k);
+        }
+        if(width * height > MAX_CELLS) {
+            throw new IllegalArgumentException("Tablebase supports at most " + MAX_CELLS + " cells, not " + width * height);
+        }
+        cells = width * height;
+        full = (1 << cells) - 1;
+
+        binomial = new int[cells + 1][cells + 1];
+        for(int n = 0; n <= cells; n++) {
+            binomial[n][0] = 1;
+            for(int r = 1; r <= n; r++) {
+                binomial[n][r] = binomial[n - 1][r - 1] + binomial[n - 1][r];
+            }
+        }
+
+        masks = new int[cells + 1][];
+        for(int bits = 0; bits <= cells; bits++) {
+            masks[bits] = new int[binomial[cells][bits]];
+        }
+        rank = new int[full + 1];
+        int[] counts = new int[cells + 1];
+        for(int mask = 0; mask <= full; mask++) {
+            int bits = Integer.bitCount(mask);
+            rank[mask] = counts[bits];
+            masks[bits][counts[bits]++] = mask;
+        }
+
+        offsets = new long[cells + 2];
+        for(int pieces = 0; pieces <= cells; pieces++) {
+            offsets[pieces + 1] = offsets[pieces] + layerSize(pieces);
+        }
+
+        containsLine = new boolean[full + 1];
+        for(int line : createLines(width, height, k)) {
+            for(int mask = 0; mask <= full; mask++) {
+                if((mask & line) == line) containsLine[mask] = true;
+            }
+        }
+    }
+
+    /**
+     * @return Die Anzahl der Felder
+     */
+    int cells() {
+        return cells;
+    }
+
+    /**
+     * @return Die Anzahl aller nummerierten Stellungen
+     */
+    long size() {
+        return offsets[cells + 1];
+    }
+
+    /**
+     * Liefert die erste Nummer einer Schicht
+     * @param pieces Die Anzahl der Steine
+     * @return Die erste Nummer
+     */
+    long offset(int pieces) {
+        return offsets[pieces];
+    }
+
+    /**
+     * Liefert die Anzahl der Stellungen einer Schicht
+     * @param pieces Die Anzahl der Steine (X hat (pieces + 1) / 2, O pieces / 2)
+     * @return Die Anzahl der Stellungen
+     */
+    long layerSize(int pieces) {
+        int x = (pieces + 1) / 2;
+        return (long) binomial[cells][x] * binomial[cells - x][pieces / 2];
+    }
+
+    /**
+     * Liefert n ueber r
+     */
+    int binomial(int n, int r) {
+        return binomial[n][r];
+    }
+
+    /**
+     * Liefert die Bitmaske mit dem uebergebenen Rang
+     * @param bits Die Anzahl der gesetzten Bits
+     * @param rank Der Rang
+     * @return Die Bitmaske
+     */
+    int mask(int bits, int rank) {
+        return masks[bits][rank];
+    }
+
+    /**
+     * Ueberprueft, ob die Felder eine Gewinnreihe enthalten
+     * @param bits Die von einem Spieler belegten Felder
+     * @return true, wenn der Spieler eine Reihe vollstaendig belegt hat
+     */
+    boolean containsLine(int bits) {
+        return containsLine[bits];
+    }
+
+    /**
+     * Liefert die Bitmaske aller Felder
+     */
+    int full() {
+        return full;
+    }
+
+    /**
+     * Berechnet die Nummer einer Stellung
+     * @param xBits Die Felder von X
+     * @param oBits Die Felder von O, X hat gleich viele oder einen Stein mehr
+     * @return Die Nummer der Stellung
+     */
+    long index(int xBits, int oBits) {
+        int x = Integer.bitCount(xBits);
+        int o = Integer.bitCount(oBits);
+        return offsets[x + o] + (long) rank[xBits] * binomial[cells - x][o] + rank[compress(oBits, full & ~xBits)];
+    }
+
+    /**
+     * Schiebt die Bits von bits, die in free liegen, auf die untersten Stellen zusammen
+     * @param bits Die Bitmaske
+     * @param free Die zu behaltenden Stellen
+     * @return Die zusammengeschobene Bitmaske
+     */
+    static int compress(int bits, int free) {
+        int result = 0;
+        for(int target = 1; free != 0; target <<= 1) {
+            int lowest = free & -free;
+            if((bits & lowest) != 0) result |= target;
+            free ^= lowest;
+        }
+        return result;
+    }
+
+    /**
+     * Verteilt die untersten Bits von bits auf die Stellen von free, die Umkehrung von compress
+     * @param bits Die zusammengeschobene Bitmaske
+     * @param free Die Zielstellen
+     * @return Die verteilte Bitmaske
+     */
+    static int deposit(int bits, int free) {
+        int result = 0;
+        for(int source = 1; free != 0; source <<= 1) {
+            int lowest = free & -free;
+            if((bits & source) != 0) result |= lowest;
+            free ^= lowest;
+        }
+        return result;
+    }
+
+    /**
+     * Erzeugt alle Gewinnreihen der Laenge k als Bitmasken: waagerecht, senkrecht und in beiden diagonalen Richtungen
+     */
+    private static int[] createLines(int width, int height, int k) {
+        int[][] directions = {{1, 0}, {0, 1}, {1, 1}, {1, -1}};
+        int[] buffer = new int[4 * width * height];
+        int count = 0;
+        for(int y = 0; y < height; y++) {
+            for(int x = 0; x < width; x++) {
+                for(int[] direction : directions) {
+                    int endX = x + (k - 1) * direction[0];
+                    int endY = y + (k - 1) * direction[1];
+                    if(endX < 0 || endX >= width || endY < 0 || endY >= height) continue;
+                    int line = 0;
+                    for(int i = 0; i < k; i++) {
+                        line |= 1 << (y + i * direction[1]) * width + x + i * direction[0];
+                    }
+                    buffer[count++] = line;
+                }
+            }
+        }
+        int[] lines = new int[count];
+        System.arraycopy(buffer, 0, lines, 0, count);
+        return lines;
+    }
+}
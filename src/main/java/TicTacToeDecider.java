@@ -1,24 +1,44 @@
 import javax.swing.*;
 import java.awt.*;
-import java.util.Objects;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public class TicTacToeDecider extends JFrame {
+    /**
+     * Anzahl der im Hintergrund bereitgehaltenen Raetsel
+     */
+    private static final int PREFETCHED_PUZZLES = 4;
+    /**
+     * Anzahl der letzten Runden, ueber die die aktuelle Trefferquote berechnet wird
+     */
+    private static final int RECENT_ROUNDS = 10;
+    /**
+     * Datei, in der die Antworten des Spielers ueber einen Neustart hinaus gespeichert werden
+     */
+    private static final Path ANSWER_LOG = Paths.get(System.getProperty("user.home"), ".tictactoeDecider", "answers.log");
     /**
      * 3x3 Tic Tac Toe Display Matrix
      */
     private final JButton[][] buttons = new JButton[3][3];
     /**
-     * 3x3 Spielbrett Matrix
+     * 3x3 Spielbrett, die einzige Quelle fuer den Zustand des Spielfelds. Die Buttons werden ueber einen BoardListener nur
+     * fuer die geaenderten Felder neu beschriftet.
      */
-    private String[][] board;
+    private final BoardModel board = new BoardModel(3, 3);
     /**
      * Boolean ob X das Spiel wirklich gewinnt
      */
     private boolean xWins;
     /**
-     * BinarySearchTree zur Speicherung der Antworten des Spielers
+     * Sortierter Speicher der Antworten des Spielers (Antwort, answerCount und ob sie richtig war als primitiver Schluessel).
+     * Die Seiten zaehlen ihre Antworten und richtigen Antworten, sodass die Statistik ohne Durchlauf berechnet wird.
      */
-    private BinarySearchTree<PlayerAnswer> answerTree;
+    private AnswerStore answers;
     /**
      * Slider fuer Faehigkeitenstufe von K.I. fuer Spieler X
      */
@@ -31,6 +51,28 @@ public class TicTacToeDecider extends JFrame {
      * Wie viele Antworten schon gegeben worden sind
      */
     private int answerCount = 0;
+    /**
+     * Das aktuell angezeigte Raetsel
+     */
+    private Puzzle puzzle;
+    /**
+     * Erzeugt die naechsten Raetsel im Hintergrund
+     */
+    private final PuzzlePrefetcher prefetcher = new PuzzlePrefetcher(PREFETCHED_PUZZLES,
+            (double) sliderX.getValue() / 10, (double) sliderO.getValue() / 10);
+    /**
+     * Thread, der die Antworten in den Antwortspeicher einfuegt und ausgibt, damit dies nicht den Event Dispatch Thread blockiert.
+     * Der Antwortspeicher wird nur von diesem Thread benutzt.
+     */
+    private final ExecutorService answerExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "answer-store");
+        thread.setDaemon(true);
+        return thread;
+    });
+    /**
+     * Dauerhaftes Protokoll der Antworten bzw. null, wenn die Datei nicht geoeffnet werden konnte
+     */
+    private final AnswerLog answerLog = openAnswerLog();
 
     /**
      * Initialisiert das Spiel und die Oberflaeche
@@ -41,15 +83,44 @@ public class TicTacToeDecider extends JFrame {
     }
 
     /**
-     * Initialisiert das Spielfeld und den Antwortbaum. Es wird außerdem das erste Spiel mithilfe der Methode simulateGame generiert.
+     * Initialisiert das Spielfeld und den Antwortspeicher. Die Antworten frueherer Sitzungen werden im Hintergrund aus dem
+     * Antwortprotokoll geladen. Es wird außerdem das erste Spiel mithilfe der Methode simulateGame generiert.
      */
     public void initializeGame() {
-        board = new String[3][3];
         xWins = false;
-        answerTree = new BinarySearchTree<>();
+        answers = new AnswerStore();
+        if (answerLog != null) {
+            answerCount = answerLog.nextAnswerCount();
+            answerExecutor.execute(() -> {
+                answerLog.rebuild(answers);
+                Metrics.recordAnswerStore(answers);
+            });
+        }
         simulateGame();
     }
 
+    /**
+     * Oeffnet das Antwortprotokoll. Beim Beenden des Programms werden alle Antworten auf die Platte geschrieben.
+     * @return Das Antwortprotokoll bzw. null, wenn es nicht geoeffnet werden kann; die Antworten werden dann nicht gespeichert
+     */
+    private static AnswerLog openAnswerLog() {
+        try {
+            Files.createDirectories(ANSWER_LOG.getParent());
+            AnswerLog log = new AnswerLog(ANSWER_LOG);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    log.close();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }));
+            return log;
+        } catch (IOException e) {
+            System.err.println("Answer log not available: " + e.getMessage());
+            return null;
+        }
+    }
+
     /**
      * Initialisiert das GUI des Spiels
      */
@@ -71,6 +142,9 @@ public class TicTacToeDecider extends JFrame {
         sliderO.setPaintLabels(true);
         sliderO.setPaintTicks(true);
 
+        sliderX.addChangeListener(e -> updateStrengths());
+        sliderO.addChangeListener(e -> updateStrengths());
+
         for (int i = 0; i < 3; i++) {
             for (int j = 0; j < 3; j++) {
                 buttons[i][j] = new JButton("");
@@ -85,6 +159,8 @@ public class TicTacToeDecider extends JFrame {
             }
         }
 
+        board.addListener(this::showCell);
+
         JButton checkButton = new JButton("Check Win");
 
         frame.setVisible(true);
@@ -96,24 +172,41 @@ public class TicTacToeDecider extends JFrame {
     }
 
     /**
-     * Traversiert den übergebenen Baum im In-Order Prinzip und gibt dies aus
-     * @param tree Der Binary Search Tree der Ausgegeben werden soll
+     * Gibt die Antworten des uebergebenen Speichers in aufsteigender Reihenfolge (wie die In-Order Traversierung des
+     * frueheren Antwortbaums) aus
+     * @param store Der Antwortspeicher der Ausgegeben werden soll
      */
-    public void outputInOrder(BinarySearchTree<PlayerAnswer> tree) {
-        if (tree.getContent() !=null) {
-            outputInOrder(tree.getLeftTree());
-            PlayerAnswer PlayerAnswer = tree.getContent();
-            System.out.println(PlayerAnswer.answer + "");
-            outputInOrder(tree.getRightTree());
-        }
+    public void outputInOrder(AnswerStore store) {
+        store.forEach(key -> System.out.println(AnswerStore.answerOf(key)));
+    }
+
+    /**
+     * Gibt die Statistik der Antworten aus: richtige und falsche Antworten, die Trefferquote der letzten RECENT_ROUNDS
+     * Runden und den Rang der letzten Antwort in der Ordnung des Speichers (zuerst answer, dann answerCount). Alle Werte
+     * werden ueber die Zaehler der Seiten in O(log n) berechnet.
+     * @param store Der Antwortspeicher
+     * @param latestAnswer Die zuletzt eingefuegte Antwort (0: X gewinnt; 1: O gewinnt)
+     * @param latestCount Der answerCount der zuletzt eingefuegten Antwort
+     */
+    public void outputStatistics(AnswerStore store, int latestAnswer, int latestCount) {
+        int total = store.size();
+        int correct = store.correctCount();
+
+        int firstRecent = Math.max(0, latestCount + 1 - RECENT_ROUNDS);
+        int recent = total - store.rankByCount(firstRecent);
+        int recentCorrect = correct - store.correctBelowCount(firstRecent);
+
+        System.out.println("Answers: " + total + ", correct: " + correct + ", incorrect: " + (total - correct));
+        System.out.println("Accuracy (last " + recent + "): " + (recent == 0 ? 0 : 100 * recentCorrect / recent) + "%");
+        System.out.println("Rank of answer " + latestCount + ": " + store.rank(latestAnswer, latestCount) + " of " + total);
     }
 
     /**
      * Die Methode uebernimmt die Verwaltung der Spieler eingabe. Dies enthält den Dialog, um die Spieler eingabe zu erhalten.
-     * Diese Eingabe wird in den Antwortbaum eingefuegt udn dieser ausgegeben.
-     * Es wird nun mithilfe der Methode makeAIMoves das Spiel zu Ende gespielt, mit jeweils der staerksten K.I. moeglich.
+     * Diese Eingabe wird im Hintergrund in den Antwortspeicher eingefuegt und die Statistik der Antworten ausgegeben.
+     * Das Raetsel wurde bereits im Hintergrund mit jeweils der staerksten K.I. moeglich zu Ende gespielt, dieses Spielbrett wird nun angezeigt.
      * Es wird geprueft ob der Spieler richtig geantwortet hat oder nicht und dies wird dem Spieler ausgegeben.
-     * Danach wird mithilfe der Methode resetGame das naechste Spiel erzeugt.
+     * Danach wird mithilfe der Methode resetGame das naechste, bereits vorbereitete Spiel angezeigt.
      */
     public void checkWin() {
         int playerAnswer = JOptionPane.showConfirmDialog(null,
@@ -123,124 +216,95 @@ public class TicTacToeDecider extends JFrame {
             return;
         }
 
-        // Add the player's answer to the binary tree
-        answerTree.insert(new PlayerAnswer(playerAnswer, answerCount++));
+        long start = Metrics.start();
+        xWins = puzzle.xWins();
+        boolean correct = playerAnswer == 0 && xWins || playerAnswer == 1 && !xWins;
 
-        int winner = makeAIMoves(false,9,1,1);
+        // Add the player's answer to the answer store
+        int count = answerCount++;
+        if (answerLog != null) {
+            answerLog.append(playerAnswer, count, correct);
+        }
+        start = Metrics.phase("checkWin.log", start);
+        answerExecutor.execute(() -> {
+            long insertStart = Metrics.start();
+            answers.insert(playerAnswer, count, correct);
+            insertStart = Metrics.phase("checkWin.insert", insertStart);
+            System.out.println("---------------------------------------------");
+            outputStatistics(answers, playerAnswer, count);
+            Metrics.phase("checkWin.statistics", insertStart);
+            Metrics.recordAnswerStore(answers);
+        });
+        start = Metrics.phase("checkWin.submit", start);
 
-        xWins = winner == 1;
-        System.out.println("---------------------------------------------");
-        outputInOrder(answerTree);
+        showBoard(puzzle.getFinalBoard());
+        Metrics.phase("checkWin.showBoard", start);
 
         // Compare the player's answer with the actual outcome
-        if (playerAnswer == 0 && xWins ||
-                playerAnswer == 1 && !xWins) {
+        if (correct) {
             JOptionPane.showMessageDialog(null, "Correct!");
         } else {
             JOptionPane.showMessageDialog(null, "Incorrect!");
         }
 
         // Reset the game for the next round
+        start = Metrics.start();
         resetGame();
+        Metrics.phase("checkWin.nextPuzzle", start);
     }
 
     /**
-     * Die Methode setzt die ersten Zuege der K.I. mithilfe der Methode makeAIMoves unter Beruecksictigung der auf den JSlidern eingestellten Faehigkeitsstufe
+     * Die Methode zeigt das naechste Raetsel an. Die ersten Zuege der K.I. wurden bereits im Hintergrund unter Beruecksictigung
+     * der auf den JSlidern eingestellten Faehigkeitsstufe gesetzt.
      */
     public void simulateGame() {
-        makeAIMoves(true,3,((double) sliderX.getValue()/10), ((double) sliderO.getValue()/10));
+        puzzle = prefetcher.next();
+        showBoard(puzzle.getBoard());
     }
 
     /**
-     * Die Methode macht die Zuege der K.I. anhand der uebergebenen Parameter und trägt diese entsprechend in das Spielfeld ein.
-     * Dafuer werden 2 Objekte der Klasse AI zuhilfe genommen sowie die Methode der Objekte doMove
-     * @param xToStart Der Parameter gibt an ob X den naechsten Zug macht oder nicht
-     * @param movesToMake Der Parameter gibt wie viele Zuege zu machen sind
-     * @param difX Der Parameter gibt an wie stark die K.I. fuer X ist
-     * @param difO Der Parameter gibt an wie stark die K.I. fuer O ist
-     * @return Die Methode gibt zurueck welcher ob und wenn ja welcher Spieler nach Spielen der uebergebenen Spielzuege gewonnen hat. Dabei steht 0 = Keiner, 1 = X, 2 = O
+     * Uebergibt die auf den JSlidern eingestellten Faehigkeitsstufen an den Prefetcher, sodass die folgenden Raetsel damit erzeugt werden
      */
-    public int makeAIMoves(boolean xToStart, int movesToMake, double difX, double difO) {
-        int index = 0;
-
-        int[] linBoard = new int[9];
-        for (int i = 0; i < 3; i++) {
-            for (int j = 0; j <3; j++) {
-                if (Objects.equals(board[i][j], "X")) {
-                    linBoard[index] = 1;
-                } else if (Objects.equals(board[i][j], "O")) {
-                    linBoard[index] = 2;
-                } else {
-                    linBoard[index] = 0;
-                }
-                index++;
-            }
-        }
-
-        AI AIX = new AI(difX);
-        AI AIO = new AI(difO);
-
-        for (int i = 0; i < movesToMake; i++) {
-            boolean gameOver = false;
-            if (i==0 && !xToStart) {
-                i = 1;
-            }
-            if (AI.checkForWinner(linBoard) != 0) {
-                i = 60;
-            }
-            if (i%2 == 0 && !gameOver) {
-                int move = AIX.doMove(linBoard, 1);
-                linBoard[move] = 1;
-            } else {
-                int move = AIO.doMove(linBoard,2);
-                linBoard[move] = 2;
-            }
-        }
-
-        index = 0;
-
-        // Iterate through rows and columns of the 2D array
-        for (int i = 0; i < 3; i++) {
-            for (int j = 0; j < 3; j++) {
-                if (linBoard[index] == 1) {
-                    board[i][j] = "X";
-                } else if (linBoard[index] == 2) {
-                    board[i][j] = "O";
-                }
-                index++;
-            }
-        }
+    private void updateStrengths() {
+        prefetcher.setStrengths((double) sliderX.getValue() / 10, (double) sliderO.getValue() / 10);
+    }
 
-        for (int i = 0; i < 3; i++) {
-            for (int j = 0; j < 3; j++) {
-                buttons[i][j].setText(board[i][j]);
-            }
-        }
+    /**
+     * Traegt das uebergebene Spielbrett in das Spielfeld ein. Angezeigt werden nur die Felder, die sich dabei aendern.
+     * @param linBoard Das Spielbrett als flaches Array (0: frei; 1: X; 2: O)
+     */
+    private void showBoard(int[] linBoard) {
+        board.setAll(linBoard);
+    }
 
-        return AI.checkForWinner(linBoard);
+    /**
+     * Beschriftet den Button eines geaenderten Feldes neu
+     * @param cell Der Index des Feldes (0 bis 8)
+     * @param value Der neue Inhalt (0: frei; 1: X; 2: O)
+     */
+    private void showCell(int cell, int value) {
+        buttons[cell / 3][cell % 3].setText(value == 1 ? "X" : value == 2 ? "O" : "");
     }
 
     /**
-     * Die Methode setzt das Spiel zurueck und bereitet mithilfe der Methode simulateGame eine neue Runde vor
+     * Die Methode setzt das Spiel zurueck und bereitet mithilfe der Methode simulateGame eine neue Runde vor.
+     * Das Spielbrett wird nicht geleert: simulateGame traegt das naechste Raetsel ein, dabei werden nur die Felder neu
+     * beschriftet, die sich gegenueber dem letzten Spielbrett aendern.
      */
     public void resetGame() {
         // Reset the game state for the next round
-        for (int i = 0; i < 3; i++) {
-            for (int j = 0; j < 3; j++) {
-                board[i][j] = "";
-                buttons[i][j].setText("");
-            }
-        }
         xWins = false;
 
         simulateGame();
     }
 
     /**
-     * Die Main Methode startet das Spiel
+     * Die Main Methode startet das Spiel. Oberflaeche und Spielbrett werden auf dem Event Dispatch Thread erstellt, da schon
+     * das erste Raetsel ueber die BoardListener die Knoepfe beschriftet.
      * @param args Main Methoden Notwendigkeit
      */
     public static void main(String[] args) {
-        new TicTacToeDecider();
+        Metrics.registerMBean();
+        SwingUtilities.invokeLater(TicTacToeDecider::new);
     }
 }
@@ -0,0 +1,204 @@
+import java.util.Arrays;
+
+/**
+ * Transpositionstabelle fuer die MinMax Suche der K.I.
+ * Jede Stellung wird ueber einen kanonischen Schluessel abgelegt. Dieser ist der kleinste Base-3 Index der Stellung
+ * ueber alle 8 Drehungen und Spiegelungen des Spielbretts, sodass symmetrische Stellungen denselben Eintrag teilen.
+ * Da es nur 3^9 moegliche Spielbretter gibt, wird der Schluessel zusammen mit dem Spieler am Zug direkt als Index verwendet
+ * und es kann keine Kollisionen geben.
+ * Jeder Eintrag ist ein einzelner int (Wert und Art der Schranke), daher kann eine Tabelle ohne Synchronisation von mehreren
+ * K.I. Objekten und Threads gemeinsam benutzt werden: ein Lesezugriff sieht entweder einen alten oder einen neuen, aber nie einen halben Eintrag.
+ */
+public class TranspositionTable {
+    /**
+     * Der Eintrag enthaelt den exakten Evaluierungswert der Stellung
+     */
+    public static final int EXACT = 1;
+    /**
+     * Der Eintrag enthaelt eine untere Schranke des Evaluierungswertes
+     */
+    public static final int LOWER_BOUND = 2;
+    /**
+     * Der Eintrag enthaelt eine obere Schranke des Evaluierungswertes
+     */
+    public static final int UPPER_BOUND = 3;
+
+    /**
+     * Anzahl der moeglichen Spielbretter (3^9)
+     */
+    static final int POSITIONS = 19683;
+
+    /**
+     * Base-3 Wert einer 9 Bit Maske: BASE3[m] ist die Summe von 3^i ueber alle gesetzten Bits i von m
+     */
+    private static final int[] BASE3 = new int[512];
+    /**
+     * SYMMETRIES[s][m] ist die Maske m nach Anwendung der Symmetrie s (Drehungen und Spiegelungen des Spielbretts)
+     */
+    private static final int[][] SYMMETRIES = new int[8][512];
+    /**
+     * INVERSE[s] ist die Symmetrie, die die Symmetrie s rueckgaengig macht
+     */
+    private static final int[] INVERSE = new int[8];
+
+    static {
+        int[][] cellMaps = new int[8][9];
+        for(int y = 0; y < 3; y++) {
+            for(int x = 0; x < 3; x++) {
+                int cell = y * 3 + x;
+                cellMaps[0][cell] = y * 3 + x;
+                cellMaps[1][cell] = x * 3 + (2 - y);
+                cellMaps[2][cell] = (2 - y) * 3 + (2 - x);
+                cellMaps[3][cell] = (2 - x) * 3 + y;
+                cellMaps[4][cell] = y * 3 + (2 - x);
+                cellMaps[5][cell] = (2 - y) * 3 + x;
+                cellMaps[6][cell] = x * 3 + y;
+                cellMaps[7][cell] = (2 - x) * 3 + (2 - y);
+            }
+        }
+        for(int mask = 0; mask < 512; mask++) {
+            int power = 1;
+            for(int cell = 0; cell < 9; cell++) {
+                if((mask & 1 << cell) != 0) {
+                    BASE3[mask] += power;
+                    for(int s = 0; s < 8; s++) {
+                        SYMMETRIES[s][mask] |= 1 << cellMaps[s][cell];
+                    }
+                }
+                power *= 3;
+            }
+        }
+        for(int s = 0; s < 8; s++) {
+            for(int t = 0; t < 8; t++) {
+                boolean inverse = true;
+                for(int cell = 0; cell < 9; cell++) {
+                    if(SYMMETRIES[t][SYMMETRIES[s][1 << cell]] != 1 << cell) inverse = false;
+                }
+                if(inverse) INVERSE[s] = t;
+            }
+        }
+    }
+
+    /**
+     * Die Eintraege der Tabelle (0: leer; sonst bester Zug + 1 in den Bits 20 bis 23, Art der Schranke in den Bits 16 bis 19
+     * und Wert in den unteren 16 Bit)
+     */
+    private final int[] entries = new int[2 * POSITIONS];
+
+    /**
+     * Berechnet den kanonischen Schluessel einer Stellung, also den kleinsten Base-3 Index ueber alle 8 Symmetrien
+     * @param xBits Die von X belegten Felder als Bitmaske
+     * @param oBits Die von O belegten Felder als Bitmaske
+     * @return Der kanonische Schluessel der Stellung (0 bis 3^9-1)
+     */
+    public static int canonicalKey(int xBits, int oBits) {
+        return canonical(xBits, oBits) >>> 3;
+    }
+
+    /**
+     * Berechnet den kanonischen Schluessel einer Stellung zusammen mit der Symmetrie, die die Stellung auf ihre kanonische
+     * Form abbildet. Damit lassen sich gespeicherte Zuege mit toCanonical und fromCanonical umrechnen.
+     * @param xBits Die von X belegten Felder als Bitmaske
+     * @param oBits Die von O belegten Felder als Bitmaske
+     * @return Der kanonische Schluessel in den oberen Bits und die Symmetrie (0 bis 7) in den unteren 3 Bit
+     */
+    public static int canonical(int xBits, int oBits) {
+        int key = BASE3[xBits] + 2 * BASE3[oBits];
+        int symmetry = 0;
+        for(int s = 1; s < 8; s++) {
+            int candidate = BASE3[SYMMETRIES[s][xBits]] + 2 * BASE3[SYMMETRIES[s][oBits]];
+            if(candidate < key) {
+                key = candidate;
+                symmetry = s;
+            }
+        }
+        return key << 3 | symmetry;
+    }
+
+    /**
+     * Bildet ein Feld der Stellung auf das entsprechende Feld der kanonischen Form ab
+     * @param symmetry Die Symmetrie aus canonical
+     * @param cell Das Feld (0 bis 8)
+     * @return Das Feld in der kanonischen Form
+     */
+    public static int toCanonical(int symmetry, int cell) {
+        return Integer.numberOfTrailingZeros(SYMMETRIES[symmetry][1 << cell]);
+    }
+
+    /**
+     * Bildet ein Feld der kanonischen Form zurueck auf das entsprechende Feld der Stellung ab
+     * @param symmetry Die Symmetrie aus canonical
+     * @param cell Das Feld in der kanonischen Form (0 bis 8)
+     * @return Das Feld der Stellung
+     */
+    public static int fromCanonical(int symmetry, int cell) {
+        return Integer.numberOfTrailingZeros(SYMMETRIES[INVERSE[symmetry]][1 << cell]);
+    }
+
+    /**
+     * Liefert den Eintrag zu dem uebergebenen Schluessel
+     * @param key Der kanonische Schluessel der Stellung
+     * @param player Der Spieler der am Zug ist (1: X; 2: O)
+     * @return Der rohe Eintrag, 0 wenn fuer die Stellung noch nichts gespeichert ist
+     */
+    public int probe(int key, int player) {
+        return entries[key * 2 + player - 1];
+    }
+
+    /**
+     * Speichert einen Evaluierungswert fuer die uebergebene Stellung
+     * @param key Der kanonische Schluessel der Stellung
+     * @param player Der Spieler der am Zug ist (1: X; 2: O)
+     * @param bound Die Art des Wertes (EXACT, LOWER_BOUND oder UPPER_BOUND)
+     * @param value Der Evaluierungswert aus Sicht des Spielers der am Zug ist
+     */
+    public void store(int key, int player, int bound, int value) {
+        store(key, player, bound, value, -1);
+    }
+
+    /**
+     * Speichert einen Evaluierungswert zusammen mit dem besten gefundenen Zug fuer die uebergebene Stellung
+     * @param key Der kanonische Schluessel der Stellung
+     * @param player Der Spieler der am Zug ist (1: X; 2: O)
+     * @param bound Die Art des Wertes (EXACT, LOWER_BOUND oder UPPER_BOUND)
+     * @param value Der Evaluierungswert aus Sicht des Spielers der am Zug ist
+     * @param move Der beste gefundene Zug in der kanonischen Form (siehe toCanonical), -1 wenn keiner bekannt ist
+     */
+    public void store(int key, int player, int bound, int value, int move) {
+        entries[key * 2 + player - 1] = (move + 1) << 20 | bound << 16 | value & 0xFFFF;
+    }
+
+    /**
+     * Liefert die Art des Wertes eines Eintrags
+     * @param entry Der rohe Eintrag
+     * @return EXACT, LOWER_BOUND oder UPPER_BOUND bzw. 0 fuer einen leeren Eintrag
+     */
+    public static int bound(int entry) {
+        return entry >>> 16 & 0xF;
+    }
+
+    /**
+     * Liefert den besten Zug eines Eintrags
+     * @param entry Der rohe Eintrag
+     * @return Der beste Zug in der kanonischen Form (siehe fromCanonical), -1 wenn keiner gespeichert ist
+     */
+    public static int move(int entry) {
+        return (entry >>> 20) - 1;
+    }
+
+    /**
+     * Liefert den Evaluierungswert eines Eintrags
+     * @param entry Der rohe Eintrag
+     * @return Der gespeicherte Evaluierungswert aus Sicht des Spielers der am Zug ist
+     */
+    public static int value(int entry) {
+        return (short) entry;
+    }
+
+    /**
+     * Leert die Tabelle
+     */
+    public void clear() {
+        Arrays.fill(entries, 0);
+    }
+}
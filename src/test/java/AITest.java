@@ -0,0 +1,120 @@
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Vergleicht die Principal Variation Search der K.I. mit einer einfachen Negamax Suche ohne Abschneiden, Transpositionstabelle
+ * und Zugsortierung.
+ */
+class AITest {
+
+    /**
+     * Alle vom leeren Spielbrett aus erreichbaren Stellungen, in denen das Spiel noch nicht zu Ende ist (X beginnt)
+     */
+    private static final List<int[]> REACHABLE = reachablePositions();
+
+    /**
+     * Fuer jede erreichbare Stellung muessen Zug und Evaluierungswert von search und analyze mit der Referenzsuche
+     * uebereinstimmen, mit und ohne Transpositionstabelle. Dasselbe K.I. Objekt durchsucht alle Stellungen nacheinander,
+     * damit auch die Eintraege der Tabelle, Killerzuege und History aus frueheren Suchen geprueft werden.
+     * @param moveOrdering Die Zugsortierung der K.I.
+     */
+    @ParameterizedTest
+    @ValueSource(ints = {AI.ORDER_NONE, AI.ORDER_CENTER_CORNERS, AI.DEFAULT_ORDERING, AI.ORDER_ALL})
+    void searchMatchesPlainNegamax(int moveOrdering) {
+        AI withTable = new AI(1, new TranspositionTable());
+        AI withoutTable = new AI(1, null);
+        withTable.setMoveOrdering(moveOrdering);
+        withoutTable.setMoveOrdering(moveOrdering);
+
+        for(int[] board : REACHABLE) {
+            int player = playerToMove(board);
+            int expected = referenceRoot(board, player);
+            String position = BoardCodec.encode(board) + ", Spieler " + player;
+            for(AI ai : new AI[] {withTable, withoutTable}) {
+                int result = ai.search(board, player);
+                assertEquals(AI.moveOf(expected), AI.moveOf(result), () -> "Zug fuer " + position);
+                assertEquals(AI.scoreOf(expected), AI.scoreOf(result), () -> "Wert fuer " + position);
+
+                SearchResult analysis = ai.analyze(board, player);
+                assertEquals(AI.moveOf(expected), analysis.getMove(), () -> "Zug von analyze fuer " + position);
+                assertEquals(AI.scoreOf(expected), analysis.getScore(), () -> "Wert von analyze fuer " + position);
+            }
+        }
+    }
+
+    /**
+     * Die Referenzsuche an der Wurzel: bei gleich guten Zuegen gewinnt der kleinste Index
+     * @param board Das Spielbrett
+     * @param player Der Spieler am Zug
+     * @return Zug und Evaluierungswert im Format von AI.search
+     */
+    private static int referenceRoot(int[] board, int player) {
+        int bestMove = 0;
+        int bestScore = Integer.MIN_VALUE;
+        for(int cell = 0; cell < board.length; cell++) {
+            if(board[cell] != 0) continue;
+            board[cell] = player;
+            int score = -reference(board, 3 - player, 1);
+            board[cell] = 0;
+            if(score > bestScore) {
+                bestScore = score;
+                bestMove = cell;
+            }
+        }
+        return bestScore << 4 | bestMove;
+    }
+
+    /**
+     * Negamax ohne Abschneiden: ein Gewinn in Tiefe d ist 100 - d wert, ein Unentschieden 0
+     * @param board Das Spielbrett nach dem Zug des Gegners
+     * @param player Der Spieler am Zug
+     * @param depth Die Tiefe der Stellung
+     * @return Der Evaluierungswert aus Sicht des Spielers am Zug
+     */
+    private static int reference(int[] board, int player, int depth) {
+        if(AI.checkForWinner(board) != 0) return -(100 - depth);
+        int best = Integer.MIN_VALUE;
+        for(int cell = 0; cell < board.length; cell++) {
+            if(board[cell] != 0) continue;
+            board[cell] = player;
+            best = Math.max(best, -reference(board, 3 - player, depth + 1));
+            board[cell] = 0;
+        }
+        return best == Integer.MIN_VALUE ? 0 : best;
+    }
+
+    private static int playerToMove(int[] board) {
+        int stones = 0;
+        for(int cell : board) {
+            if(cell != 0) stones++;
+        }
+        return stones % 2 == 0 ? 1 : 2;
+    }
+
+    private static List<int[]> reachablePositions() {
+        List<int[]> positions = new ArrayList<>();
+        boolean[] seen = new boolean[TranspositionTable.POSITIONS];
+        collect(new int[9], 1, seen, positions);
+        return positions;
+    }
+
+    private static void collect(int[] board, int player, boolean[] seen, List<int[]> positions) {
+        int index = BoardCodec.encode(board);
+        if(seen[index] || AI.checkForWinner(board) != 0) return;
+        seen[index] = true;
+        boolean full = true;
+        for(int cell = 0; cell < board.length; cell++) {
+            if(board[cell] != 0) continue;
+            full = false;
+            board[cell] = player;
+            collect(board, 3 - player, seen, positions);
+            board[cell] = 0;
+        }
+        if(!full) positions.add(board.clone());
+    }
+}
@@ -0,0 +1,189 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Startet den PuzzleServer auf einem freien Port der Loopback Adresse und prueft alle Endpunkte ueber HTTP
+ */
+class PuzzleServerTest {
+
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    private PuzzleServer server;
+
+    @AfterEach
+    void stopServer() {
+        if(server != null) server.stop();
+    }
+
+    /**
+     * Ein Raetsel wird ausgeliefert, mit dem Gewinner bei perfektem Spiel richtig beantwortet und danach vergessen
+     */
+    @Test
+    void puzzleCanBeAnsweredOnce() throws Exception {
+        start(PuzzleServer.DEFAULT_PUZZLE_TTL_MINUTES, TimeUnit.MINUTES, PuzzleServer.MAX_OPEN_PUZZLES);
+
+        HttpResponse<String> puzzle = send("GET", "/puzzle?x=1&o=1");
+        assertEquals(200, puzzle.statusCode(), puzzle.body());
+        assertEquals(1, server.getOpenPuzzles());
+        String id = field(puzzle.body(), "id");
+        int[] board = PuzzleServer.parseBoard(text(field(puzzle.body(), "board")));
+        int player = Integer.parseInt(field(puzzle.body(), "playerToMove"));
+        int winner = PuzzleGenerator.perfectPlayWinner(board, player);
+
+        HttpResponse<String> answer = send("POST", "/answer?id=" + id + "&xWins=" + (winner == 1));
+        assertEquals(200, answer.statusCode(), answer.body());
+        assertEquals("true", field(answer.body(), "correct"));
+        assertEquals(String.valueOf(winner), field(answer.body(), "winner"));
+        assertEquals(0, server.getOpenPuzzles());
+
+        assertEquals(404, send("POST", "/answer?id=" + id + "&xWins=true").statusCode());
+    }
+
+    /**
+     * /evaluate liefert den besten Zug und den Gewinner, auf einem entschiedenen Spielbrett keinen Zug
+     */
+    @Test
+    void evaluateReturnsMoveAndWinner() throws Exception {
+        start(PuzzleServer.DEFAULT_PUZZLE_TTL_MINUTES, TimeUnit.MINUTES, PuzzleServer.MAX_OPEN_PUZZLES);
+
+        HttpResponse<String> open = send("GET", "/evaluate?board=XX.OO....&player=1");
+        assertEquals(200, open.statusCode(), open.body());
+        assertEquals("2", field(open.body(), "move"));
+        assertEquals("1", field(open.body(), "winner"));
+
+        HttpResponse<String> decided = send("GET", "/evaluate?board=XXXOO....&player=2");
+        assertEquals(200, decided.statusCode(), decided.body());
+        assertEquals("-1", field(decided.body(), "move"));
+        assertEquals("1", field(decided.body(), "winner"));
+    }
+
+    /**
+     * Ungueltige Parameter ergeben 400, unbekannte Raetsel 404 und eine falsche HTTP Methode 405
+     */
+    @Test
+    void invalidRequestsAreRejected() throws Exception {
+        start(PuzzleServer.DEFAULT_PUZZLE_TTL_MINUTES, TimeUnit.MINUTES, PuzzleServer.MAX_OPEN_PUZZLES);
+
+        assertEquals(400, send("GET", "/puzzle?x=2").statusCode());
+        assertEquals(400, send("GET", "/puzzle?o=abc").statusCode());
+        assertEquals(400, send("POST", "/answer?id=abc&xWins=true").statusCode());
+        assertEquals(400, send("POST", "/answer?id=1&xWins=maybe").statusCode());
+        assertEquals(400, send("POST", "/answer?xWins=true").statusCode());
+        assertEquals(400, send("GET", "/evaluate?board=XX&player=1").statusCode());
+        assertEquals(400, send("GET", "/evaluate?board=XXAOO....&player=1").statusCode());
+        assertEquals(400, send("GET", "/evaluate?board=XX.OO....&player=3").statusCode());
+
+        HttpResponse<String> unknown = send("POST", "/answer?id=12345&xWins=true");
+        assertEquals(404, unknown.statusCode());
+        assertTrue(unknown.body().contains("unknown puzzle 12345"), unknown.body());
+
+        assertEquals(405, send("POST", "/puzzle").statusCode());
+        assertEquals(405, send("GET", "/answer?id=1&xWins=true").statusCode());
+        assertEquals(405, send("POST", "/evaluate?board=XX.OO....&player=1").statusCode());
+        assertEquals(0, server.getOpenPuzzles());
+    }
+
+    /**
+     * Ist die Hoechstzahl offener Raetsel erreicht, antwortet /puzzle mit 503, bis ein Raetsel beantwortet wurde
+     */
+    @Test
+    void tooManyOpenPuzzlesAreRejected() throws Exception {
+        start(PuzzleServer.DEFAULT_PUZZLE_TTL_MINUTES, TimeUnit.MINUTES, 1);
+
+        HttpResponse<String> first = send("GET", "/puzzle");
+        assertEquals(200, first.statusCode(), first.body());
+        assertEquals(503, send("GET", "/puzzle").statusCode());
+        assertEquals(1, server.getOpenPuzzles());
+
+        assertEquals(200, send("POST", "/answer?id=" + field(first.body(), "id") + "&xWins=true").statusCode());
+        assertEquals(200, send("GET", "/puzzle").statusCode());
+    }
+
+    /**
+     * Ein nicht beantwortetes Raetsel wird vom Sweeper entfernt, gibt seinen Platz frei und kann nicht mehr beantwortet werden
+     */
+    @Test
+    void expiredPuzzlesAreSwept() throws Exception {
+        start(50, TimeUnit.MILLISECONDS, 1);
+
+        HttpResponse<String> puzzle = send("GET", "/puzzle");
+        assertEquals(200, puzzle.statusCode(), puzzle.body());
+
+        // Der Sweeper erstellt zuerst die Pools aller Faehigkeitsstufen, daher kann das Entfernen etwas dauern
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+        while(server.getExpiredPuzzles() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, server.getExpiredPuzzles());
+        assertEquals(0, server.getOpenPuzzles());
+
+        HttpResponse<String> answer = send("POST", "/answer?id=" + field(puzzle.body(), "id") + "&xWins=true");
+        assertEquals(404, answer.statusCode());
+        assertEquals(200, send("GET", "/puzzle").statusCode());
+    }
+
+    /**
+     * Die Faehigkeitsstufen werden auf die Stufen der Schieberegler gerundet, sodass auch ungenaue Werte denselben Pool benutzen
+     */
+    @Test
+    void strengthIsRoundedToSliderSteps() {
+        assertEquals(0.2, PuzzleServer.parseStrength(null));
+        assertEquals(0.0, PuzzleServer.parseStrength("0.04"));
+        assertEquals(0.3, PuzzleServer.parseStrength(String.valueOf(0.1 + 0.2)));
+        assertEquals(0.7, PuzzleServer.parseStrength("0.66"));
+        assertEquals(1.0, PuzzleServer.parseStrength("1"));
+        assertSame(PuzzlePool.get(0.3, 0.7, PuzzleGenerator.DEFAULT_OPENING_MOVES),
+                PuzzlePool.get(PuzzleServer.parseStrength("0.30000000000000004"), PuzzleServer.parseStrength("0.7"),
+                        PuzzleGenerator.DEFAULT_OPENING_MOVES));
+
+        assertThrows(IllegalArgumentException.class, () -> PuzzleServer.parseStrength("-0.1"));
+        assertThrows(IllegalArgumentException.class, () -> PuzzleServer.parseStrength("1.01"));
+        assertThrows(IllegalArgumentException.class, () -> PuzzleServer.parseStrength("NaN"));
+        assertThrows(IllegalArgumentException.class, () -> PuzzleServer.parseStrength("strong"));
+    }
+
+    private void start(long puzzleTtl, TimeUnit unit, int maxOpenPuzzles) throws IOException {
+        server = new PuzzleServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), puzzleTtl, unit, maxOpenPuzzles);
+        server.start();
+    }
+
+    private HttpResponse<String> send(String method, String path) throws IOException, InterruptedException {
+        InetSocketAddress address = server.getAddress();
+        HttpRequest request = HttpRequest.newBuilder(
+                        URI.create("http://" + address.getAddress().getHostAddress() + ":" + address.getPort() + path))
+                .method(method, HttpRequest.BodyPublishers.noBody())
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    /**
+     * Liest ein Feld aus einer JSON Antwort des Servers
+     * @param json Die Antwort
+     * @param name Der Name des Feldes
+     * @return Der Wert, bei Zeichenketten mit Anfuehrungszeichen
+     */
+    private static String field(String json, String name) {
+        Matcher matcher = Pattern.compile("\"" + name + "\":(\"[^\"]*\"|[^,}]*)").matcher(json);
+        assertTrue(matcher.find(), () -> name + " fehlt in " + json);
+        return matcher.group(1);
+    }
+
+    private static String text(String value) {
+        return value.substring(1, value.length() - 1);
+    }
+}
@@ -0,0 +1,44 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Erzeugt die Loesungstabelle fuer SolutionTable, indem fuer jedes Spielbrett und jeden Spieler am Zug die MinMax Suche der K.I. ausgefuehrt wird.
+ * Das Werkzeug gehoert nicht zum Spiel und liegt daher bei den Tests; SolutionTableTest prueft, dass die Ressource noch zur Suche passt.
+ * Aufruf nach mvn -B test-compile: java -cp target/classes:target/test-classes SolutionTableGenerator [Ausgabedatei]
+ * (Standard: src/main/resources/solutions.bin).
+ */
+public class SolutionTableGenerator {
+
+    /**
+     * Die Main Methode erzeugt die Tabelle
+     * @param args Optional der Pfad der Ausgabedatei
+     * @throws IOException wenn die Tabelle nicht geschrieben werden kann
+     */
+    public static void main(String[] args) throws IOException {
+        Path output = Paths.get(args.length > 0 ? args[0] : "src/main/resources/solutions.bin");
+        if(output.getParent() != null) Files.createDirectories(output.getParent());
+        Files.write(output, generate());
+        System.out.println("Wrote " + output);
+    }
+
+    /**
+     * Loest alle Spielbretter mit der MinMax Suche
+     * @return Die Tabelle im Format von SolutionTable
+     */
+    static byte[] generate() {
+        AI ai = new AI(1);
+        byte[] table = new byte[SolutionTable.SIZE];
+        int[] board = new int[9];
+        for(int index = 0; index < TranspositionTable.POSITIONS; index++) {
+            BoardCodec.decode(index, board);
+            for(int player = 1; player <= 2; player++) {
+                int result = ai.search(board, player);
+                table[2 * (2 * index + player - 1)] = (byte) AI.moveOf(result);
+                table[2 * (2 * index + player - 1) + 1] = (byte) AI.scoreOf(result);
+            }
+        }
+        return table;
+    }
+}
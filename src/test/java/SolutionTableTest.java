@@ -0,0 +1,44 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Vergleicht die mitgelieferte Loesungstabelle mit der Suche der K.I.
+ */
+class SolutionTableTest {
+
+    /**
+     * Jeder Eintrag der Tabelle muss fuer alle 3^9 Spielbretter und beide Spieler denselben Zug und Evaluierungswert
+     * liefern wie die Suche ohne Transpositionstabelle.
+     */
+    @Test
+    void everyEntryMatchesTheSearch() {
+        byte[] table = SolutionTable.get();
+        assertNotNull(table, "solutions.bin fehlt oder hat die falsche Groesse");
+
+        AI ai = new AI(1, null);
+        int[] board = new int[9];
+        for(int index = 0; index < TranspositionTable.POSITIONS; index++) {
+            BoardCodec.decode(index, board);
+            for(int player = 1; player <= 2; player++) {
+                int result = ai.search(board, player);
+                int entry = index;
+                int p = player;
+                assertEquals(AI.moveOf(result), SolutionTable.bestMove(table, board, player),
+                        () -> "Zug fuer Index " + entry + ", Spieler " + p);
+                assertEquals(AI.scoreOf(result), SolutionTable.value(table, board, player),
+                        () -> "Wert fuer Index " + entry + ", Spieler " + p);
+            }
+        }
+    }
+
+    /**
+     * Der Generator erzeugt mit der Transpositionstabelle genau die mitgelieferte Ressource
+     */
+    @Test
+    void generatorReproducesTheResource() {
+        assertArrayEquals(SolutionTable.get(), SolutionTableGenerator.generate());
+    }
+}
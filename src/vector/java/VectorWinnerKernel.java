@@ -0,0 +1,71 @@
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Prueft die Gewinnreihen gepackter Bitboards mit der Vector API, so viele Spielbretter auf einmal, wie in ein Register
+ * der bevorzugten Vektorbreite passen (z.B. 16 mit AVX-512). Die Klasse wird nur mit dem Profil vector uebersetzt und
+ * von BatchEvaluator per Reflection geladen; zur Laufzeit muss --add-modules jdk.incubator.vector angegeben werden.
+ */
+final class VectorWinnerKernel implements BatchEvaluator.WinnerKernel {
+    private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED;
+
+    /**
+     * Bytes mit mindestens so vielen Lanes wie INTS, um die Gewinner direkt in das byte[] zu schreiben. Die kleinste
+     * Vektorbreite ist 64 Bit; bei 128 Bit breiten INTS (4 Lanes, z.B. SSE oder NEON) hat BYTES daher 8 Lanes, von denen
+     * nur die ersten 4 belegt und geschrieben werden.
+     */
+    private static final VectorSpecies<Byte> BYTES = VectorSpecies.of(byte.class,
+            VectorShape.forBitSize(Math.max(VectorShape.S_64_BIT.vectorBitSize(), INTS.length() * Byte.SIZE)));
+
+    /**
+     * Die Lanes von BYTES, die einem Spielbrett entsprechen
+     */
+    private static final VectorMask<Byte> STORED = BYTES.indexInRange(0, INTS.length());
+
+    /**
+     * Ob BYTES genau so viele Lanes hat wie INTS und ohne Maske geschrieben werden kann
+     */
+    private static final boolean SAME_LENGTH = BYTES.length() == INTS.length();
+
+    @Override
+    public void winners(int[] packed, byte[] winners, int offset, int count) {
+        int i = offset;
+        for(int end = offset + INTS.loopBound(count); i < end; i += INTS.length()) {
+            IntVector boards = IntVector.fromArray(INTS, packed, i);
+            IntVector x = boards.and(AI.FULL_BOARD);
+            IntVector o = boards.lanewise(VectorOperators.LSHR, BatchEvaluator.O_SHIFT).and(AI.FULL_BOARD);
+            VectorMask<Integer> xWins = INTS.maskAll(false);
+            VectorMask<Integer> oWins = INTS.maskAll(false);
+            for(int line : AI.WIN_LINES) {
+                xWins = xWins.or(x.and(line).eq(line));
+                oWins = oWins.or(o.and(line).eq(line));
+            }
+            IntVector winner = xWins.and(oWins).anyTrue()
+                    ? firstLineWinner(x, o)
+                    : IntVector.zero(INTS).blend(2, oWins).blend(1, xWins);
+            ByteVector bytes = (ByteVector) winner.convertShape(VectorOperators.I2B, BYTES, 0);
+            if(SAME_LENGTH) bytes.intoArray(winners, i);
+            else bytes.intoArray(winners, i, STORED);
+        }
+        BatchEvaluator.scalarWinners(packed, winners, i, offset + count - i);
+    }
+
+    /**
+     * Bestimmt den Gewinner, wenn beide Spieler eine Reihe haben: wie AI.checkForWinner entscheidet die erste Reihe
+     * in der Reihenfolge von AI.WIN_LINES. Bei erreichbaren Stellungen kommt das nicht vor.
+     */
+    private static IntVector firstLineWinner(IntVector x, IntVector o) {
+        IntVector winner = IntVector.zero(INTS);
+        for(int line : AI.WIN_LINES) {
+            VectorMask<Integer> open = winner.eq(0);
+            winner = winner.blend(1, x.and(line).eq(line).and(open));
+            open = winner.eq(0);
+            winner = winner.blend(2, o.and(line).eq(line).and(open));
+        }
+        return winner;
+    }
+}